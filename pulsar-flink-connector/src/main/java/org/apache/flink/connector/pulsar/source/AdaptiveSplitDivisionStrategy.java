@@ -0,0 +1,191 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.connector.pulsar.source.util.KeyHashes;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
+import org.apache.flink.streaming.connectors.pulsar.internal.SourceSinkUtils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.client.admin.PulsarAdmin;
+import org.apache.pulsar.client.admin.PulsarAdminException;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Range;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.common.naming.TopicName;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Split strategy that divides the key hashes of a topic into ranges of about the same traffic when
+ * the topic is discovered, i.e. a skew-aware initial division.
+ *
+ * <p>The hashes of the keys of the latest entries of the topic are sampled through the admin API,
+ * and the hash space is cut at the quantiles of the samples into one range per reader. Ranges
+ * around hot keys thereby get narrower, and ranges of cold keys wider. Topics with fewer samples
+ * than readers are divided uniformly. The admin API returns the first message of a batch entry
+ * only, so its key counts once per message of the batch. This is exact for producers that batch
+ * by key, as Key_Shared subscriptions require.
+ *
+ * <p>The ranges of a topic are kept afterwards, also after a restore, and are not divided again if
+ * the skew of the keys shifts, since changing the ranges of splits that are being read would read
+ * some keys twice or not at all.
+ */
+@Slf4j
+public class AdaptiveSplitDivisionStrategy implements SplitDivisionStrategy {
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_NUM_SAMPLES = 256;
+
+    /** The property of messages returned by the admin API that holds the size of their batch. */
+    private static final String BATCH_HEADER = "X-Pulsar-num-batch-message";
+
+    private final int numSamples;
+
+    public AdaptiveSplitDivisionStrategy() {
+        this(DEFAULT_NUM_SAMPLES);
+    }
+
+    public AdaptiveSplitDivisionStrategy(int numSamples) {
+        checkArgument(numSamples > 0, "The number of samples must be positive.");
+        this.numSamples = numSamples;
+    }
+
+    @Override
+    public Collection<Range> getRanges(String topic, PulsarAdmin pulsarAdmin, SplitEnumeratorContext<PulsarPartitionSplit> context) throws PulsarAdminException {
+        int numReaders = context.currentParallelism();
+        int[] hashes = sampleKeyHashes(topic, pulsarAdmin);
+        if (hashes.length < numReaders) {
+            log.info("Dividing {} uniformly, only {} key hashes were sampled.", topic, hashes.length);
+            List<Range> ranges = new ArrayList<>();
+            for (int subtaskIdx = 0; subtaskIdx < numReaders; subtaskIdx++) {
+                ranges.add(SourceSinkUtils.distributeRange(numReaders, subtaskIdx));
+            }
+            return ranges;
+        }
+        List<Range> ranges = divide(hashes, numReaders);
+        log.info("Divided {} into the ranges {} from {} key hashes.", topic, ranges, hashes.length);
+        return ranges;
+    }
+
+    @Override
+    public Collection<Range> getRanges(
+            String topic,
+            SortedSet<SerializableRange> currentRanges,
+            PulsarAdmin pulsarAdmin,
+            SplitEnumeratorContext<PulsarPartitionSplit> context) throws PulsarAdminException {
+        if (!currentRanges.isEmpty()) {
+            return currentRanges.stream().map(SerializableRange::getPulsarRange).collect(Collectors.toList());
+        }
+        return getRanges(topic, pulsarAdmin, context);
+    }
+
+    /**
+     * Cuts the hash space at the quantiles of the sorted hashes. Cuts that fall onto the same hash
+     * are merged, so there may be fewer ranges than requested.
+     */
+    @VisibleForTesting
+    static List<Range> divide(int[] sortedHashes, int numRanges) {
+        List<Range> ranges = new ArrayList<>();
+        int start = SerializableRange.fullRangeStart;
+        for (int i = 1; i < numRanges; i++) {
+            int end = sortedHashes[(int) ((long) i * sortedHashes.length / numRanges)];
+            if (end > start) {
+                ranges.add(Range.of(start, end - 1));
+                start = end;
+            }
+        }
+        ranges.add(Range.of(start, SerializableRange.fullRangeEnd));
+        return ranges;
+    }
+
+    private int[] sampleKeyHashes(String topic, PulsarAdmin pulsarAdmin) {
+        List<Integer> hashes = new ArrayList<>();
+        try {
+            List<String> partitions = new ArrayList<>();
+            int numPartitions = pulsarAdmin.topics().getPartitionedTopicMetadata(topic).partitions;
+            if (numPartitions == 0) {
+                partitions.add(topic);
+            } else {
+                for (int i = 0; i < numPartitions; i++) {
+                    partitions.add(topic + TopicName.PARTITIONED_TOPIC_SUFFIX + i);
+                }
+            }
+            int numSamplesPerPartition = Math.max(1, numSamples / partitions.size());
+            for (String partition : partitions) {
+                sampleKeyHashes(partition, numSamplesPerPartition, pulsarAdmin, hashes);
+            }
+        } catch (PulsarAdminException e) {
+            log.warn("Failed to sample the keys of {}.", topic, e);
+        }
+        return hashes.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Returns the number of messages in the entry of a message returned by the admin API.
+     */
+    @VisibleForTesting
+    static int getNumMessagesOfEntry(Message<?> message) {
+        String batchSize = message.getProperty(BATCH_HEADER);
+        if (batchSize == null) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(batchSize));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Samples the latest entries of the current ledger of a partition.
+     */
+    private static void sampleKeyHashes(
+            String partition,
+            int numSamplesOfPartition,
+            PulsarAdmin pulsarAdmin,
+            List<Integer> hashes) throws PulsarAdminException {
+        MessageId lastMessageId = pulsarAdmin.topics().getLastMessageId(partition);
+        if (!(lastMessageId instanceof MessageIdImpl)) {
+            return;
+        }
+        long ledgerId = ((MessageIdImpl) lastMessageId).getLedgerId();
+        long lastEntryId = ((MessageIdImpl) lastMessageId).getEntryId();
+        for (long entryId = lastEntryId; entryId >= 0 && entryId > lastEntryId - numSamplesOfPartition; entryId--) {
+            try {
+                Message<byte[]> message = pulsarAdmin.topics().getMessageById(partition, ledgerId, entryId);
+                if (message != null) {
+                    int hash = KeyHashes.hashOf(message);
+                    for (int i = getNumMessagesOfEntry(message); i > 0; i--) {
+                        hashes.add(hash);
+                    }
+                }
+            } catch (PulsarAdminException.NotFoundException e) {
+                // the entry has been trimmed already
+                return;
+            }
+        }
+    }
+}
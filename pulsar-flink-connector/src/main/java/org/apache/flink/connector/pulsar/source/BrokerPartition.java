@@ -25,6 +25,9 @@ import java.util.Objects;
  * Represents pulsar's topic partition.
  */
 public class BrokerPartition extends AbstractPartition {
+    /** The default serialVersionUID of the class before toString was added, kept for restored splits. */
+    private static final long serialVersionUID = -1656877524436070686L;
+
     public static final Range FULL_RANGE = new Range(SerializableRange.fullRangeStart, SerializableRange.fullRangeEnd);
     private TopicRange topicRange;
 
@@ -57,4 +60,9 @@ public class BrokerPartition extends AbstractPartition {
     public int hashCode() {
         return Objects.hash(topicRange);
     }
+
+    @Override
+    public String toString() {
+        return topicRange.toString();
+    }
 }
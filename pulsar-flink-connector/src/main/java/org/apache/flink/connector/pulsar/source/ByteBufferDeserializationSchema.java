@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.util.Collector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link DeserializationSchema} that can read the payload of a message straight from the buffer
+ * it was received in, without copying it into a byte array first.
+ *
+ * <p>The Pulsar sources hand the message buffer to schemas implementing this interface. The buffer
+ * is only valid during the call and must not be kept, its position and limit may be changed freely.
+ */
+public interface ByteBufferDeserializationSchema<T> extends DeserializationSchema<T> {
+
+    /**
+     * Deserializes the message payload between the position and the limit of the buffer.
+     *
+     * @param message the payload of the message, null for messages without a value.
+     * @return the deserialized message, or null if the message cannot be deserialized.
+     * @throws IOException if the deserialization failed.
+     */
+    T deserialize(ByteBuffer message) throws IOException;
+
+    /**
+     * Deserializes the message payload and emits the resulting records, if any.
+     */
+    default void deserialize(ByteBuffer message, Collector<T> out) throws IOException {
+        T deserialized = deserialize(message);
+        if (deserialized != null) {
+            out.collect(deserialized);
+        }
+    }
+
+    @Override
+    default T deserialize(byte[] message) throws IOException {
+        return deserialize(message == null ? null : ByteBuffer.wrap(message));
+    }
+}
@@ -17,6 +17,7 @@ package org.apache.flink.connector.pulsar.source;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.connector.pulsar.source.util.MessagePayloads;
 import org.apache.flink.util.Collector;
 
 import org.apache.pulsar.client.api.Message;
@@ -60,6 +61,8 @@ public interface MessageDeserializer<T> extends Serializable, ResultTypeQueryabl
     /**
      * Wraps a Flink {@link DeserializationSchema} to a {@link MessageDeserializer}.
      *
+     * <p>A {@link ByteBufferDeserializationSchema} reads the payload straight from the message buffer.
+     *
      * @param valueDeserializer the deserializer class used to deserialize the value.
      * @param <V>               the value type.
      * @return A {@link MessageDeserializer} that deserialize the value with the given deserializer.
@@ -68,7 +71,7 @@ public interface MessageDeserializer<T> extends Serializable, ResultTypeQueryabl
         return new MessageDeserializer<V>() {
             @Override
             public void deserialize(Message<?> message, Collector<V> collector) throws IOException {
-                valueDeserializer.deserialize(message.getData(), collector);
+                MessagePayloads.deserialize(valueDeserializer, message, collector);
             }
 
             @Override
@@ -17,6 +17,7 @@ package org.apache.flink.connector.pulsar.source;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
 
 import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.Messages;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.impl.ConsumerImpl;
@@ -28,9 +29,15 @@ import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Using to reade data form partition.
+ *
+ * <p>Every reader keeps one batch receive running in the background, so that the fetcher thread only
+ * harvests completed batches and never waits for the broker of a single partition.
  */
 //TODO make this class abstract to implements streamPartitionReader and bkPartitionReader、tsPartitionReader
 // to read from broker and bookie or tiredStorage.
@@ -38,14 +45,20 @@ public class PartitionReader implements Comparable<PartitionReader>, Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(PartitionReader.class);
 
-    private static final long MAX_BACKOFF = 1L << 30;
     private final PulsarPartitionSplit split;
     private final ConsumerImpl<byte[]> consumer;
     private final StopCondition stopCondition;
     @Nullable
     private Message lastMessage;
-    private long backOff = 1;
     private boolean stopped;
+    /** Whether the last completed receive returned no messages, i.e. the reader caught up. */
+    private boolean idle;
+    /** The batch receive running in the background, there is at most one per partition. */
+    @Nullable
+    private CompletableFuture<Messages<byte[]>> pendingReceive;
+    /** The messages up to this id are skipped, they are delivered again after a seek to it. */
+    @Nullable
+    private MessageId startAfter;
 
     public PartitionReader(PulsarPartitionSplit split, ConsumerImpl<byte[]> consumer, StopCondition stopCondition) {
         this.split = split;
@@ -66,12 +79,44 @@ public class PartitionReader implements Comparable<PartitionReader>, Closeable {
         this.lastMessage = lastMessage;
     }
 
+    /**
+     * Skips the messages up to and including the given id, which the consumer delivers again after
+     * seeking to it.
+     */
+    public void setStartAfter(@Nullable MessageId startAfter) {
+        this.startAfter = startAfter;
+    }
+
+    /**
+     * Starts receiving the first batch of messages in the background.
+     */
+    public void start() {
+        if (pendingReceive == null && !stopped) {
+            pendingReceive = consumer.batchReceiveAsync();
+        }
+    }
+
+    /**
+     * Returns the messages of the batch received in the background, and starts receiving the next
+     * batch. Never blocks: if the receive did not complete yet, no messages are returned.
+     */
     public Iterator<Message<?>> nextBatch() throws PulsarClientException {
-        if (consumer.hasMessageAvailable()) {
-            Messages<byte[]> messages = consumer.batchReceive();
+        if (stopped) {
+            return Collections.emptyIterator();
+        }
+        start();
+        if (pendingReceive.isDone()) {
+            Messages<byte[]> messages;
+            try {
+                messages = pendingReceive.join();
+            } catch (CompletionException | CancellationException e) {
+                throw PulsarClientException.unwrap(e.getCause() != null ? e.getCause() : e);
+            } finally {
+                pendingReceive = consumer.batchReceiveAsync();
+            }
             Iterator<Message<byte[]>> messageIterator = messages.iterator();
-            if (messageIterator.hasNext()) {
-                backOff = 1;
+            idle = !messageIterator.hasNext();
+            if (!idle) {
                 return new Iterator<Message<?>>() {
                     @Nullable
                     Message<byte[]> next = initNext();
@@ -90,10 +135,13 @@ public class PartitionReader implements Comparable<PartitionReader>, Closeable {
 
                     @Nullable
                     private Message<byte[]> initNext() {
-                        if (!messageIterator.hasNext()) {
-                            return null;
-                        }
-                        Message<byte[]> next = messageIterator.next();
+                        Message<byte[]> next;
+                        do {
+                            if (!messageIterator.hasNext()) {
+                                return null;
+                            }
+                            next = messageIterator.next();
+                        } while (isBeforeStart(next));
                         switch (stopCondition.shouldStop(split.getPartition(), next)) {
                             case STOP_BEFORE:
                                 stopped = true;
@@ -108,24 +156,77 @@ public class PartitionReader implements Comparable<PartitionReader>, Closeable {
                 };
             }
         }
+        return Collections.emptyIterator();
+    }
 
-        if (backOff < MAX_BACKOFF) {
-            backOff <<= 1;
+    private boolean isBeforeStart(Message<byte[]> message) {
+        if (startAfter == null) {
+            return false;
         }
-        return Collections.emptyIterator();
+        if (message.getMessageId().compareTo(startAfter) <= 0) {
+            return true;
+        }
+        startAfter = null;
+        return false;
+    }
+
+    /**
+     * Returns the receive running in the background, which completes once {@link #nextBatch()} can
+     * return messages.
+     */
+    public CompletableFuture<?> getPendingReceive() {
+        if (stopped) {
+            return CompletableFuture.completedFuture(null);
+        }
+        start();
+        return pendingReceive;
     }
 
     public boolean isStopped() {
         return stopped;
     }
 
-    @Override
-    public int compareTo(PartitionReader o) {
-        return Long.compare(getOrder(), o.getOrder());
+    /**
+     * Stops the reader before it receives any message, for a split that cannot read any message
+     * before its stop condition is met.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns whether {@link #nextBatch()} can return the result of a completed receive, or the
+     * reader stopped.
+     */
+    public boolean isReady() {
+        return stopped || (pendingReceive != null && pendingReceive.isDone());
     }
 
-    private long getOrder() {
-        return lastMessage == null ? backOff : (lastMessage.getEventTime() + backOff);
+    /**
+     * Returns whether the last completed receive returned no messages.
+     */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /**
+     * Returns the event time of the last message, or its publish time if it has no event time.
+     * Readers that did not read any message yet have the lowest possible watermark.
+     */
+    public long getWatermark() {
+        if (lastMessage == null) {
+            return Long.MIN_VALUE;
+        }
+        return lastMessage.getEventTime() > 0 ? lastMessage.getEventTime() : lastMessage.getPublishTime();
+    }
+
+    /**
+     * Orders the readers by their watermark, so that the reader that lags behind most comes first.
+     * The watermark only changes while the reader is polled, not while it is queued.
+     */
+    @Override
+    public int compareTo(PartitionReader o) {
+        return Long.compare(getWatermark(), o.getWatermark());
     }
 
     public void close() {
@@ -25,8 +25,11 @@ import org.apache.flink.api.connector.source.SplitEnumeratorContext;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.fetcher.SingleThreadFetcherManager;
+import org.apache.flink.connector.base.source.reader.fetcher.SplitFetcherManager;
 import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
 import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.pulsar.source.alignment.WatermarkAlignment;
 import org.apache.flink.connector.pulsar.source.enumerator.PulsarSourceEnumerator;
 import org.apache.flink.connector.pulsar.source.enumerator.PulsarSourceEnumeratorState;
 import org.apache.flink.connector.pulsar.source.enumerator.PulsarSourceEnumeratorStateSerializer;
@@ -34,6 +37,8 @@ import org.apache.flink.connector.pulsar.source.reader.ParsedMessage;
 import org.apache.flink.connector.pulsar.source.reader.PulsarPartitionSplitReader;
 import org.apache.flink.connector.pulsar.source.reader.PulsarRecordEmitter;
 import org.apache.flink.connector.pulsar.source.reader.PulsarSourceReader;
+import org.apache.flink.connector.pulsar.source.reader.PulsarSplitFetcherManager;
+import org.apache.flink.connector.pulsar.source.reader.SplitAcknowledger;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplitSerializer;
 import org.apache.flink.connector.pulsar.source.util.PulsarAdminUtils;
@@ -43,6 +48,7 @@ import org.apache.flink.streaming.connectors.pulsar.internal.CachedPulsarClient;
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.SubscriptionMode;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
 import org.apache.pulsar.client.util.ExecutorProvider;
@@ -129,7 +135,17 @@ public class PulsarSource<OUT>
                 new FutureCompletingBlockingQueue<>();
         ExecutorProvider listenerExecutor = new ExecutorProvider(1, "Pulsar listener executor");
         Closer splitCloser = Closer.create();
+        // registered first so that the shared client is released after the split readers are closed
+        splitCloser.register(this::releaseClient);
         splitCloser.register(listenerExecutor::shutdownNow);
+        long maxDrift = configuration.get(PulsarSourceOptions.WATERMARK_ALIGNMENT_MAX_DRIFT_MS);
+        WatermarkAlignment watermarkAlignment = maxDrift > 0 ?
+                new WatermarkAlignment(maxDrift, configuration.get(PulsarSourceOptions.WATERMARK_ALIGNMENT_UPDATE_INTERVAL_MS)) :
+                null;
+        // the cursors of non-durable subscriptions are dropped with their consumers, acknowledging them is useless
+        SplitAcknowledger acknowledger = consumerConfigurationData.getSubscriptionMode() == SubscriptionMode.Durable ?
+                new SplitAcknowledger(readerContext.metricGroup()) :
+                null;
         Supplier<SplitReader<ParsedMessage<OUT>, PulsarPartitionSplit>> splitReaderSupplier = () -> {
             PulsarPartitionSplitReader<OUT> reader = new PulsarPartitionSplitReader<>(
                     configuration,
@@ -137,19 +153,32 @@ public class PulsarSource<OUT>
                     getClient(),
                     getPulsarAdmin(),
                     messageDeserializer,
-                    listenerExecutor);
+                    listenerExecutor,
+                    watermarkAlignment,
+                    acknowledger);
             splitCloser.register(reader);
             return reader;
         };
         PulsarRecordEmitter<OUT> recordEmitter = new PulsarRecordEmitter<>();
 
+        int numFetchers = configuration.get(PulsarSourceOptions.NUM_FETCHERS);
+        SplitFetcherManager<ParsedMessage<OUT>, PulsarPartitionSplit> splitFetcherManager = numFetchers > 1 ?
+                new PulsarSplitFetcherManager<>(
+                        elementsQueue,
+                        splitReaderSupplier,
+                        numFetchers,
+                        configuration.get(PulsarSourceOptions.FETCHER_ASSIGNMENT)) :
+                new SingleThreadFetcherManager<>(elementsQueue, splitReaderSupplier);
+
         return new PulsarSourceReader<>(
                 elementsQueue,
-                splitReaderSupplier,
+                splitFetcherManager,
                 recordEmitter,
                 configuration,
                 readerContext,
-                splitCloser::close);
+                splitCloser::close,
+                watermarkAlignment,
+                acknowledger);
     }
 
     @Nonnull
@@ -176,6 +205,13 @@ public class PulsarSource<OUT>
         return pulsarClient;
     }
 
+    private void releaseClient() {
+        if (pulsarClient != null) {
+            pulsarClient = null;
+            CachedPulsarClient.release(pulsarConfiguration);
+        }
+    }
+
     @Override
     public SplitEnumerator<PulsarPartitionSplit, PulsarSourceEnumeratorState> createEnumerator(
             SplitEnumeratorContext<PulsarPartitionSplit> enumContext) {
@@ -185,6 +221,7 @@ public class PulsarSource<OUT>
                 stopCondition,
                 getPulsarAdmin(),
                 configuration,
+                consumerConfigurationData.getSubscriptionName(),
                 enumContext,
                 Collections.emptyMap(),
                 splitSchedulingStrategy);
@@ -200,6 +237,7 @@ public class PulsarSource<OUT>
                 stopCondition,
                 getPulsarAdmin(),
                 configuration,
+                consumerConfigurationData.getSubscriptionName(),
                 enumContext,
                 checkpoint.getCurrentAssignment(),
                 splitSchedulingStrategy);
@@ -19,6 +19,7 @@ import org.apache.flink.api.connector.source.Boundedness;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.pulsar.source.util.PulsarAdminUtils;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
 
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.SubscriptionMode;
@@ -31,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -38,6 +40,7 @@ import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
 
@@ -97,6 +100,41 @@ public class PulsarSourceBuilder<OUT> {
         return setTopicPattern(namespace, NoSplitDivisionStrategy.INSTANCE, topicPatterns);
     }
 
+    /**
+     * Sets the name of the subscription, by default a random name prefixed with {@code flink-}.
+     * Splits of a Key_Shared hash range subscribe with the name suffixed by their range.
+     */
+    public PulsarSourceBuilder<OUT> setSubscriptionName(String subscriptionName) {
+        consumerConfigurationData.setSubscriptionName(checkNotNull(subscriptionName));
+        return this;
+    }
+
+    /**
+     * Sets the mode of the subscription, by default {@link SubscriptionMode#NonDurable}. Only the
+     * cursors of durable subscriptions are moved to the positions of completed checkpoints, so that
+     * the brokers can release the acknowledged messages and the backlog of the subscription can be
+     * monitored. The source always restarts from the positions in its checkpoints.
+     */
+    public PulsarSourceBuilder<OUT> setSubscriptionMode(SubscriptionMode subscriptionMode) {
+        consumerConfigurationData.setSubscriptionMode(checkNotNull(subscriptionMode));
+        return this;
+    }
+
+    /**
+     * Restricts the source to the messages whose key hashes into one of the given Key_Shared hash
+     * ranges. The consumers subscribe as Key_Shared with a sticky hash range for each of them, so that
+     * the brokers do not dispatch the messages with other keys. Splits that are divided by key hash
+     * keep subscribing to their own range.
+     */
+    public PulsarSourceBuilder<OUT> setKeyHashRanges(Collection<SerializableRange> keyHashRanges) {
+        checkArgument(!keyHashRanges.isEmpty(), "No key hash range is specified.");
+        configuration.set(PulsarSourceOptions.KEY_HASH_RANGES, keyHashRanges.stream()
+                .map(range -> range.getPulsarRange().getStart() + "-" + range.getPulsarRange().getEnd())
+                .collect(Collectors.toList()));
+        consumerConfigurationData.setSubscriptionType(SubscriptionType.Key_Shared);
+        return this;
+    }
+
     public PulsarSourceBuilder<OUT> setSplitSchedulingStrategy(SplitSchedulingStrategy splitSchedulingStrategy) {
         this.splitSchedulingStrategy = splitSchedulingStrategy;
         return this;
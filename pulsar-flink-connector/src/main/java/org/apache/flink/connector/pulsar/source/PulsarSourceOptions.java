@@ -17,6 +17,8 @@ package org.apache.flink.connector.pulsar.source;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
 
+import java.util.List;
+
 /**
  * Configurations for PulsarSource.
  */
@@ -53,9 +55,71 @@ public class PulsarSourceOptions {
             .key("max.fetch.records")
             .intType()
             .defaultValue(100)
-            .withDescription("The max number of records to fetch to wait when polling. " +
-                    "A longer time increases throughput but also latency." +
-                    "A fetch batch might be finished earlier because of max.fetch.time.");
+            .withDescription("The max number of messages of one fetch batch. " +
+                    "A higher number increases throughput but also latency. " +
+                    "A fetch batch might be finished earlier because of max.fetch.time or max.fetch.bytes, " +
+                    "and might exceed the limit by the messages of one batch receive.");
+
+    public static final ConfigOption<Long> MAX_FETCH_BYTES = ConfigOptions
+            .key("max.fetch.bytes")
+            .longType()
+            .defaultValue(8 * 1024 * 1024L)
+            .withDescription("The max number of payload bytes of one fetch batch. " +
+                    "A fetch batch might be finished earlier because of max.fetch.time or max.fetch.records, " +
+                    "and might exceed the limit by the messages of one batch receive.");
+
+    public static final ConfigOption<Long> MIN_FETCH_BYTES = ConfigOptions
+            .key("min.fetch.bytes")
+            .longType()
+            .defaultValue(64 * 1024L)
+            .withDescription("The lower bound of the payload bytes of one fetch batch " +
+                    "when the fetch size is adapted to fetch.target.latency.ms.");
+
+    public static final ConfigOption<Long> FETCH_TARGET_LATENCY_MS = ConfigOptions
+            .key("fetch.target.latency.ms")
+            .longType()
+            .defaultValue(0L)
+            .withDescription("The time in milliseconds one fetch batch should take. If positive, the byte limit " +
+                    "of a fetch batch is adapted between min.fetch.bytes and max.fetch.bytes to the observed " +
+                    "fetch throughput, otherwise every fetch batch is limited by max.fetch.bytes.");
+
+    public static final ConfigOption<Long> MAX_WATERMARK_DRIFT_MS = ConfigOptions
+            .key("fetch.max.watermark.drift.ms")
+            .longType()
+            .defaultValue(0L)
+            .withDescription("The split readers always serve the partition with the lowest watermark first. If positive, " +
+                    "a partition whose watermark is further ahead of the lowest watermark of the partitions that " +
+                    "are not caught up is paused until the others catch up. The watermark of a partition is the " +
+                    "event time of its last message, or the publish time if the message has no event time.");
+
+    public static final ConfigOption<Long> WATERMARK_ALIGNMENT_MAX_DRIFT_MS = ConfigOptions
+            .key("watermark.alignment.max.drift.ms")
+            .longType()
+            .defaultValue(0L)
+            .withDescription("If positive, the source readers exchange their watermarks through the enumerator and " +
+                    "pause the partitions whose watermark is further ahead of the lowest watermark of all readers.");
+
+    public static final ConfigOption<Long> WATERMARK_ALIGNMENT_UPDATE_INTERVAL_MS = ConfigOptions
+            .key("watermark.alignment.update.interval.ms")
+            .longType()
+            .defaultValue(1000L)
+            .withDescription("The interval in milliseconds in which the source readers report their watermark " +
+                    "for the watermark alignment. Readers that did not report for three intervals are ignored.");
+
+    public static final ConfigOption<Integer> NUM_FETCHERS = ConfigOptions
+            .key("num.fetchers")
+            .intType()
+            .defaultValue(1)
+            .withDescription("The number of threads each source reader uses to fetch and deserialize " +
+                    "the messages of its splits. Every split is fetched by one of the threads.");
+
+    public static final ConfigOption<FetcherAssignment> FETCHER_ASSIGNMENT = ConfigOptions
+            .key("fetcher.assignment")
+            .enumType(FetcherAssignment.class)
+            .defaultValue(FetcherAssignment.ROUND_ROBIN)
+            .withDescription("How the splits of a source reader are assigned to its fetcher threads " +
+                    "if num.fetchers is greater than 1. ROUND_ROBIN assigns the splits in turn, " +
+                    "HASH assigns every split by the hash of its id, so that a split returns to the same thread.");
 
     public static final ConfigOption<OffsetVerification> VERIFY_INITIAL_OFFSETS = ConfigOptions
             .key("verify.initial.offsets")
@@ -65,6 +129,23 @@ public class PulsarSourceOptions {
                     "If failure is enabled the application fails, else it logs a warning. " +
                     "A possible solution is to adjust the retention settings in pulsar or ignoring the check result.");
 
+    public static final ConfigOption<List<String>> KEY_HASH_RANGES = ConfigOptions
+            .key("key.hash.ranges")
+            .stringType()
+            .asList()
+            .noDefaultValue()
+            .withDescription("The Key_Shared hash ranges to read, each as start-end, e.g. 100-100;2000-2047. " +
+                    "If set, the consumers of the splits that are not divided by key hash subscribe with a sticky " +
+                    "hash range for each, so that the brokers only dispatch the messages whose key hashes into " +
+                    "one of the ranges.");
+
+    /**
+     * Enum for fetcherAssignment.
+     */
+    public enum FetcherAssignment {
+        ROUND_ROBIN, HASH
+    }
+
     /**
      * Enum for offsetVerification.
      */
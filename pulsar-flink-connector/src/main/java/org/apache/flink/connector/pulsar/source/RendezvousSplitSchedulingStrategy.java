@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+
+import org.apache.flink.shaded.guava18.com.google.common.hash.HashFunction;
+import org.apache.flink.shaded.guava18.com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * SplitSchedulingStrategy based on rendezvous hashing with bounded loads.
+ *
+ * <p>Every reader gets a pseudo-random weight for a split, derived from the partition and the reader
+ * index, and the split goes to the reader with the highest weight. Partitions of the same topic
+ * are thereby spread over all readers, and a change of the number of readers only moves the splits
+ * whose highest weight belongs to an added or removed reader.
+ *
+ * <p>Readers that already own more than {@code loadFactor} times the average number of splits are
+ * skipped, so the split counts stay balanced even for a few partitions.
+ */
+public class RendezvousSplitSchedulingStrategy implements SplitSchedulingStrategy {
+    private static final long serialVersionUID = 1L;
+
+    public static final double DEFAULT_LOAD_FACTOR = 1.25;
+
+    public static final RendezvousSplitSchedulingStrategy INSTANCE =
+            new RendezvousSplitSchedulingStrategy(DEFAULT_LOAD_FACTOR);
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final double loadFactor;
+
+    public RendezvousSplitSchedulingStrategy(double loadFactor) {
+        checkArgument(loadFactor >= 1.0, "The load factor must not be less than 1.");
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    public int getIndexOfReader(int numReaders, PulsarPartitionSplit split) {
+        String key = getKey(split);
+        int owner = 0;
+        long maxWeight = Long.MIN_VALUE;
+        for (int reader = 0; reader < numReaders; reader++) {
+            long weight = getWeight(key, reader);
+            if (weight > maxWeight) {
+                maxWeight = weight;
+                owner = reader;
+            }
+        }
+        return owner;
+    }
+
+    @Override
+    public int getIndexOfReader(
+            int numReaders,
+            PulsarPartitionSplit split,
+            Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders) {
+        int[] numSplitsOfReaders = new int[numReaders];
+        int numSplits = 1;
+        for (int reader = 0; reader < numReaders; reader++) {
+            List<PulsarPartitionSplit> splits = splitsOfReaders.get(reader);
+            numSplitsOfReaders[reader] = splits == null ? 0 : splits.size();
+            numSplits += numSplitsOfReaders[reader];
+        }
+        int capacity = (int) Math.ceil(loadFactor * numSplits / numReaders);
+
+        String key = getKey(split);
+        int owner = -1;
+        long maxWeight = Long.MIN_VALUE;
+        for (int reader = 0; reader < numReaders; reader++) {
+            long weight = getWeight(key, reader);
+            if (weight > maxWeight && numSplitsOfReaders[reader] < capacity) {
+                maxWeight = weight;
+                owner = reader;
+            }
+        }
+        // the capacity is above the average, so at least one reader is below it
+        return owner;
+    }
+
+    @Override
+    public void addSplitsBack(
+            Map<Integer, List<PulsarPartitionSplit>> pendingPartitionSplitAssignment,
+            List<PulsarPartitionSplit> splits,
+            int subtaskId,
+            int numReaders) {
+        // give the splits back to the same reader, it gets the same subtask id when it is restarted
+        pendingPartitionSplitAssignment.computeIfAbsent(subtaskId, r -> new ArrayList<>()).addAll(splits);
+    }
+
+    static String getKey(PulsarPartitionSplit split) {
+        AbstractPartition partition = split.getPartition();
+        if (partition instanceof BrokerPartition) {
+            return ((BrokerPartition) partition).getTopicRange().toString();
+        }
+        return partition.getTopic();
+    }
+
+    static long getWeight(String key, int reader) {
+        return HASH_FUNCTION.newHasher()
+                .putString(key, StandardCharsets.UTF_8)
+                .putInt(reader)
+                .hash()
+                .asLong();
+    }
+}
@@ -16,6 +16,7 @@ package org.apache.flink.connector.pulsar.source;
 
 import org.apache.flink.api.connector.source.SplitEnumeratorContext;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
 
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.admin.PulsarAdminException;
@@ -23,11 +24,25 @@ import org.apache.pulsar.client.api.Range;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.SortedSet;
 
 /**
  * Split strategy for Topic range.
  */
 public interface SplitDivisionStrategy extends Serializable {
     Collection<Range> getRanges(String topic, PulsarAdmin pulsarAdmin, SplitEnumeratorContext<PulsarPartitionSplit> context) throws PulsarAdminException;
+
+    /**
+     * Gets the ranges of a topic, knowing the ranges of the splits of the topic that were discovered
+     * before. Strategies whose ranges vary over time keep the current ranges, so that no key of a
+     * topic is read by two splits.
+     */
+    default Collection<Range> getRanges(
+            String topic,
+            SortedSet<SerializableRange> currentRanges,
+            PulsarAdmin pulsarAdmin,
+            SplitEnumeratorContext<PulsarPartitionSplit> context) throws PulsarAdminException {
+        return getRanges(topic, pulsarAdmin, context);
+    }
 }
 
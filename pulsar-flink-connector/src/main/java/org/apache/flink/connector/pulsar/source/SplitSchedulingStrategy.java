@@ -26,6 +26,32 @@ import java.util.Map;
 public interface SplitSchedulingStrategy extends Serializable {
     int getIndexOfReader(int numReaders, PulsarPartitionSplit split);
 
+    /**
+     * Determines the reader of a new split, knowing the splits that the readers already own.
+     * Strategies that balance the load of the readers override this method.
+     */
+    default int getIndexOfReader(
+            int numReaders,
+            PulsarPartitionSplit split,
+            Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders) {
+        return getIndexOfReader(numReaders, split);
+    }
+
+    /**
+     * The interval in which the enumerator samples the message rates and backlogs of the partitions
+     * and passes them to {@link #updateMessageRates(Map, Map)}, or 0 if the strategy does not use them.
+     */
+    default long getRateSampleIntervalMs() {
+        return 0;
+    }
+
+    /**
+     * Updates the sampled rate of incoming messages per second of partitioned topics, and the number
+     * of messages in the backlog of the subscription of the source.
+     */
+    default void updateMessageRates(Map<String, Double> msgRateInOfTopics, Map<String, Long> msgBacklogOfTopics) {
+    }
+
     void addSplitsBack(
             Map<Integer, List<PulsarPartitionSplit>> pendingPartitionSplitAssignment,
             List<PulsarPartitionSplit> splits,
@@ -14,20 +14,26 @@
 
 package org.apache.flink.connector.pulsar.source;
 
+import org.apache.flink.connector.pulsar.source.stop.LastMessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.MessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.NeverStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionIndexMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PublishTimeStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.TimestampStopCondition;
+
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.impl.MessageIdImpl;
 
+import javax.annotation.Nullable;
+
 import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Map;
 
-import static org.apache.flink.connector.pulsar.source.StopCondition.StopResult.DONT_STOP;
-import static org.apache.flink.connector.pulsar.source.StopCondition.StopResult.STOP_AFTER;
-import static org.apache.flink.connector.pulsar.source.StopCondition.StopResult.STOP_BEFORE;
-
 /**
  * An interface to control when to stop.
  */
@@ -56,67 +62,106 @@ public interface StopCondition extends Serializable {
     default void init(AbstractPartition partition, Consumer<byte[]> consumer) throws PulsarClientException {
     }
 
+    /**
+     * Returns whether a split cannot read any message before it stops. Since {@link #shouldStop} is
+     * only asked for received messages, such a split is finished when it is set up instead of
+     * waiting for a message.
+     *
+     * @param startId   the id of the first message the split reads, {@link MessageId#latest} if it reads
+     *                  the messages published after it is set up, or null if the start is unknown
+     * @param inclusive whether the message of the start id is read
+     */
+    default boolean isExhausted(
+            AbstractPartition partition,
+            Consumer<byte[]> consumer,
+            @Nullable MessageId startId,
+            boolean inclusive) throws PulsarClientException {
+        return false;
+    }
+
     static StopCondition stopAtMessageId(MessageId id) {
-        return (partition, message) -> hitMessageId(message, id) ? STOP_BEFORE : DONT_STOP;
+        return new MessageIdStopCondition(id, false);
     }
 
     static boolean hitMessageId(Message<?> message, MessageId id) {
         return NON_BATCH_COMPARATOR.compare(message.getMessageId(), id) >= 0;
     }
 
+    /**
+     * Stops at or after the message with the stop id. A message after the stop id is never read,
+     * even if the split stops after the stop id.
+     */
+    static StopResult shouldStopAt(Message<?> message, MessageId stopId, boolean stopAfter) {
+        int comparison = NON_BATCH_COMPARATOR.compare(message.getMessageId(), stopId);
+        if (comparison < 0) {
+            return StopResult.DONT_STOP;
+        }
+        return stopAfter && comparison == 0 ? StopResult.STOP_AFTER : StopResult.STOP_BEFORE;
+    }
+
+    /**
+     * Returns whether a split that stops at or after the message with the stop id cannot read any
+     * message, because it starts after the stop id, or it starts after the last message of the
+     * partition and the stop id is not after the last message.
+     *
+     * @see #isExhausted(AbstractPartition, Consumer, MessageId, boolean)
+     */
+    static boolean isExhausted(
+            MessageId stopId,
+            boolean stopAfter,
+            @Nullable MessageId startId,
+            boolean inclusive,
+            MessageId lastId) {
+        if (MessageId.latest.equals(startId)) {
+            startId = lastId;
+            inclusive = false;
+        }
+        // the last message id of an empty partition has no entry
+        boolean caughtUp = (lastId instanceof MessageIdImpl && ((MessageIdImpl) lastId).getEntryId() < 0)
+                || (startId != null && NON_BATCH_COMPARATOR.compare(startId, lastId) >= (inclusive ? 1 : 0));
+        if (caughtUp && NON_BATCH_COMPARATOR.compare(stopId, lastId) <= 0) {
+            return true;
+        }
+        return startId != null && NON_BATCH_COMPARATOR.compare(startId, stopId) >= (inclusive && stopAfter ? 1 : 0);
+    }
+
     static StopCondition stopAfterMessageId(MessageId id) {
-        return (partition, message) -> hitMessageId(message, id) ? STOP_AFTER : DONT_STOP;
+        return new MessageIdStopCondition(id, true);
     }
 
     static StopCondition stopAtMessageIds(Map<AbstractPartition, MessageId> ids) {
-        return (partition, message) -> hitMessageId(message, ids.get(partition)) ? STOP_BEFORE : DONT_STOP;
+        return new PartitionMessageIdsStopCondition(ids, false);
     }
 
     static StopCondition stopAfterMessageIds(Map<AbstractPartition, MessageId> ids) {
-        return (partition, message) -> hitMessageId(message, ids.get(partition)) ? STOP_AFTER : DONT_STOP;
+        return new PartitionMessageIdsStopCondition(ids, true);
+    }
+
+    static StopCondition stopAtPartitionIndexMessageIds(Map<Integer, MessageId> ids) {
+        return new PartitionIndexMessageIdsStopCondition(ids, false);
     }
 
     static StopCondition stopAtTimestamp(long timestamp) {
-        return (partition, message) -> message.getEventTime() >= timestamp ? STOP_BEFORE : DONT_STOP;
+        return new TimestampStopCondition(timestamp, false);
     }
 
     static StopCondition stopAfterTimestamp(long timestamp) {
-        return (partition, message) -> message.getEventTime() >= timestamp ? STOP_AFTER : DONT_STOP;
+        return new TimestampStopCondition(timestamp, true);
+    }
+
+    static StopCondition stopAtPublishTime(long timestamp) {
+        return new PublishTimeStopCondition(timestamp);
     }
 
     static StopCondition stopAtLast() {
-        return new LastStopCondition() {
-            @Override
-            public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
-                return lastId == null || hitMessageId(message, lastId) ? STOP_BEFORE : DONT_STOP;
-            }
-        };
+        return new LastMessageIdStopCondition(false);
     }
 
     static StopCondition stopAfterLast() {
-        return new LastStopCondition() {
-            @Override
-            public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
-                if (lastId == null) {
-                    return STOP_BEFORE;
-                }
-                return hitMessageId(message, lastId) ? STOP_AFTER : DONT_STOP;
-            }
-        };
+        return new LastMessageIdStopCondition(true);
     }
 
     static StopCondition never() {
-        return (partition, message) -> DONT_STOP;
-    }
-}
-
-abstract class LastStopCondition implements StopCondition {
-    MessageId lastId;
-
-    @Override
-    public void init(AbstractPartition partition, Consumer<byte[]> consumer) throws PulsarClientException {
-        if (lastId == null) {
-            lastId = consumer.getLastMessageId();
-        }
+        return new NeverStopCondition();
     }
 }
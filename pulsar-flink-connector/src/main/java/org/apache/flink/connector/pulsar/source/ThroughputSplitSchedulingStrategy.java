@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+
+import org.apache.pulsar.client.api.Range;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * SplitSchedulingStrategy that balances the expected message rates of the readers.
+ *
+ * <p>The enumerator samples the rate of incoming messages and the backlog of the subscription of
+ * every discovered partition from the topic stats of the brokers. The expected rate of a partition is
+ * its rate of incoming messages plus the rate that drains its backlog within one sample interval, so
+ * that a lagging partition weighs more than one that is caught up. The expected rate of a split is
+ * the rate of its partition, scaled down to the key range of the split. A new split goes to its reader
+ * by rendezvous hashing as long as the rate of that reader stays below {@code imbalanceThreshold}
+ * times the average rate of the readers, and to the reader with the lowest rate otherwise.
+ *
+ * <p>The strategy only balances the placement of new splits and of the splits that are added back.
+ * Splits that are already assigned stay with their reader even if the readers drift apart, since the
+ * enumerator cannot revoke a split from a source reader.
+ */
+public class ThroughputSplitSchedulingStrategy implements SplitSchedulingStrategy {
+    private static final long serialVersionUID = 1L;
+
+    public static final long DEFAULT_SAMPLE_INTERVAL_MS = 60_000L;
+
+    public static final double DEFAULT_IMBALANCE_THRESHOLD = 1.5;
+
+    /** The rate of partitions without any incoming messages, so that their splits still count. */
+    private static final double MIN_MSG_RATE = 1.0;
+
+    private static final double FULL_RANGE_SIZE = SerializableRange.fullRangeEnd - SerializableRange.fullRangeStart + 1;
+
+    private final long sampleIntervalMs;
+
+    private final double imbalanceThreshold;
+
+    /** Only accessed by the coordinator thread of the enumerator. */
+    private transient Map<String, Double> msgRateInOfTopics;
+
+    /** Only accessed by the coordinator thread of the enumerator. */
+    private transient Map<String, Long> msgBacklogOfTopics;
+
+    public ThroughputSplitSchedulingStrategy() {
+        this(DEFAULT_SAMPLE_INTERVAL_MS, DEFAULT_IMBALANCE_THRESHOLD);
+    }
+
+    public ThroughputSplitSchedulingStrategy(long sampleIntervalMs, double imbalanceThreshold) {
+        checkArgument(sampleIntervalMs > 0, "The sample interval must be positive.");
+        checkArgument(imbalanceThreshold >= 1.0, "The imbalance threshold must not be less than 1.");
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.imbalanceThreshold = imbalanceThreshold;
+    }
+
+    @Override
+    public int getIndexOfReader(int numReaders, PulsarPartitionSplit split) {
+        return getIndexOfReader(numReaders, split, Collections.emptyMap());
+    }
+
+    @Override
+    public int getIndexOfReader(
+            int numReaders,
+            PulsarPartitionSplit split,
+            Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders) {
+        double[] rateOfReaders = getRateOfReaders(numReaders, splitsOfReaders);
+        double rateOfSplit = getRateOfSplit(split);
+        double totalRate = rateOfSplit;
+        int leastLoaded = 0;
+        for (int reader = 0; reader < numReaders; reader++) {
+            totalRate += rateOfReaders[reader];
+            if (rateOfReaders[reader] < rateOfReaders[leastLoaded]) {
+                leastLoaded = reader;
+            }
+        }
+
+        String key = RendezvousSplitSchedulingStrategy.getKey(split);
+        int preferred = 0;
+        long maxWeight = Long.MIN_VALUE;
+        for (int reader = 0; reader < numReaders; reader++) {
+            long weight = RendezvousSplitSchedulingStrategy.getWeight(key, reader);
+            if (weight > maxWeight) {
+                maxWeight = weight;
+                preferred = reader;
+            }
+        }
+        if (rateOfReaders[preferred] <= rateOfReaders[leastLoaded]
+                || rateOfReaders[preferred] + rateOfSplit <= imbalanceThreshold * totalRate / numReaders) {
+            return preferred;
+        }
+        return leastLoaded;
+    }
+
+    @Override
+    public void addSplitsBack(
+            Map<Integer, List<PulsarPartitionSplit>> pendingPartitionSplitAssignment,
+            List<PulsarPartitionSplit> splits,
+            int subtaskId,
+            int numReaders) {
+        pendingPartitionSplitAssignment.computeIfAbsent(subtaskId, r -> new ArrayList<>()).addAll(splits);
+    }
+
+    @Override
+    public long getRateSampleIntervalMs() {
+        return sampleIntervalMs;
+    }
+
+    @Override
+    public void updateMessageRates(Map<String, Double> msgRateInOfTopics, Map<String, Long> msgBacklogOfTopics) {
+        getMsgRateInOfTopics().putAll(msgRateInOfTopics);
+        getMsgBacklogOfTopics().putAll(msgBacklogOfTopics);
+    }
+
+    private double[] getRateOfReaders(int numReaders, Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders) {
+        double[] rateOfReaders = new double[numReaders];
+        splitsOfReaders.forEach((reader, splits) -> {
+            if (reader < numReaders) {
+                for (PulsarPartitionSplit split : splits) {
+                    rateOfReaders[reader] += getRateOfSplit(split);
+                }
+            }
+        });
+        return rateOfReaders;
+    }
+
+    private double getRateOfSplit(PulsarPartitionSplit split) {
+        double rate = Math.max(getMsgRateInOfTopics().getOrDefault(split.getTopic(), 0.0), MIN_MSG_RATE)
+                + getMsgBacklogOfTopics().getOrDefault(split.getTopic(), 0L) * 1000.0 / sampleIntervalMs;
+        AbstractPartition partition = split.getPartition();
+        if (partition instanceof BrokerPartition) {
+            TopicRange topicRange = ((BrokerPartition) partition).getTopicRange();
+            if (!topicRange.isFullRange()) {
+                Range range = topicRange.getPulsarRange();
+                rate = rate * (range.getEnd() - range.getStart() + 1) / FULL_RANGE_SIZE;
+            }
+        }
+        return rate;
+    }
+
+    private Map<String, Double> getMsgRateInOfTopics() {
+        if (msgRateInOfTopics == null) {
+            msgRateInOfTopics = new HashMap<>();
+        }
+        return msgRateInOfTopics;
+    }
+
+    private Map<String, Long> getMsgBacklogOfTopics() {
+        if (msgBacklogOfTopics == null) {
+            msgBacklogOfTopics = new HashMap<>();
+        }
+        return msgBacklogOfTopics;
+    }
+}
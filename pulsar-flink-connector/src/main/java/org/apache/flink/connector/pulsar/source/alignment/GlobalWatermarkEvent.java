@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.alignment;
+
+import org.apache.flink.api.connector.source.SourceEvent;
+
+/**
+ * Sent by the enumerator to all source readers with the lowest watermark reported by any reader.
+ */
+public class GlobalWatermarkEvent implements SourceEvent {
+    private static final long serialVersionUID = 1L;
+
+    private final long watermark;
+
+    public GlobalWatermarkEvent(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    @Override
+    public String toString() {
+        return "GlobalWatermarkEvent{watermark=" + watermark + '}';
+    }
+}
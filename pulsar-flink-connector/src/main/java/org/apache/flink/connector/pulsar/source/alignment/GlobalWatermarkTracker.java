@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.alignment;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Keeps the watermarks reported by the source readers in the enumerator and computes the global
+ * watermark, the lowest of them.
+ *
+ * <p>Readers only report while they emit records, so reports that were not renewed within the
+ * expiry time are ignored. A reader that does not emit anything does not hold back the others.
+ */
+public class GlobalWatermarkTracker {
+
+    private final long expiryMs;
+
+    /** The last report by subtask, as pairs of watermark and report time. */
+    private final Map<Integer, long[]> reports = new HashMap<>();
+
+    private long globalWatermark = Long.MIN_VALUE;
+
+    public GlobalWatermarkTracker(long expiryMs) {
+        this.expiryMs = expiryMs;
+    }
+
+    /**
+     * Records the report of a reader and returns the global watermark if it changed.
+     */
+    public OptionalLong report(int subtaskId, long watermark, long now) {
+        reports.put(subtaskId, new long[]{watermark, now});
+        long lowest = Long.MAX_VALUE;
+        Iterator<long[]> iterator = reports.values().iterator();
+        while (iterator.hasNext()) {
+            long[] report = iterator.next();
+            if (now - report[1] > expiryMs) {
+                iterator.remove();
+            } else {
+                lowest = Math.min(lowest, report[0]);
+            }
+        }
+        if (lowest == globalWatermark) {
+            return OptionalLong.empty();
+        }
+        globalWatermark = lowest;
+        return OptionalLong.of(lowest);
+    }
+}
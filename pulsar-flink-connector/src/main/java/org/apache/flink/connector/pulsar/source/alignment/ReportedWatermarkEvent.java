@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.alignment;
+
+import org.apache.flink.api.connector.source.SourceEvent;
+
+/**
+ * Sent by a source reader to the enumerator with the lowest watermark of its partitions that did
+ * not catch up, or {@link Long#MAX_VALUE} if all of them did.
+ */
+public class ReportedWatermarkEvent implements SourceEvent {
+    private static final long serialVersionUID = 1L;
+
+    private final long watermark;
+
+    public ReportedWatermarkEvent(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportedWatermarkEvent{watermark=" + watermark + '}';
+    }
+}
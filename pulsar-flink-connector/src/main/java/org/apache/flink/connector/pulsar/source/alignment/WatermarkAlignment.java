@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.alignment;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The watermark alignment of one source reader with the other readers of the source.
+ *
+ * <p>The split readers publish the lowest watermark of their partitions that did not catch up. The
+ * source reader periodically reports the lowest of them to the enumerator, which sends back the
+ * global watermark of all readers. The split readers pause the partitions that are more than the
+ * max drift ahead of the global watermark.
+ */
+@Internal
+public class WatermarkAlignment {
+
+    private final long maxDriftMs;
+
+    private final long updateIntervalMs;
+
+    private final Map<Object, Long> localWatermarks = new ConcurrentHashMap<>();
+
+    private volatile long globalWatermark = Long.MIN_VALUE;
+
+    private long lastReportTime = Long.MIN_VALUE;
+
+    public WatermarkAlignment(long maxDriftMs, long updateIntervalMs) {
+        this.maxDriftMs = maxDriftMs;
+        this.updateIntervalMs = updateIntervalMs;
+    }
+
+    /**
+     * Publishes the lowest watermark of the partitions of a split reader.
+     */
+    public void updateLocalWatermark(Object splitReader, long watermark) {
+        localWatermarks.put(splitReader, watermark);
+    }
+
+    public void removeLocalWatermark(Object splitReader) {
+        localWatermarks.remove(splitReader);
+    }
+
+    public long getLocalWatermark() {
+        long lowest = Long.MAX_VALUE;
+        for (long watermark : localWatermarks.values()) {
+            lowest = Math.min(lowest, watermark);
+        }
+        return lowest;
+    }
+
+    public void setGlobalWatermark(long globalWatermark) {
+        this.globalWatermark = globalWatermark;
+    }
+
+    /**
+     * Returns the highest watermark a partition may have to be fetched.
+     */
+    public long getWatermarkLimit() {
+        long global = globalWatermark;
+        if (global == Long.MIN_VALUE || global > Long.MAX_VALUE - maxDriftMs) {
+            return Long.MAX_VALUE;
+        }
+        return global + maxDriftMs;
+    }
+
+    /**
+     * Reports the local watermark to the enumerator if the update interval passed since the last report.
+     * Only called by the source reader thread.
+     */
+    public void maybeReport(SourceReaderContext context) {
+        long now = System.currentTimeMillis();
+        if (lastReportTime == Long.MIN_VALUE || now - lastReportTime >= updateIntervalMs) {
+            lastReportTime = now;
+            context.sendSourceEventToCoordinator(new ReportedWatermarkEvent(getLocalWatermark()));
+        }
+    }
+}
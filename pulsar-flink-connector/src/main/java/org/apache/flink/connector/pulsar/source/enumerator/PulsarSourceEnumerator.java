@@ -15,6 +15,7 @@
 package org.apache.flink.connector.pulsar.source.enumerator;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.connector.source.SourceEvent;
 import org.apache.flink.api.connector.source.SplitEnumerator;
 import org.apache.flink.api.connector.source.SplitEnumeratorContext;
 import org.apache.flink.api.connector.source.SplitsAssignment;
@@ -25,12 +26,17 @@ import org.apache.flink.connector.pulsar.source.PulsarSubscriber;
 import org.apache.flink.connector.pulsar.source.SplitSchedulingStrategy;
 import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
 import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.alignment.GlobalWatermarkEvent;
+import org.apache.flink.connector.pulsar.source.alignment.GlobalWatermarkTracker;
+import org.apache.flink.connector.pulsar.source.alignment.ReportedWatermarkEvent;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
 import org.apache.flink.util.FlinkRuntimeException;
 import org.apache.flink.util.function.ThrowingRunnable;
 
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.admin.PulsarAdminException;
+import org.apache.pulsar.common.policies.data.SubscriptionStats;
+import org.apache.pulsar.common.policies.data.TopicStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +67,7 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
     private final StopCondition stopCondition;
     private final PulsarAdmin pulsarAdmin;
     private final Configuration configuration;
+    private final String subscriptionName;
     private final long partitionDiscoveryIntervalMs;
     private final SplitEnumeratorContext<PulsarPartitionSplit> context;
 
@@ -83,12 +90,17 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
 
     private SplitSchedulingStrategy splitSchedulingStrategy;
 
+    /** Aggregates the watermarks of the readers if the watermark alignment is enabled. */
+    @Nullable
+    private final GlobalWatermarkTracker watermarkTracker;
+
     public PulsarSourceEnumerator(
             PulsarSubscriber subscriber,
             StartOffsetInitializer startOffsetInitializer,
             StopCondition stopCondition,
             PulsarAdmin pulsarAdmin,
             Configuration configuration,
+            String subscriptionName,
             SplitEnumeratorContext<PulsarPartitionSplit> context,
             Map<Integer, List<PulsarPartitionSplit>> currentSplitsAssignments,
             SplitSchedulingStrategy splitSchedulingStrategy) {
@@ -98,6 +110,7 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
         this.stopCondition = stopCondition;
         this.pulsarAdmin = pulsarAdmin;
         this.configuration = configuration;
+        this.subscriptionName = subscriptionName;
         this.context = context;
         this.splitSchedulingStrategy = splitSchedulingStrategy;
         discoveredPartitions = new HashSet<>();
@@ -106,6 +119,9 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
                 splits.forEach(s -> discoveredPartitions.add(s.getPartition())));
         pendingPartitionSplitAssignment = new HashMap<>();
         partitionDiscoveryIntervalMs = configuration.get(PulsarSourceOptions.PARTITION_DISCOVERY_INTERVAL_MS);
+        watermarkTracker = configuration.get(PulsarSourceOptions.WATERMARK_ALIGNMENT_MAX_DRIFT_MS) > 0 ?
+                new GlobalWatermarkTracker(3 * configuration.get(PulsarSourceOptions.WATERMARK_ALIGNMENT_UPDATE_INTERVAL_MS)) :
+                null;
     }
 
     @Override
@@ -121,6 +137,14 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
                     this::discoverAndInitializePartitionSplit,
                     this::handlePartitionSplitChanges);
         }
+        long rateSampleIntervalMs = splitSchedulingStrategy.getRateSampleIntervalMs();
+        if (rateSampleIntervalMs > 0) {
+            context.callAsync(
+                    () -> sampleMessageRates(new ArrayList<>(discoveredPartitions)),
+                    this::handleMessageRates,
+                    rateSampleIntervalMs,
+                    rateSampleIntervalMs);
+        }
     }
 
     @Override
@@ -134,6 +158,18 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
         assignPendingPartitionSplits();
     }
 
+    @Override
+    public void handleSourceEvent(int subtaskId, SourceEvent sourceEvent) {
+        if (sourceEvent instanceof ReportedWatermarkEvent && watermarkTracker != null) {
+            long watermark = ((ReportedWatermarkEvent) sourceEvent).getWatermark();
+            watermarkTracker.report(subtaskId, watermark, System.currentTimeMillis()).ifPresent(globalWatermark -> {
+                LOG.debug("Global watermark of the readers is now {}.", globalWatermark);
+                GlobalWatermarkEvent event = new GlobalWatermarkEvent(globalWatermark);
+                context.registeredReaders().keySet().forEach(reader -> context.sendEventToSourceReader(reader, event));
+            });
+        }
+    }
+
     //id -> 5
     @Override
     public void addReader(int subtaskId) {
@@ -174,7 +210,11 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
         List<PulsarPartitionSplit> partitionSplits = partitionChange.getNewPartitions().stream()
                 .map(partition -> new PulsarPartitionSplit(partition, startOffsetInitializer, stopCondition))
                 .collect(Collectors.toList());
-        return new PartitionSplitChange(partitionSplits, partitionChange.getRemovedPartitions());
+        // sample the new partitions right away, so that their first assignment already knows their rates
+        MessageRates messageRatesOfNewTopics = splitSchedulingStrategy.getRateSampleIntervalMs() > 0 ?
+                sampleMessageRates(partitionChange.getNewPartitions()) :
+                new MessageRates();
+        return new PartitionSplitChange(partitionSplits, partitionChange.getRemovedPartitions(), messageRatesOfNewTopics);
     }
 
     // This method should only be invoked in the coordinator executor thread.
@@ -185,6 +225,9 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
         if (partitionDiscoveryIntervalMs < 0) {
             noMoreNewPartitionSplits = true;
         }
+        if (!partitionSplitChange.messageRatesOfNewTopics.msgRateInOfTopics.isEmpty()) {
+            handleMessageRates(partitionSplitChange.messageRatesOfNewTopics, null);
+        }
         // TODO: Handle removed partitions.
         addPartitionSplitChangeToPendingAssignments(partitionSplitChange.newPartitionSplits);
         assignPendingPartitionSplits();
@@ -193,15 +236,58 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
     // This method should only be invoked in the coordinator executor thread.
     private void addPartitionSplitChangeToPendingAssignments(Collection<PulsarPartitionSplit> newPartitionSplits) {
         int numReaders = context.currentParallelism();
+        Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders = getSplitsOfReaders();
         for (PulsarPartitionSplit split : newPartitionSplits) {
-            // TODO: Implement a more sophisticated algorithm to reduce partition movement when parallelism changes.
-            pendingPartitionSplitAssignment.computeIfAbsent(
-                    splitSchedulingStrategy.getIndexOfReader(numReaders, split), r -> new ArrayList<>()
-            ).add(split);
+            int owner = splitSchedulingStrategy.getIndexOfReader(numReaders, split, splitsOfReaders);
+            pendingPartitionSplitAssignment.computeIfAbsent(owner, r -> new ArrayList<>()).add(split);
+            splitsOfReaders.computeIfAbsent(owner, r -> new ArrayList<>()).add(split);
         }
         LOG.debug("Assigned {} to {} readers.", newPartitionSplits, numReaders);
     }
 
+    // This method should only be invoked in the worker thread.
+    private MessageRates sampleMessageRates(Collection<AbstractPartition> partitions) {
+        MessageRates messageRates = new MessageRates();
+        for (AbstractPartition partition : partitions) {
+            String topic = partition.getTopic();
+            if (!messageRates.msgRateInOfTopics.containsKey(topic)) {
+                try {
+                    TopicStats topicStats = pulsarAdmin.topics().getStats(topic);
+                    messageRates.msgRateInOfTopics.put(topic, topicStats.getMsgRateIn());
+                    // the subscription does not exist before the readers subscribe for the first time
+                    SubscriptionStats subscriptionStats = topicStats.getSubscriptions().get(subscriptionName);
+                    if (subscriptionStats != null) {
+                        messageRates.msgBacklogOfTopics.put(topic, subscriptionStats.getMsgBacklog());
+                    }
+                } catch (PulsarAdminException e) {
+                    LOG.warn("Failed to sample the message rate of {}.", topic, e);
+                }
+            }
+        }
+        return messageRates;
+    }
+
+    // This method should only be invoked in the coordinator executor thread.
+    private void handleMessageRates(MessageRates messageRates, Throwable t) {
+        if (t != null) {
+            LOG.warn("Failed to sample the message rates of the partitions.", t);
+            return;
+        }
+        LOG.debug("Sampled the message rates {} and backlogs {}.",
+                messageRates.msgRateInOfTopics, messageRates.msgBacklogOfTopics);
+        splitSchedulingStrategy.updateMessageRates(messageRates.msgRateInOfTopics, messageRates.msgBacklogOfTopics);
+    }
+
+    // This method should only be invoked in the coordinator executor thread.
+    private Map<Integer, List<PulsarPartitionSplit>> getSplitsOfReaders() {
+        Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders = new HashMap<>();
+        readerIdToSplitAssignments.forEach((reader, splits) ->
+                splitsOfReaders.computeIfAbsent(reader, r -> new ArrayList<>()).addAll(splits));
+        pendingPartitionSplitAssignment.forEach((reader, splits) ->
+                splitsOfReaders.computeIfAbsent(reader, r -> new ArrayList<>()).addAll(splits));
+        return splitsOfReaders;
+    }
+
     // This method should only be invoked in the coordinator executor thread.
     private void assignPendingPartitionSplits() {
         Map<Integer, List<PulsarPartitionSplit>> incrementalAssignment = new HashMap<>();
@@ -234,12 +320,23 @@ public class PulsarSourceEnumerator implements SplitEnumerator<PulsarPartitionSp
     public static class PartitionSplitChange {
         private final List<PulsarPartitionSplit> newPartitionSplits;
         private final Set<AbstractPartition> removedPartitions;
+        private final MessageRates messageRatesOfNewTopics;
 
         private PartitionSplitChange(
                 List<PulsarPartitionSplit> newPartitionSplits,
-                Set<AbstractPartition> removedPartitions) {
+                Set<AbstractPartition> removedPartitions,
+                MessageRates messageRatesOfNewTopics) {
             this.newPartitionSplits = newPartitionSplits;
             this.removedPartitions = removedPartitions;
+            this.messageRatesOfNewTopics = messageRatesOfNewTopics;
         }
     }
+
+    /**
+     * The sampled rates of incoming messages and backlogs of the subscription by partitioned topic.
+     */
+    private static class MessageRates {
+        private final Map<String, Double> msgRateInOfTopics = new HashMap<>();
+        private final Map<String, Long> msgBacklogOfTopics = new HashMap<>();
+    }
 }
@@ -16,21 +16,39 @@ package org.apache.flink.connector.pulsar.source.enumerator;
 
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplitSerializer;
+import org.apache.flink.connector.pulsar.source.split.TopicTable;
 import org.apache.flink.connector.pulsar.source.util.SerdeUtils;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * The {@link SimpleVersionedSerializer Serializer} for the enumerator state of
  * Pulsar source.
+ *
+ * <p>The splits of every reader start with a table of their topic names, which the splits refer to
+ * by index. The encoded splits of every reader are kept between checkpoints, so a reader whose
+ * assignment did not change since the previous checkpoint is written by copying its bytes. The
+ * enumerator only ever appends to the assignment list of a reader, hence an unchanged list instance
+ * of unchanged size has an unchanged encoding. Since every encoding holds its own table, the
+ * serializer keeps no topics of readers that are gone.
  */
 public class PulsarSourceEnumeratorStateSerializer implements SimpleVersionedSerializer<PulsarSourceEnumeratorState> {
 
-    private static final int CURRENT_VERSION = 0;
+    private static final int SERDE_UTILS_VERSION = 0;
+
+    private static final int CURRENT_VERSION = 1;
+
+    private final PulsarPartitionSplitSerializer splitSerializer = new PulsarPartitionSplitSerializer();
+
+    /** The last encoded assignment by reader id. Guarded by this. */
+    private final Map<Integer, EncodedAssignment> encodedAssignments = new HashMap<>();
 
     @Override
     public int getVersion() {
@@ -38,22 +56,91 @@ public class PulsarSourceEnumeratorStateSerializer implements SimpleVersionedSer
     }
 
     @Override
-    public byte[] serialize(PulsarSourceEnumeratorState enumState) throws IOException {
-        return SerdeUtils.serializeSplitAssignments(
-                enumState.getCurrentAssignment(),
-                new PulsarPartitionSplitSerializer());
+    public synchronized byte[] serialize(PulsarSourceEnumeratorState enumState) throws IOException {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = enumState.getCurrentAssignment();
+        encodedAssignments.keySet().retainAll(assignment.keySet());
+
+        DataOutputSerializer out = new DataOutputSerializer(256);
+        out.writeInt(assignment.size());
+        for (Map.Entry<Integer, List<PulsarPartitionSplit>> entry : assignment.entrySet()) {
+            EncodedAssignment encoded = encodedAssignments.get(entry.getKey());
+            if (encoded == null || !encoded.isEncodingOf(entry.getValue())) {
+                encoded = encode(entry.getValue());
+                encodedAssignments.put(entry.getKey(), encoded);
+            }
+            out.writeInt(entry.getKey());
+            out.write(encoded.bytes);
+        }
+        return out.getCopyOfBuffer();
     }
 
     @Override
     public PulsarSourceEnumeratorState deserialize(int version, byte[] serialized) throws IOException {
-        if (version == 0) {
-            Map<Integer, List<PulsarPartitionSplit>> currentPartitionAssignment = SerdeUtils.deserializeSplitAssignments(
-                    serialized,
-                    new PulsarPartitionSplitSerializer(),
-                    ArrayList::new);
-            return new PulsarSourceEnumeratorState(currentPartitionAssignment);
+        switch (version) {
+            case SERDE_UTILS_VERSION:
+                Map<Integer, List<PulsarPartitionSplit>> currentPartitionAssignment = SerdeUtils.deserializeSplitAssignments(
+                        serialized,
+                        splitSerializer,
+                        ArrayList::new);
+                return new PulsarSourceEnumeratorState(currentPartitionAssignment);
+            case CURRENT_VERSION:
+                return deserializeCurrentVersion(serialized);
+            default:
+                throw new IOException(String.format("The bytes are serialized with version %d, " +
+                        "while this deserializer only supports version up to %d", version, CURRENT_VERSION));
+        }
+    }
+
+    private EncodedAssignment encode(List<PulsarPartitionSplit> splits) throws IOException {
+        TopicTable topics = new TopicTable();
+        DataOutputSerializer body = new DataOutputSerializer(64 * splits.size() + 4);
+        body.writeInt(splits.size());
+        for (PulsarPartitionSplit split : splits) {
+            splitSerializer.serialize(split, body, topics);
+        }
+
+        DataOutputSerializer out = new DataOutputSerializer(body.length() + 64 * topics.size() + 4);
+        topics.write(out);
+        out.write(body.getSharedBuffer(), 0, body.length());
+        return new EncodedAssignment(splits, out.getCopyOfBuffer());
+    }
+
+    private PulsarSourceEnumeratorState deserializeCurrentVersion(byte[] serialized) throws IOException {
+        DataInputDeserializer in = new DataInputDeserializer(serialized);
+        int numReaders = in.readInt();
+        Map<Integer, List<PulsarPartitionSplit>> assignment = new HashMap<>(numReaders);
+        for (int i = 0; i < numReaders; i++) {
+            int readerId = in.readInt();
+            TopicTable topicTable = TopicTable.read(in);
+            int numSplits = in.readInt();
+            List<PulsarPartitionSplit> splits = new ArrayList<>(numSplits);
+            for (int j = 0; j < numSplits; j++) {
+                splits.add(splitSerializer.deserialize(in, topicTable));
+            }
+            assignment.put(readerId, splits);
+        }
+        if (in.available() > 0) {
+            throw new IOException("Unexpected trailing bytes in the serialized enumerator state.");
+        }
+        return new PulsarSourceEnumeratorState(assignment);
+    }
+
+    private static class EncodedAssignment {
+
+        private final List<PulsarPartitionSplit> splits;
+
+        private final int numSplits;
+
+        private final byte[] bytes;
+
+        EncodedAssignment(List<PulsarPartitionSplit> splits, byte[] bytes) {
+            this.splits = splits;
+            this.numSplits = splits.size();
+            this.bytes = bytes;
+        }
+
+        boolean isEncodingOf(List<PulsarPartitionSplit> splits) {
+            return this.splits == splits && numSplits == splits.size();
         }
-        throw new IOException(String.format("The bytes are serialized with version %d, " +
-                "while this deserializer only supports version up to %d", version, CURRENT_VERSION));
     }
 }
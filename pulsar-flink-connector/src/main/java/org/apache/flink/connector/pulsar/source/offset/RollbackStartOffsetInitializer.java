@@ -39,6 +39,10 @@ public class RollbackStartOffsetInitializer implements StartOffsetInitializer {
         this.rollbackTimeInS = rollbackTimeInS;
     }
 
+    public long getRollbackTimeInS() {
+        return rollbackTimeInS;
+    }
+
     @Override
     public void initializeBeforeCreation(AbstractPartition partition, CreationConfiguration creationConfiguration) {
         creationConfiguration.setRollbackInS(rollbackTimeInS);
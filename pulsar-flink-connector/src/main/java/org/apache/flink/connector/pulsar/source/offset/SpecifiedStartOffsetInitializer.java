@@ -46,6 +46,18 @@ public class SpecifiedStartOffsetInitializer implements StartOffsetInitializer {
         this.inclusive = inclusive;
     }
 
+    public Map<AbstractPartition, MessageId> getInitialOffsets() {
+        return initialOffsets;
+    }
+
+    public MessageId getDefaultOffset() {
+        return defaultOffset;
+    }
+
+    public boolean isInclusive() {
+        return inclusive;
+    }
+
     @Override
     public void initializeBeforeCreation(AbstractPartition partition, CreationConfiguration configuration) {
         configuration.getConsumerConfigurationData().setResetIncludeHead(inclusive);
@@ -39,6 +39,10 @@ public class TimestampStartOffsetInitializer implements StartOffsetInitializer {
         this.startingTimestamp = startingTimestamp;
     }
 
+    public long getStartingTimestamp() {
+        return startingTimestamp;
+    }
+
     @Override
     public void initializeAfterCreation(AbstractPartition partition, Consumer<?> consumer) throws PulsarClientException {
         consumer.seek(startingTimestamp);
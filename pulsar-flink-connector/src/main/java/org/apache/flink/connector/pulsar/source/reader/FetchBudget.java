@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.source.PulsarSourceOptions;
+import org.apache.flink.util.Preconditions;
+
+/**
+ * The number of payload bytes a fetch of the {@link PulsarPartitionSplitReader} may read.
+ *
+ * <p>Without a target latency the budget is fixed to the max fetch bytes. With a target latency the
+ * budget follows the smoothed throughput of the previous fetches, so that a fetch takes about the
+ * target latency, bounded by the min and max fetch bytes.
+ */
+class FetchBudget {
+
+    /** The weight of the latest fetch in the smoothed throughput. */
+    private static final double SMOOTHING = 0.25;
+
+    private final long minBytes;
+
+    private final long maxBytes;
+
+    private final long targetLatencyNanos;
+
+    private double bytesPerNano = -1;
+
+    private long budget;
+
+    FetchBudget(long minBytes, long maxBytes, long targetLatencyMs) {
+        Preconditions.checkArgument(minBytes > 0, "The min fetch bytes must be positive.");
+        Preconditions.checkArgument(maxBytes >= minBytes, "The max fetch bytes must not be below the min fetch bytes.");
+        this.minBytes = minBytes;
+        this.maxBytes = maxBytes;
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000L;
+        this.budget = isAdaptive() ? minBytes : maxBytes;
+    }
+
+    static FetchBudget fromConfiguration(Configuration configuration) {
+        long maxBytes = configuration.get(PulsarSourceOptions.MAX_FETCH_BYTES);
+        return new FetchBudget(
+                Math.min(configuration.get(PulsarSourceOptions.MIN_FETCH_BYTES), maxBytes),
+                maxBytes,
+                configuration.get(PulsarSourceOptions.FETCH_TARGET_LATENCY_MS));
+    }
+
+    long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Adapts the budget to a finished fetch.
+     *
+     * @param bytes the payload bytes read by the fetch.
+     * @param durationNanos the time the fetch took.
+     */
+    void onFetchFinished(long bytes, long durationNanos) {
+        if (!isAdaptive() || bytes == 0 || durationNanos <= 0) {
+            return;
+        }
+        double observed = (double) bytes / durationNanos;
+        bytesPerNano = bytesPerNano < 0 ? observed : SMOOTHING * observed + (1 - SMOOTHING) * bytesPerNano;
+        budget = (long) Math.max(minBytes, Math.min(maxBytes, bytesPerNano * targetLatencyNanos));
+    }
+
+    private boolean isAdaptive() {
+        return targetLatencyNanos > 0;
+    }
+}
@@ -20,13 +20,23 @@ import java.util.Objects;
 
 /**
  * Represents the parsed message.
+ *
+ * <p>The messages returned by the {@link PulsarPartitionSplitReader} are reused for the next record
+ * of the same batch and must not be kept after the record was emitted.
  */
 public class ParsedMessage<T> {
-    private final T payload;
-    private final MessageId messageId;
-    private final long timestamp;
+    private T payload;
+    private MessageId messageId;
+    private long timestamp;
+
+    ParsedMessage() {
+    }
 
     public ParsedMessage(T payload, MessageId messageId, long timestamp) {
+        set(payload, messageId, timestamp);
+    }
+
+    void set(T payload, MessageId messageId, long timestamp) {
         this.payload = payload;
         this.messageId = messageId;
         this.timestamp = timestamp;
@@ -14,9 +14,11 @@
 
 package org.apache.flink.connector.pulsar.source.reader;
 
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.time.Deadline;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.SourceReaderOptions;
 import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
 import org.apache.flink.connector.base.source.reader.splitreader.SplitsAddition;
 import org.apache.flink.connector.base.source.reader.splitreader.SplitsChange;
@@ -28,11 +30,12 @@ import org.apache.flink.connector.pulsar.source.PulsarSourceOptions;
 import org.apache.flink.connector.pulsar.source.PulsarSourceOptions.OffsetVerification;
 import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
 import org.apache.flink.connector.pulsar.source.StartOffsetInitializer.CreationConfiguration;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.alignment.WatermarkAlignment;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
 import org.apache.flink.connector.pulsar.source.util.AsyncUtils;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.ExceptionUtils;
-import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.function.SupplierWithException;
 import org.apache.flink.util.function.ThrowingRunnable;
 
@@ -43,7 +46,10 @@ import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Range;
 import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.SubscriptionMode;
+import org.apache.pulsar.client.api.SubscriptionType;
 import org.apache.pulsar.client.impl.ConsumerImpl;
 import org.apache.pulsar.client.impl.PulsarClientImpl;
 import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
@@ -59,16 +65,16 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
@@ -79,23 +85,40 @@ import static org.apache.flink.util.ComponentClosingUtils.closeWithTimeout;
  *
  * <p>The returned type are in the format of {@code tuple3(record, offset and timestamp}.
  *
+ * <p>Among the partitions that completed a receive, the partition with the lowest watermark is served
+ * first. With {@link PulsarSourceOptions#MAX_WATERMARK_DRIFT_MS} partitions that ran too far ahead
+ * are paused, so that reading a backlog of skewed partitions keeps their event times aligned.
+ *
  * @param <T> the type of the record to be emitted from the Source.
  */
 public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<T>, PulsarPartitionSplit>, Closeable {
     private static final Logger LOG = LoggerFactory.getLogger(PulsarPartitionSplitReader.class);
 
     private final PriorityQueue<PartitionReader> readerQueue = new PriorityQueue<>();
-    private final SimpleCollector<T> collector = new SimpleCollector<>();
+    /** The readers taken from the queue during a fetch that are still receiving. */
+    private final List<PartitionReader> waitingReaders = new ArrayList<>();
+    private final BatchCollector<T> collector = new BatchCollector<>();
+    private final BlockingQueue<PulsarRecordBatch<T>> batchPool;
     private final ConsumerConfigurationData<byte[]> consumerConfigurationData;
     private final PulsarClient client;
     private final PulsarAdmin pulsarAdmin;
     private final MessageDeserializer<T> messageDeserializer;
     private final Duration maxFetchTime;
     private final int maxFetchRecords;
+    private final FetchBudget fetchBudget;
+    private final long maxWatermarkDrift;
     private final long closeTimeout;
     private final OffsetVerification offsetVerification;
+    /** The Key_Shared hash ranges of the splits that are not divided by key hash, or null for all keys. */
+    @Nullable
+    private final Range[] keyHashRanges;
     private volatile boolean wakeup;
+    private volatile CompletableFuture<Void> wakeupFuture = new CompletableFuture<>();
     private final ExecutorProvider listenerExecutor;
+    @Nullable
+    private final WatermarkAlignment watermarkAlignment;
+    @Nullable
+    private final SplitAcknowledger acknowledger;
 
     public PulsarPartitionSplitReader(
             Configuration configuration,
@@ -104,23 +127,48 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
             PulsarAdmin pulsarAdmin,
             MessageDeserializer<T> messageDeserializer,
             ExecutorProvider listenerExecutor) {
+        this(configuration, consumerConfigurationData, client, pulsarAdmin, messageDeserializer, listenerExecutor, null, null);
+    }
+
+    public PulsarPartitionSplitReader(
+            Configuration configuration,
+            ConsumerConfigurationData<byte[]> consumerConfigurationData,
+            PulsarClient client,
+            PulsarAdmin pulsarAdmin,
+            MessageDeserializer<T> messageDeserializer,
+            ExecutorProvider listenerExecutor,
+            @Nullable WatermarkAlignment watermarkAlignment,
+            @Nullable SplitAcknowledger acknowledger) {
         this.consumerConfigurationData = consumerConfigurationData;
         this.client = client;
         this.pulsarAdmin = pulsarAdmin;
         this.messageDeserializer = messageDeserializer;
         maxFetchTime = Duration.ofMillis(configuration.get(PulsarSourceOptions.MAX_FETCH_TIME));
         maxFetchRecords = configuration.get(PulsarSourceOptions.MAX_FETCH_RECORDS);
+        fetchBudget = FetchBudget.fromConfiguration(configuration);
+        maxWatermarkDrift = configuration.get(PulsarSourceOptions.MAX_WATERMARK_DRIFT_MS);
         closeTimeout = configuration.get(PulsarSourceOptions.CLOSE_TIMEOUT_MS);
         offsetVerification = configuration.get(PulsarSourceOptions.VERIFY_INITIAL_OFFSETS);
+        keyHashRanges = configuration.getOptional(PulsarSourceOptions.KEY_HASH_RANGES)
+                .map(ranges -> ranges.stream().map(PulsarPartitionSplitReader::parseRange).toArray(Range[]::new))
+                .orElse(null);
+        // the batches in the element queue, the one being emitted and the one being fetched
+        batchPool = new ArrayBlockingQueue<>(configuration.get(SourceReaderOptions.ELEMENT_QUEUE_CAPACITY) + 2);
         this.listenerExecutor = listenerExecutor;
+        this.watermarkAlignment = watermarkAlignment;
+        this.acknowledger = acknowledger;
     }
 
     @Override
     public void close() {
+        if (watermarkAlignment != null) {
+            watermarkAlignment.removeLocalWatermark(this);
+        }
         closeWithTimeout(
                 "PulsarSourceEnumerator",
                 (ThrowingRunnable<Exception>) () -> {
                     try (Closer closer = Closer.create()) {
+                        readerQueue.forEach(this::unregister);
                         readerQueue.forEach(closer::register);
                     }
                 },
@@ -130,46 +178,124 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
     @Override
     public RecordsWithSplitIds<ParsedMessage<T>> fetch() {
         wakeup = false;
-        PulsarPartitionSplitRecords<ParsedMessage<T>> recordsBySplits = new PulsarPartitionSplitRecords<>();
+        if (wakeupFuture.isDone()) {
+            wakeupFuture = new CompletableFuture<>();
+        }
+        PulsarRecordBatch<T> batch = batchPool.poll();
+        if (batch == null) {
+            batch = new PulsarRecordBatch<>(batchPool::offer);
+        }
         if (readerQueue.isEmpty()) {
-            return recordsBySplits;
+            if (watermarkAlignment != null) {
+                watermarkAlignment.removeLocalWatermark(this);
+            }
+            return batch;
         }
 
+        collector.batch = batch;
+        long startNanos = System.nanoTime();
+        long budget = fetchBudget.getBudget();
+        long bytes = 0;
+        int numMessages = 0;
         Deadline deadline = Deadline.fromNow(maxFetchTime);
-        for (int numRecords = 0; numRecords < maxFetchRecords && !readerQueue.isEmpty() && deadline.hasTimeLeft() && !wakeup; numRecords++) {
-            PartitionReader reader = readerQueue.poll();
-            try {
-                Iterator<Message<?>> messages = reader.nextBatch();
-                if (messages.hasNext()) {
+        try {
+            while (numMessages < maxFetchRecords && bytes < budget && !readerQueue.isEmpty() && deadline.hasTimeLeft() && !wakeup) {
+                PartitionReader reader = nextReadyReader();
+                if (reader == null) {
+                    // none of the partitions within the watermark drift has received messages
+                    if (batch.size() > 0 || !batch.finishedSplits().isEmpty()) {
+                        break;
+                    }
+                    awaitAnyReceive(deadline, getWatermarkLimit());
+                    continue;
+                }
+                collector.splitId = reader.getSplit().splitId();
+                try {
+                    Iterator<Message<?>> messages = reader.nextBatch();
                     while (messages.hasNext()) {
                         Message<?> message = messages.next();
-
-                        Collection<ParsedMessage<T>> recordsForSplit = recordsBySplits.recordsForSplit(reader.getSplit().splitId());
+                        collector.message = message;
+                        numMessages++;
+                        bytes += message.size();
                         messageDeserializer.deserialize(message, collector);
-                        collector.getRecords().forEach(r -> recordsForSplit.add(new ParsedMessage<>(
-                                r,
-                                message.getMessageId(),
-                                message.getEventTime())));
-                        collector.reset();
                     }
+                    if (reader.isStopped()) {
+                        Message<?> lastMessage = reader.getLastMessage();
+                        LOG.debug(
+                                "{} has reached stopping condition, current offset is {} @ timestamp {}",
+                                reader.getSplit(),
+                                lastMessage != null ? lastMessage.getMessageId() : null,
+                                lastMessage != null ? lastMessage.getEventTime() : null);
+                        batch.addFinishedSplit(reader.getSplit().splitId());
+                        unregister(reader);
+                        reader.close();
+                    } else {
+                        readerQueue.add(reader);
+                    }
+                } catch (IOException e) {
+                    ExceptionUtils.rethrow(e, "Error while fetching from " + reader.getSplit());
                 }
-                if (reader.isStopped()) {
-                    LOG.debug(
-                            "{} has reached stopping condition, current offset is {} @ timestamp {}",
-                            reader.getSplit(),
-                            reader.getLastMessage().getMessageId(),
-                            reader.getLastMessage().getEventTime());
-                    recordsBySplits.addFinishedSplit(reader.getSplit().splitId());
-                    reader.close();
-                } else {
-                    readerQueue.add(reader);
-                }
-            } catch (IOException e) {
-                ExceptionUtils.rethrow(e, "Error while fetching from " + reader.getSplit());
             }
+        } finally {
+            readerQueue.addAll(waitingReaders);
+            waitingReaders.clear();
+            collector.batch = null;
+            collector.message = null;
+        }
+        fetchBudget.onFetchFinished(bytes, System.nanoTime() - startNanos);
+        return batch;
+    }
+
+    /**
+     * Returns the reader with the lowest watermark among the readers that completed a receive, or
+     * null if none of the readers within the watermark limit did. Readers that are still receiving
+     * are set aside until no reader is ready or the fetch ends.
+     */
+    @Nullable
+    private PartitionReader nextReadyReader() {
+        long watermarkLimit = getWatermarkLimit();
+        PartitionReader reader;
+        while ((reader = readerQueue.peek()) != null && reader.getWatermark() <= watermarkLimit) {
+            readerQueue.poll();
+            if (reader.isReady()) {
+                return reader;
+            }
+            waitingReaders.add(reader);
         }
-        recordsBySplits.prepareForRead();
-        return recordsBySplits;
+        readerQueue.addAll(waitingReaders);
+        waitingReaders.clear();
+        return null;
+    }
+
+    /**
+     * Returns the highest watermark of the readers that are not paused, that is the lowest watermark
+     * of the readers that did not catch up plus the max drift, bounded by the watermark alignment
+     * with the other source readers.
+     */
+    private long getWatermarkLimit() {
+        if (maxWatermarkDrift <= 0 && watermarkAlignment == null) {
+            return Long.MAX_VALUE;
+        }
+        long lowestWatermark = Long.MAX_VALUE;
+        for (PartitionReader reader : readerQueue) {
+            if (!reader.isIdle()) {
+                lowestWatermark = Math.min(lowestWatermark, reader.getWatermark());
+            }
+        }
+        for (PartitionReader reader : waitingReaders) {
+            if (!reader.isIdle()) {
+                lowestWatermark = Math.min(lowestWatermark, reader.getWatermark());
+            }
+        }
+        long limit = Long.MAX_VALUE;
+        if (maxWatermarkDrift > 0 && lowestWatermark <= Long.MAX_VALUE - maxWatermarkDrift) {
+            limit = lowestWatermark + maxWatermarkDrift;
+        }
+        if (watermarkAlignment != null) {
+            watermarkAlignment.updateLocalWatermark(this, lowestWatermark);
+            limit = Math.min(limit, watermarkAlignment.getWatermarkLimit());
+        }
+        return limit;
     }
 
     @Override
@@ -189,6 +315,11 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
         }
     }
 
+    @VisibleForTesting
+    void addPartitionReader(PartitionReader reader) {
+        readerQueue.add(reader);
+    }
+
     public CompletableFuture<PartitionReader> createPartitionReaderAsync(PulsarPartitionSplit split) throws PulsarClientException {
         AbstractPartition abstractPartition = split.getPartition();
         CompletableFuture<PartitionReader> completableFuture = null;
@@ -202,6 +333,10 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
                             .stickyHashRange()
                             .ranges(partition.getTopicRange().getPulsarRange()));
                     conf.setSubscriptionName(conf.getSubscriptionName() + partition.getTopicRange().getPulsarRange());
+                } else if (keyHashRanges != null) {
+                    conf.setKeySharedPolicy(KeySharedPolicy
+                            .stickyHashRange()
+                            .ranges(keyHashRanges));
                 }
                 MessageId lastConsumedId = split.getLastConsumedId();
                 StartOffsetInitializer startOffsetInitializer = lastConsumedId != null ?
@@ -226,17 +361,41 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
                 };
                 // initialize offset on reader for time-based seeking
                 startOffsetInitializer.initializeAfterCreation(partition, consumer);
-                split.getStopCondition().init(partition, consumer);
-
-                if (offsetVerification != OffsetVerification.IGNORE) {
-                    startOffsetInitializer.verifyOffset(
-                            partition,
-                            wrap(() -> Optional.ofNullable(pulsarAdmin.topics().getLastMessageId(partition.getTopic()))),
-                            wrap(() -> pulsarAdmin.topics().peekMessages(partition.getTopic(), conf.getSubscriptionName(), 1).stream().findFirst()))
-                            .ifPresent(error -> reportDataLoss(partition, error));
+                PartitionReader reader = createPartitionReader(split, consumer, creationConfiguration);
+
+                boolean durable = conf.getSubscriptionMode() == SubscriptionMode.Durable;
+                if (offsetVerification != OffsetVerification.IGNORE && !durable) {
+                    verifyOffset(partition, startOffsetInitializer, conf.getSubscriptionName());
                 }
 
-                completableFuture = subscribeFuture.thenApply(c -> new PartitionReader(split, consumer, split.getStopCondition()));
+                SubscriptionType subscriptionType = creationConfiguration.getConsumerConfigurationData().getSubscriptionType();
+                CompletableFuture<Void> seekFuture = subscribeFuture
+                        .thenCompose(c -> seekDurableSubscription(consumer, creationConfiguration, reader));
+                if (offsetVerification != OffsetVerification.IGNORE && durable && !reader.isStopped()) {
+                    // the cursor of a durable subscription is at the start of the split only after the seek,
+                    // which includes the message it seeks to
+                    MessageId initialId = creationConfiguration.getInitialMessageId();
+                    StartOffsetInitializer seekedOffset = initialId != null && creationConfiguration.getRollbackInS() == 0 ?
+                            StartOffsetInitializer.offset(initialId, true) :
+                            startOffsetInitializer;
+                    seekFuture = seekFuture.thenRunAsync(() -> {
+                        try {
+                            verifyOffset(partition, seekedOffset, conf.getSubscriptionName());
+                        } catch (RuntimeException e) {
+                            throw new CompletionException(new PulsarClientException(e));
+                        }
+                    }, listenerExecutor.getExecutor());
+                }
+                completableFuture = seekFuture
+                        .thenApply(ignored -> {
+                            reader.start();
+                            // shared subscriptions cannot acknowledge cumulatively
+                            if (acknowledger != null && !reader.isStopped()
+                                    && (subscriptionType == SubscriptionType.Exclusive || subscriptionType == SubscriptionType.Failover)) {
+                                acknowledger.register(split.splitId(), consumer);
+                            }
+                            return reader;
+                        });
             } catch (PulsarClientException.TopicDoesNotExistException e) {
                 throw new IllegalStateException("Cannot subscribe to partition " + partition, e);
             } catch (PulsarClientException e) {
@@ -249,6 +408,71 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
         return completableFuture;
     }
 
+    /**
+     * Moves the cursor of a durable subscription to the start of the split. The broker resumes
+     * durable subscriptions from their cursor and ignores the start message id of the consumer, so
+     * that a split restored from a checkpoint older than the last acknowledgement would skip messages.
+     * The seek delivers the message it seeks to again, which the reader skips unless the start is
+     * inclusive.
+     */
+    private CompletableFuture<Void> seekDurableSubscription(
+            ConsumerImpl<byte[]> consumer,
+            CreationConfiguration creationConfiguration,
+            PartitionReader reader) {
+        ConsumerConfigurationData<byte[]> conf = creationConfiguration.getConsumerConfigurationData();
+        if (conf.getSubscriptionMode() != SubscriptionMode.Durable || reader.isStopped()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (creationConfiguration.getRollbackInS() > 0) {
+            return consumer.seekAsync(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(creationConfiguration.getRollbackInS()));
+        }
+        MessageId startId = creationConfiguration.getInitialMessageId();
+        if (startId == null) {
+            // time-based starts seek after creation, external subscriptions resume from their cursor
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!conf.isResetIncludeHead() && !startId.equals(MessageId.earliest) && !startId.equals(MessageId.latest)) {
+            reader.setStartAfter(startId);
+        }
+        return consumer.seekAsync(startId);
+    }
+
+    /**
+     * Creates the reader of a split once its consumer is created. A split that cannot read any
+     * message before it stops, e.g. because the partition is empty or the split starts after the
+     * last message, is stopped right away instead of waiting for a message.
+     */
+    @VisibleForTesting
+    PartitionReader createPartitionReader(
+            PulsarPartitionSplit split,
+            ConsumerImpl<byte[]> consumer,
+            CreationConfiguration creationConfiguration) throws PulsarClientException {
+        StopCondition stopCondition = split.getStopCondition();
+        stopCondition.init(split.getPartition(), consumer);
+        // the start is unknown if the consumer is rolled back or seeks after its creation
+        MessageId startId = creationConfiguration.getRollbackInS() > 0 ? null : creationConfiguration.getInitialMessageId();
+        boolean inclusive = creationConfiguration.getConsumerConfigurationData().isResetIncludeHead();
+        PartitionReader reader = new PartitionReader(split, consumer, stopCondition);
+        if (stopCondition.isExhausted(split.getPartition(), consumer, startId, inclusive)) {
+            LOG.debug("{} cannot read any message before reaching stopping condition", split);
+            reader.stop();
+        }
+        return reader;
+    }
+
+    private void verifyOffset(BrokerPartition partition, StartOffsetInitializer startOffsetInitializer, String subscriptionName) {
+        startOffsetInitializer.verifyOffset(
+                partition,
+                wrap(() -> Optional.ofNullable(pulsarAdmin.topics().getLastMessageId(partition.getTopic()))),
+                wrap(() -> pulsarAdmin.topics().peekMessages(partition.getTopic(), subscriptionName, 1).stream().findFirst()))
+                .ifPresent(error -> reportDataLoss(partition, error));
+    }
+
+    private static Range parseRange(String range) {
+        String[] bounds = range.trim().split("-");
+        return Range.of(Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]));
+    }
+
     private <T> Supplier<T> wrap(SupplierWithException<T, ?> supplierWithException) {
         return () -> {
             try {
@@ -273,88 +497,54 @@ public class PulsarPartitionSplitReader<T> implements SplitReader<ParsedMessage<
         LOG.warn(fullError);
     }
 
-    @Override
-    public void wakeUp() {
-        wakeup = true;
-    }
-
-    private static class PulsarPartitionSplitRecords<T> implements RecordsWithSplitIds<T> {
-        private final Map<String, Collection<T>> recordsBySplits;
-        private final Set<String> finishedSplits;
-        private Iterator<Map.Entry<String, Collection<T>>> splitIterator;
-        private String currentSplitId;
-        private Iterator<T> recordIterator;
-
-        private PulsarPartitionSplitRecords() {
-            this.recordsBySplits = new HashMap<>();
-            this.finishedSplits = new HashSet<>();
-        }
-
-        private Collection<T> recordsForSplit(String splitId) {
-            return recordsBySplits.computeIfAbsent(splitId, id -> new ArrayList<>());
-        }
-
-        private void addFinishedSplit(String splitId) {
-            finishedSplits.add(splitId);
-        }
-
-        private void prepareForRead() {
-            splitIterator = recordsBySplits.entrySet().iterator();
+    private void unregister(PartitionReader reader) {
+        if (acknowledger != null) {
+            acknowledger.unregister(reader.getSplit().splitId());
         }
+    }
 
-        @Override
-        @Nullable
-        public String nextSplit() {
-            if (splitIterator.hasNext()) {
-                Map.Entry<String, Collection<T>> entry = splitIterator.next();
-                currentSplitId = entry.getKey();
-                recordIterator = entry.getValue().iterator();
-                return currentSplitId;
-            } else {
-                currentSplitId = null;
-                recordIterator = null;
-                return null;
+    private void awaitAnyReceive(Deadline deadline, long watermarkLimit) {
+        List<CompletableFuture<?>> receives = new ArrayList<>();
+        for (PartitionReader reader : readerQueue) {
+            if (reader.getWatermark() <= watermarkLimit) {
+                receives.add(reader.getPendingReceive());
             }
         }
-
-        @Override
-        @Nullable
-        public T nextRecordFromSplit() {
-            Preconditions.checkNotNull(currentSplitId, "Make sure nextSplit() did not return null before " +
-                    "iterate over the records split.");
-            if (recordIterator.hasNext()) {
-                return recordIterator.next();
-            } else {
-                return null;
-            }
+        receives.add(wakeupFuture);
+        try {
+            CompletableFuture.anyOf(receives.toArray(new CompletableFuture<?>[0]))
+                    .get(deadline.timeLeft().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            wakeup = true;
+        } catch (ExecutionException | TimeoutException e) {
+            // failed receives are reported by the next poll of their reader
         }
+    }
 
-        @Override
-        public Set<String> finishedSplits() {
-            return finishedSplits;
-        }
+    @Override
+    public void wakeUp() {
+        wakeup = true;
+        wakeupFuture.complete(null);
     }
 
-    private static class SimpleCollector<T> implements Collector<T> {
-        private final List<T> records = new ArrayList<>();
+    /**
+     * Adds the deserialized records of the current message to the current batch.
+     */
+    private static class BatchCollector<T> implements Collector<T> {
+        private PulsarRecordBatch<T> batch;
+        private String splitId;
+        private Message<?> message;
 
         @Override
         public void collect(T record) {
-            records.add(record);
+            batch.add(splitId, record, message.getMessageId(), message.getEventTime());
         }
 
         @Override
         public void close() {
 
         }
-
-        private List<T> getRecords() {
-            return records;
-        }
-
-        private void reset() {
-            records.clear();
-        }
     }
 
 }
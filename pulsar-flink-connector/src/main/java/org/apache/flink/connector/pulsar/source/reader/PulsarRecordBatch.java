@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.util.Preconditions;
+
+import org.apache.pulsar.client.api.MessageId;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The records of one fetch of the {@link PulsarPartitionSplitReader}, kept in parallel arrays.
+ *
+ * <p>Consecutive records of the same split form a run, a split may have several runs in one batch.
+ * The records are handed out through a single reused {@link ParsedMessage}. Once the source reader
+ * drained the batch it is {@link #recycle() recycled}, which clears it and hands it back to the
+ * pool of the split reader, so that the arrays are reused by a later fetch.
+ */
+class PulsarRecordBatch<T> implements RecordsWithSplitIds<ParsedMessage<T>> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Consumer<PulsarRecordBatch<T>> recycler;
+
+    private final ParsedMessage<T> cursor = new ParsedMessage<>();
+
+    private final Set<String> finishedSplits = new HashSet<>();
+
+    private Object[] payloads = new Object[INITIAL_CAPACITY];
+
+    private MessageId[] messageIds = new MessageId[INITIAL_CAPACITY];
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    /** The split of each run. */
+    private String[] runSplitIds = new String[4];
+
+    /** The exclusive end index of each run. */
+    private int[] runEnds = new int[4];
+
+    private int numRuns;
+
+    // read state
+    private int currentRun = -1;
+
+    private int position;
+
+    PulsarRecordBatch(Consumer<PulsarRecordBatch<T>> recycler) {
+        this.recycler = recycler;
+    }
+
+    void add(String splitId, T payload, MessageId messageId, long timestamp) {
+        if (numRuns == 0 || !runSplitIds[numRuns - 1].equals(splitId)) {
+            if (numRuns == runSplitIds.length) {
+                runSplitIds = Arrays.copyOf(runSplitIds, numRuns * 2);
+                runEnds = Arrays.copyOf(runEnds, numRuns * 2);
+            }
+            runSplitIds[numRuns++] = splitId;
+        }
+        if (size == payloads.length) {
+            payloads = Arrays.copyOf(payloads, size * 2);
+            messageIds = Arrays.copyOf(messageIds, size * 2);
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+        }
+        payloads[size] = payload;
+        messageIds[size] = messageId;
+        timestamps[size] = timestamp;
+        size++;
+        runEnds[numRuns - 1] = size;
+    }
+
+    void addFinishedSplit(String splitId) {
+        finishedSplits.add(splitId);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    @Nullable
+    public String nextSplit() {
+        if (currentRun + 1 < numRuns) {
+            currentRun++;
+            position = currentRun == 0 ? 0 : runEnds[currentRun - 1];
+            return runSplitIds[currentRun];
+        }
+        currentRun = numRuns;
+        return null;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public ParsedMessage<T> nextRecordFromSplit() {
+        Preconditions.checkState(currentRun >= 0 && currentRun < numRuns, "Make sure nextSplit() did not return null before " +
+                "iterate over the records split.");
+        if (position < runEnds[currentRun]) {
+            cursor.set((T) payloads[position], messageIds[position], timestamps[position]);
+            position++;
+            return cursor;
+        }
+        return null;
+    }
+
+    @Override
+    public Set<String> finishedSplits() {
+        return finishedSplits;
+    }
+
+    @Override
+    public void recycle() {
+        Arrays.fill(payloads, 0, size, null);
+        Arrays.fill(messageIds, 0, size, null);
+        Arrays.fill(runSplitIds, 0, numRuns, null);
+        cursor.set(null, null, 0L);
+        finishedSplits.clear();
+        size = 0;
+        numRuns = 0;
+        currentRun = -1;
+        position = 0;
+        recycler.accept(this);
+    }
+}
@@ -14,26 +14,61 @@
 
 package org.apache.flink.connector.pulsar.source.reader;
 
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceEvent;
 import org.apache.flink.api.connector.source.SourceReaderContext;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.base.source.reader.RecordEmitter;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
-import org.apache.flink.connector.base.source.reader.SingleThreadMultiplexSourceReaderBase;
+import org.apache.flink.connector.base.source.reader.SourceReaderBase;
+import org.apache.flink.connector.base.source.reader.fetcher.SingleThreadFetcherManager;
+import org.apache.flink.connector.base.source.reader.fetcher.SplitFetcherManager;
 import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
 import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.pulsar.source.alignment.GlobalWatermarkEvent;
+import org.apache.flink.connector.pulsar.source.alignment.WatermarkAlignment;
 import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.core.io.InputStatus;
 import org.apache.flink.util.function.RunnableWithException;
 
+import org.apache.pulsar.client.api.MessageId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.function.Supplier;
 
 /**
  * The source reader for Pulsar partitions.
+ *
+ * <p>The splits are fetched by the given {@link SplitFetcherManager}, by default all splits are
+ * fetched by a single thread. The records of every split are emitted to the output of the split, so
+ * that every split has its own watermark and can be marked idle by the watermark strategy.
+ *
+ * <p>When a checkpoint completes, the positions of the splits in that checkpoint are acknowledged
+ * cumulatively on durable subscriptions. Earlier checkpoints that have not completed yet are covered
+ * by it and dropped.
  */
 public class PulsarSourceReader<T>
-        extends SingleThreadMultiplexSourceReaderBase<ParsedMessage<T>, T, PulsarPartitionSplit, PulsarPartitionSplit> {
+        extends SourceReaderBase<ParsedMessage<T>, T, PulsarPartitionSplit, PulsarPartitionSplit> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PulsarSourceReader.class);
+
+    private static final int MAX_NUM_PENDING_CHECKPOINTS = 100;
 
     private final RunnableWithException closeCallback;
+    @Nullable
+    private final WatermarkAlignment watermarkAlignment;
+    @Nullable
+    private final SplitAcknowledger acknowledger;
+    /** The positions of the splits by checkpoint, waiting for the checkpoint to complete. */
+    private final SortedMap<Long, Map<String, MessageId>> pendingPositions = new TreeMap<>();
 
     public PulsarSourceReader(
             FutureCompletingBlockingQueue<RecordsWithSplitIds<ParsedMessage<T>>> elementsQueue,
@@ -42,8 +77,89 @@ public class PulsarSourceReader<T>
             Configuration config,
             SourceReaderContext context,
             RunnableWithException closeCallback) {
-        super(elementsQueue, splitReaderSupplier, recordEmitter, config, context);
+        this(
+                elementsQueue,
+                new SingleThreadFetcherManager<>(elementsQueue, splitReaderSupplier),
+                recordEmitter,
+                config,
+                context,
+                closeCallback);
+    }
+
+    public PulsarSourceReader(
+            FutureCompletingBlockingQueue<RecordsWithSplitIds<ParsedMessage<T>>> elementsQueue,
+            SplitFetcherManager<ParsedMessage<T>, PulsarPartitionSplit> splitFetcherManager,
+            RecordEmitter<ParsedMessage<T>, T, PulsarPartitionSplit> recordEmitter,
+            Configuration config,
+            SourceReaderContext context,
+            RunnableWithException closeCallback) {
+        this(elementsQueue, splitFetcherManager, recordEmitter, config, context, closeCallback, null, null);
+    }
+
+    public PulsarSourceReader(
+            FutureCompletingBlockingQueue<RecordsWithSplitIds<ParsedMessage<T>>> elementsQueue,
+            SplitFetcherManager<ParsedMessage<T>, PulsarPartitionSplit> splitFetcherManager,
+            RecordEmitter<ParsedMessage<T>, T, PulsarPartitionSplit> recordEmitter,
+            Configuration config,
+            SourceReaderContext context,
+            RunnableWithException closeCallback,
+            @Nullable WatermarkAlignment watermarkAlignment,
+            @Nullable SplitAcknowledger acknowledger) {
+        super(elementsQueue, splitFetcherManager, recordEmitter, config, context);
         this.closeCallback = closeCallback;
+        this.watermarkAlignment = watermarkAlignment;
+        this.acknowledger = acknowledger;
+    }
+
+    @Override
+    public InputStatus pollNext(ReaderOutput<T> output) throws Exception {
+        InputStatus status = super.pollNext(output);
+        if (watermarkAlignment != null) {
+            watermarkAlignment.maybeReport(context);
+        }
+        return status;
+    }
+
+    @Override
+    public void handleSourceEvents(SourceEvent sourceEvent) {
+        if (sourceEvent instanceof GlobalWatermarkEvent && watermarkAlignment != null) {
+            watermarkAlignment.setGlobalWatermark(((GlobalWatermarkEvent) sourceEvent).getWatermark());
+        } else {
+            super.handleSourceEvents(sourceEvent);
+        }
+    }
+
+    @Override
+    public List<PulsarPartitionSplit> snapshotState(long checkpointId) {
+        List<PulsarPartitionSplit> splits = super.snapshotState(checkpointId);
+        if (acknowledger != null) {
+            Map<String, MessageId> positions = new HashMap<>();
+            for (PulsarPartitionSplit split : splits) {
+                if (split.getLastConsumedId() != null) {
+                    positions.put(split.splitId(), split.getLastConsumedId());
+                }
+            }
+            pendingPositions.put(checkpointId, positions);
+            while (pendingPositions.size() > MAX_NUM_PENDING_CHECKPOINTS) {
+                pendingPositions.remove(pendingPositions.firstKey());
+            }
+        }
+        return splits;
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {
+        if (acknowledger == null) {
+            return;
+        }
+        Map<String, MessageId> positions = pendingPositions.get(checkpointId);
+        if (positions == null) {
+            LOG.debug("Received confirmation for unknown checkpoint {}.", checkpointId);
+            return;
+        }
+        // the positions of this checkpoint are past the ones of all earlier checkpoints
+        pendingPositions.headMap(checkpointId + 1).clear();
+        positions.forEach(acknowledger::acknowledge);
     }
 
     @Override
@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.fetcher.SplitFetcher;
+import org.apache.flink.connector.base.source.reader.fetcher.SplitFetcherManager;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitReader;
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.pulsar.source.PulsarSourceOptions.FetcherAssignment;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.util.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A {@link SplitFetcherManager} that fetches the splits of a reader with a fixed number of
+ * {@link SplitFetcher fetchers}, each running on its own thread with its own split reader.
+ *
+ * <p>Every split is assigned to one fetcher by the {@link FetcherAssignment}. A fetcher that shut
+ * down after all its splits finished is recreated when it is assigned a new split.
+ */
+public class PulsarSplitFetcherManager<T> extends SplitFetcherManager<ParsedMessage<T>, PulsarPartitionSplit> {
+
+    private final FetcherAssignment assignment;
+
+    /** The id of the fetcher of each index, or -1 if the fetcher has not been created yet. */
+    private final int[] fetcherIds;
+
+    private int nextRoundRobinIndex;
+
+    public PulsarSplitFetcherManager(
+            FutureCompletingBlockingQueue<RecordsWithSplitIds<ParsedMessage<T>>> elementsQueue,
+            Supplier<SplitReader<ParsedMessage<T>, PulsarPartitionSplit>> splitReaderSupplier,
+            int numFetchers,
+            FetcherAssignment assignment) {
+        super(elementsQueue, splitReaderSupplier);
+        Preconditions.checkArgument(numFetchers > 0, "The number of fetchers must be positive.");
+        this.assignment = assignment;
+        this.fetcherIds = new int[numFetchers];
+        Arrays.fill(fetcherIds, -1);
+    }
+
+    @Override
+    public synchronized void addSplits(List<PulsarPartitionSplit> splitsToAdd) {
+        List<List<PulsarPartitionSplit>> splitsByFetcher = new ArrayList<>(fetcherIds.length);
+        for (int i = 0; i < fetcherIds.length; i++) {
+            splitsByFetcher.add(new ArrayList<>());
+        }
+        for (PulsarPartitionSplit split : splitsToAdd) {
+            splitsByFetcher.get(getFetcherIndex(split)).add(split);
+        }
+        for (int index = 0; index < fetcherIds.length; index++) {
+            List<PulsarPartitionSplit> splits = splitsByFetcher.get(index);
+            if (splits.isEmpty()) {
+                continue;
+            }
+            SplitFetcher<ParsedMessage<T>, PulsarPartitionSplit> fetcher = fetchers.get(fetcherIds[index]);
+            if (fetcher == null) {
+                fetcher = createSplitFetcher();
+                fetcherIds[index] = fetcher.fetcherId();
+                fetcher.addSplits(splits);
+                startFetcher(fetcher);
+            } else {
+                fetcher.addSplits(splits);
+            }
+        }
+    }
+
+    int getFetcherIndex(PulsarPartitionSplit split) {
+        switch (assignment) {
+            case HASH:
+                return Math.floorMod(split.splitId().hashCode(), fetcherIds.length);
+            case ROUND_ROBIN:
+            default:
+                int index = nextRoundRobinIndex;
+                nextRoundRobinIndex = (nextRoundRobinIndex + 1) % fetcherIds.length;
+                return index;
+        }
+    }
+}
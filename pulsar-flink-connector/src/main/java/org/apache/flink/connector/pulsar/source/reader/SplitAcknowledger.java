@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.MessageId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.flink.connector.pulsar.source.PulsarSourceMetrics.COMMITS_FAILED_METRICS_COUNTER;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceMetrics.COMMITS_SUCCEEDED_METRICS_COUNTER;
+
+/**
+ * Acknowledges the checkpointed positions of the splits of a source reader cumulatively on their
+ * consumers, so that the brokers can move the cursors of the subscriptions.
+ *
+ * <p>At most one acknowledgement per split is in flight. Positions that arrive in the meantime
+ * replace each other, and only the latest one is acknowledged once the one in flight completes.
+ */
+@Internal
+public class SplitAcknowledger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SplitAcknowledger.class);
+
+    private final Map<String, Consumer<?>> consumers = new ConcurrentHashMap<>();
+
+    /** Guarded by this. */
+    private final Set<String> inFlightSplits = new HashSet<>();
+
+    /** The positions to acknowledge after the ones in flight. Guarded by this. */
+    private final Map<String, MessageId> nextPositions = new HashMap<>();
+
+    private final Counter acknowledgementsSucceeded;
+
+    private final Counter acknowledgementsFailed;
+
+    public SplitAcknowledger(MetricGroup metricGroup) {
+        this.acknowledgementsSucceeded = metricGroup.counter(COMMITS_SUCCEEDED_METRICS_COUNTER);
+        this.acknowledgementsFailed = metricGroup.counter(COMMITS_FAILED_METRICS_COUNTER);
+    }
+
+    /**
+     * Registers the consumer of a split. Only consumers of exclusive and failover subscriptions
+     * can acknowledge cumulatively.
+     */
+    void register(String splitId, Consumer<?> consumer) {
+        consumers.put(splitId, consumer);
+    }
+
+    void unregister(String splitId) {
+        consumers.remove(splitId);
+    }
+
+    /**
+     * Acknowledges all messages of the split up to and including the given message. Splits without
+     * a registered consumer are skipped, they finished or are read by another source reader.
+     */
+    void acknowledge(String splitId, MessageId messageId) {
+        synchronized (this) {
+            if (!inFlightSplits.add(splitId)) {
+                nextPositions.put(splitId, messageId);
+                return;
+            }
+        }
+        send(splitId, messageId);
+    }
+
+    private void send(String splitId, MessageId messageId) {
+        Consumer<?> consumer = consumers.get(splitId);
+        if (consumer == null) {
+            onCompleted(splitId);
+            return;
+        }
+        consumer.acknowledgeCumulativeAsync(messageId).whenComplete((ignored, t) -> {
+            if (t == null) {
+                acknowledgementsSucceeded.inc();
+            } else {
+                acknowledgementsFailed.inc();
+                LOG.warn("Failed to acknowledge {} of split {}.", messageId, splitId, t);
+            }
+            onCompleted(splitId);
+        });
+    }
+
+    private void onCompleted(String splitId) {
+        MessageId next;
+        synchronized (this) {
+            next = nextPositions.remove(splitId);
+            if (next == null) {
+                inFlightSplits.remove(splitId);
+                return;
+            }
+        }
+        send(splitId, next);
+    }
+}
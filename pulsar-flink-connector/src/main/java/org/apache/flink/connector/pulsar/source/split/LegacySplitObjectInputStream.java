@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.split;
+
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.stop.LastMessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.MessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.NeverStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.TimestampStopCondition;
+
+import org.apache.pulsar.client.api.MessageId;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Reads splits written with Java serialization by version 0 of the {@link PulsarPartitionSplitSerializer}.
+ *
+ * <p>The built-in stop conditions used to be lambdas and anonymous classes of {@link StopCondition},
+ * which no longer exist. Their serialized form is mapped onto the named stop conditions.
+ *
+ * <p>The lambdas reference {@link StopCondition} as their capturing class. The interface has no
+ * fixed serialVersionUID and gained methods since, so its descriptor is replaced by the local one.
+ */
+class LegacySplitObjectInputStream extends ObjectInputStream {
+
+    private static final String STOP_CONDITION = "org.apache.flink.connector.pulsar.source.StopCondition";
+
+    LegacySplitObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+        ObjectStreamClass descriptor = super.readClassDescriptor();
+        switch (descriptor.getName()) {
+            case STOP_CONDITION:
+                return ObjectStreamClass.lookup(StopCondition.class);
+            case "java.lang.invoke.SerializedLambda":
+                return ObjectStreamClass.lookup(LegacyLambda.class);
+            case "org.apache.flink.connector.pulsar.source.LastStopCondition":
+                return ObjectStreamClass.lookup(LegacyLastStopCondition.class);
+            case STOP_CONDITION + "$2":
+                return ObjectStreamClass.lookup(LegacyStopAtLast.class);
+            case STOP_CONDITION + "$3":
+                return ObjectStreamClass.lookup(LegacyStopAfterLast.class);
+            default:
+                return descriptor;
+        }
+    }
+
+    /**
+     * Has the fields of {@link SerializedLambda}, replaces the lambdas of the {@link StopCondition}
+     * factory methods and resolves all other lambdas as usual.
+     */
+    private static class LegacyLambda implements Serializable {
+        private static final long serialVersionUID = 8025925345765570181L;
+
+        private Class<?> capturingClass;
+        private String functionalInterfaceClass;
+        private String functionalInterfaceMethodName;
+        private String functionalInterfaceMethodSignature;
+        private String implClass;
+        private String implMethodName;
+        private String implMethodSignature;
+        private int implMethodKind;
+        private String instantiatedMethodType;
+        private Object[] capturedArgs;
+
+        @SuppressWarnings("unchecked")
+        private Object readResolve() throws ObjectStreamException {
+            if (capturingClass != null && STOP_CONDITION.equals(capturingClass.getName())) {
+                // lambda$<factory method>$..., the suffix depends on the compiler
+                String factory = implMethodName.split("\\$")[1];
+                switch (factory) {
+                    case "stopAtMessageId":
+                        return new MessageIdStopCondition((MessageId) capturedArgs[0], false);
+                    case "stopAfterMessageId":
+                        return new MessageIdStopCondition((MessageId) capturedArgs[0], true);
+                    case "stopAtMessageIds":
+                        return new PartitionMessageIdsStopCondition((Map) capturedArgs[0], false);
+                    case "stopAfterMessageIds":
+                        return new PartitionMessageIdsStopCondition((Map) capturedArgs[0], true);
+                    case "stopAtTimestamp":
+                        return new TimestampStopCondition((Long) capturedArgs[0], false);
+                    case "stopAfterTimestamp":
+                        return new TimestampStopCondition((Long) capturedArgs[0], true);
+                    case "never":
+                        return new NeverStopCondition();
+                    default:
+                        throw new InvalidObjectException("Unknown stop condition lambda " + implMethodName);
+                }
+            }
+            SerializedLambda lambda = new SerializedLambda(
+                    capturingClass,
+                    functionalInterfaceClass,
+                    functionalInterfaceMethodName,
+                    functionalInterfaceMethodSignature,
+                    implMethodKind,
+                    implClass,
+                    implMethodName,
+                    implMethodSignature,
+                    instantiatedMethodType,
+                    capturedArgs);
+            try {
+                Method readResolve = SerializedLambda.class.getDeclaredMethod("readResolve");
+                readResolve.setAccessible(true);
+                return readResolve.invoke(lambda);
+            } catch (ReflectiveOperationException e) {
+                InvalidObjectException error = new InvalidObjectException("Cannot resolve lambda " + implMethodName);
+                error.initCause(e);
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Has the fields of the former abstract {@code LastStopCondition}.
+     */
+    private abstract static class LegacyLastStopCondition implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        MessageId lastId;
+
+        Object toStopCondition(boolean stopAfter) {
+            LastMessageIdStopCondition condition = new LastMessageIdStopCondition(stopAfter);
+            condition.setLastId(lastId);
+            return condition;
+        }
+    }
+
+    /**
+     * Replaces the former anonymous class of {@link StopCondition#stopAtLast()}.
+     */
+    private static class LegacyStopAtLast extends LegacyLastStopCondition {
+        private static final long serialVersionUID = 1L;
+
+        private Object readResolve() {
+            return toStopCondition(false);
+        }
+    }
+
+    /**
+     * Replaces the former anonymous class of {@link StopCondition#stopAfterLast()}.
+     */
+    private static class LegacyStopAfterLast extends LegacyLastStopCondition {
+        private static final long serialVersionUID = 1L;
+
+        private Object readResolve() {
+            return toStopCondition(true);
+        }
+    }
+}
@@ -14,20 +14,83 @@
 
 package org.apache.flink.connector.pulsar.source.split;
 
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.BrokerPartition;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.offset.RollbackStartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.offset.SpecifiedStartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.offset.TimestampStartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.stop.LastMessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.MessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.NeverStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionIndexMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PublishTimeStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.TimestampStopCondition;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+import org.apache.flink.util.InstantiationUtil;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.impl.BatchMessageAckerDisabled;
+import org.apache.pulsar.client.impl.BatchMessageIdImpl;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+
+import javax.annotation.Nullable;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The {@link SimpleVersionedSerializer serializer} for {@link PulsarPartitionSplit}.
+ *
+ * <p>Version 1 writes a compact binary format: a table of the topic names of the split, followed
+ * by the partition as topic index and key range, typed tags for the built-in start offset
+ * initializers and stop conditions, and message ids as plain ledger, entry and batch numbers.
+ * Initializers and conditions of other types are written with Java serialization.
+ *
+ * <p>Version 0 splits were written with Java serialization and can still be read.
  */
 public class PulsarPartitionSplitSerializer implements SimpleVersionedSerializer<PulsarPartitionSplit> {
 
-    private static final int CURRENT_VERSION = 0;
+    static final int JAVA_SERIALIZATION_VERSION = 0;
+
+    private static final int CURRENT_VERSION = 1;
+
+    // tags of the partition types
+    private static final byte PARTITION_JAVA = 0;
+    private static final byte PARTITION_BROKER = 1;
+
+    // tags of the start offset initializers
+    private static final byte START_JAVA = 0;
+    private static final byte START_SPECIFIED = 1;
+    private static final byte START_TIMESTAMP = 2;
+    private static final byte START_ROLLBACK = 3;
+
+    // tags of the stop conditions
+    private static final byte STOP_JAVA = 0;
+    private static final byte STOP_NEVER = 1;
+    private static final byte STOP_MESSAGE_ID = 2;
+    private static final byte STOP_PARTITION_MESSAGE_IDS = 3;
+    private static final byte STOP_TIMESTAMP = 4;
+    private static final byte STOP_LAST_MESSAGE_ID = 5;
+    private static final byte STOP_PARTITION_INDEX_MESSAGE_IDS = 6;
+    private static final byte STOP_PUBLISH_TIME = 7;
+
+    // tags of the message ids
+    private static final byte MESSAGE_ID_NULL = 0;
+    private static final byte MESSAGE_ID_ENTRY = 1;
+    private static final byte MESSAGE_ID_BATCH = 2;
+    private static final byte MESSAGE_ID_BYTES = 3;
 
     @Override
     public int getVersion() {
@@ -36,18 +99,293 @@ public class PulsarPartitionSplitSerializer implements SimpleVersionedSerializer
 
     @Override
     public byte[] serialize(PulsarPartitionSplit split) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ObjectOutputStream out = new ObjectOutputStream(baos)) {
-            out.writeObject(split);
-            out.flush();
-            return baos.toByteArray();
-        }
+        TopicTable topics = new TopicTable();
+        DataOutputSerializer body = new DataOutputSerializer(64);
+        serialize(split, body, topics);
+
+        DataOutputSerializer out = new DataOutputSerializer(body.length() + 64);
+        topics.write(out);
+        out.write(body.getSharedBuffer(), 0, body.length());
+        return out.getCopyOfBuffer();
     }
 
     @Override
     public PulsarPartitionSplit deserialize(int version, byte[] serialized) throws IOException {
+        switch (version) {
+            case JAVA_SERIALIZATION_VERSION:
+                return deserializeJavaSerialized(serialized);
+            case CURRENT_VERSION:
+                DataInputDeserializer in = new DataInputDeserializer(serialized);
+                TopicTable topics = TopicTable.read(in);
+                return deserialize(in, topics);
+            default:
+                throw new IOException("Unknown version of PulsarPartitionSplit: " + version);
+        }
+    }
+
+    /**
+     * Writes the split without its topic names, which are added to the given table.
+     */
+    public void serialize(PulsarPartitionSplit split, DataOutputView out, TopicTable topics) throws IOException {
+        writePartition(split.getPartition(), out, topics);
+        writeStartOffsetInitializer(split.getStartOffsetInitializer(), out, topics);
+        writeStopCondition(split.getStopCondition(), out, topics);
+        writeMessageId(split.getLastConsumedId(), out);
+    }
+
+    /**
+     * Reads a split written by {@link #serialize(PulsarPartitionSplit, DataOutputView, TopicTable)}.
+     */
+    public PulsarPartitionSplit deserialize(DataInputView in, TopicTable topics) throws IOException {
+        AbstractPartition partition = readPartition(in, topics);
+        StartOffsetInitializer startOffsetInitializer = readStartOffsetInitializer(in, topics);
+        StopCondition stopCondition = readStopCondition(in, topics);
+        PulsarPartitionSplit split = new PulsarPartitionSplit(partition, startOffsetInitializer, stopCondition);
+        split.setLastConsumedId(readMessageId(in));
+        return split;
+    }
+
+    // ------------------------------------------------------------------------
+
+    private static void writePartition(AbstractPartition partition, DataOutputView out, TopicTable topics) throws IOException {
+        if (partition.getClass() == BrokerPartition.class) {
+            TopicRange topicRange = ((BrokerPartition) partition).getTopicRange();
+            out.writeByte(PARTITION_BROKER);
+            out.writeInt(topics.indexOf(topicRange.getTopic()));
+            out.writeInt(topicRange.getPulsarRange().getStart());
+            out.writeInt(topicRange.getPulsarRange().getEnd());
+        } else {
+            out.writeByte(PARTITION_JAVA);
+            writeJavaSerialized(partition, out);
+        }
+    }
+
+    private static AbstractPartition readPartition(DataInputView in, TopicTable topics) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case PARTITION_BROKER:
+                String topic = topics.getTopic(in.readInt());
+                int start = in.readInt();
+                int end = in.readInt();
+                return new BrokerPartition(new TopicRange(topic, start, end));
+            case PARTITION_JAVA:
+                return readJavaSerialized(in);
+            default:
+                throw new IOException("Unknown partition tag " + tag);
+        }
+    }
+
+    private static void writeStartOffsetInitializer(
+            StartOffsetInitializer initializer,
+            DataOutputView out,
+            TopicTable topics) throws IOException {
+        if (initializer.getClass() == SpecifiedStartOffsetInitializer.class) {
+            SpecifiedStartOffsetInitializer specified = (SpecifiedStartOffsetInitializer) initializer;
+            out.writeByte(START_SPECIFIED);
+            writePartitionMessageIds(specified.getInitialOffsets(), out, topics);
+            writeMessageId(specified.getDefaultOffset(), out);
+            out.writeBoolean(specified.isInclusive());
+        } else if (initializer.getClass() == TimestampStartOffsetInitializer.class) {
+            out.writeByte(START_TIMESTAMP);
+            out.writeLong(((TimestampStartOffsetInitializer) initializer).getStartingTimestamp());
+        } else if (initializer.getClass() == RollbackStartOffsetInitializer.class) {
+            out.writeByte(START_ROLLBACK);
+            out.writeLong(((RollbackStartOffsetInitializer) initializer).getRollbackTimeInS());
+        } else {
+            out.writeByte(START_JAVA);
+            writeJavaSerialized(initializer, out);
+        }
+    }
+
+    private static StartOffsetInitializer readStartOffsetInitializer(DataInputView in, TopicTable topics) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case START_SPECIFIED:
+                Map<AbstractPartition, MessageId> initialOffsets = readPartitionMessageIds(in, topics);
+                MessageId defaultOffset = readMessageId(in);
+                boolean inclusive = in.readBoolean();
+                return new SpecifiedStartOffsetInitializer(initialOffsets, defaultOffset, inclusive);
+            case START_TIMESTAMP:
+                return new TimestampStartOffsetInitializer(in.readLong());
+            case START_ROLLBACK:
+                return new RollbackStartOffsetInitializer(in.readLong());
+            case START_JAVA:
+                return readJavaSerialized(in);
+            default:
+                throw new IOException("Unknown start offset initializer tag " + tag);
+        }
+    }
+
+    private static void writeStopCondition(StopCondition condition, DataOutputView out, TopicTable topics) throws IOException {
+        if (condition.getClass() == NeverStopCondition.class) {
+            out.writeByte(STOP_NEVER);
+        } else if (condition.getClass() == MessageIdStopCondition.class) {
+            MessageIdStopCondition messageIdCondition = (MessageIdStopCondition) condition;
+            out.writeByte(STOP_MESSAGE_ID);
+            writeMessageId(messageIdCondition.getStopId(), out);
+            out.writeBoolean(messageIdCondition.isStopAfter());
+        } else if (condition.getClass() == PartitionMessageIdsStopCondition.class) {
+            PartitionMessageIdsStopCondition messageIdsCondition = (PartitionMessageIdsStopCondition) condition;
+            out.writeByte(STOP_PARTITION_MESSAGE_IDS);
+            writePartitionMessageIds(messageIdsCondition.getStopIds(), out, topics);
+            out.writeBoolean(messageIdsCondition.isStopAfter());
+        } else if (condition.getClass() == TimestampStopCondition.class) {
+            TimestampStopCondition timestampCondition = (TimestampStopCondition) condition;
+            out.writeByte(STOP_TIMESTAMP);
+            out.writeLong(timestampCondition.getTimestamp());
+            out.writeBoolean(timestampCondition.isStopAfter());
+        } else if (condition.getClass() == LastMessageIdStopCondition.class) {
+            LastMessageIdStopCondition lastCondition = (LastMessageIdStopCondition) condition;
+            out.writeByte(STOP_LAST_MESSAGE_ID);
+            out.writeBoolean(lastCondition.isStopAfter());
+            writeMessageId(lastCondition.getLastId(), out);
+        } else if (condition.getClass() == PartitionIndexMessageIdsStopCondition.class) {
+            PartitionIndexMessageIdsStopCondition indexCondition = (PartitionIndexMessageIdsStopCondition) condition;
+            out.writeByte(STOP_PARTITION_INDEX_MESSAGE_IDS);
+            out.writeInt(indexCondition.getStopIds().size());
+            for (Map.Entry<Integer, MessageId> entry : indexCondition.getStopIds().entrySet()) {
+                out.writeInt(entry.getKey());
+                writeMessageId(entry.getValue(), out);
+            }
+            out.writeBoolean(indexCondition.isStopAfter());
+        } else if (condition.getClass() == PublishTimeStopCondition.class) {
+            PublishTimeStopCondition publishTimeCondition = (PublishTimeStopCondition) condition;
+            out.writeByte(STOP_PUBLISH_TIME);
+            out.writeLong(publishTimeCondition.getTimestamp());
+            writeMessageId(publishTimeCondition.getLastId(), out);
+        } else {
+            out.writeByte(STOP_JAVA);
+            writeJavaSerialized(condition, out);
+        }
+    }
+
+    private static StopCondition readStopCondition(DataInputView in, TopicTable topics) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case STOP_NEVER:
+                return new NeverStopCondition();
+            case STOP_MESSAGE_ID:
+                MessageId stopId = readMessageId(in);
+                return new MessageIdStopCondition(stopId, in.readBoolean());
+            case STOP_PARTITION_MESSAGE_IDS:
+                Map<AbstractPartition, MessageId> stopIds = readPartitionMessageIds(in, topics);
+                return new PartitionMessageIdsStopCondition(stopIds, in.readBoolean());
+            case STOP_TIMESTAMP:
+                long timestamp = in.readLong();
+                return new TimestampStopCondition(timestamp, in.readBoolean());
+            case STOP_LAST_MESSAGE_ID:
+                LastMessageIdStopCondition lastCondition = new LastMessageIdStopCondition(in.readBoolean());
+                lastCondition.setLastId(readMessageId(in));
+                return lastCondition;
+            case STOP_PARTITION_INDEX_MESSAGE_IDS:
+                int size = in.readInt();
+                Map<Integer, MessageId> indexStopIds = new HashMap<>(size);
+                for (int i = 0; i < size; i++) {
+                    int partitionIndex = in.readInt();
+                    indexStopIds.put(partitionIndex, readMessageId(in));
+                }
+                return new PartitionIndexMessageIdsStopCondition(indexStopIds, in.readBoolean());
+            case STOP_PUBLISH_TIME:
+                PublishTimeStopCondition publishTimeCondition = new PublishTimeStopCondition(in.readLong());
+                publishTimeCondition.setLastId(readMessageId(in));
+                return publishTimeCondition;
+            case STOP_JAVA:
+                return readJavaSerialized(in);
+            default:
+                throw new IOException("Unknown stop condition tag " + tag);
+        }
+    }
+
+    private static void writePartitionMessageIds(
+            Map<AbstractPartition, MessageId> messageIds,
+            DataOutputView out,
+            TopicTable topics) throws IOException {
+        out.writeInt(messageIds.size());
+        for (Map.Entry<AbstractPartition, MessageId> entry : messageIds.entrySet()) {
+            writePartition(entry.getKey(), out, topics);
+            writeMessageId(entry.getValue(), out);
+        }
+    }
+
+    private static Map<AbstractPartition, MessageId> readPartitionMessageIds(DataInputView in, TopicTable topics) throws IOException {
+        int size = in.readInt();
+        Map<AbstractPartition, MessageId> messageIds = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            AbstractPartition partition = readPartition(in, topics);
+            messageIds.put(partition, readMessageId(in));
+        }
+        return messageIds;
+    }
+
+    private static void writeMessageId(@Nullable MessageId messageId, DataOutputView out) throws IOException {
+        if (messageId == null) {
+            out.writeByte(MESSAGE_ID_NULL);
+        } else if (messageId.getClass() == MessageIdImpl.class) {
+            MessageIdImpl id = (MessageIdImpl) messageId;
+            out.writeByte(MESSAGE_ID_ENTRY);
+            out.writeLong(id.getLedgerId());
+            out.writeLong(id.getEntryId());
+            out.writeInt(id.getPartitionIndex());
+        } else if (messageId.getClass() == BatchMessageIdImpl.class) {
+            BatchMessageIdImpl id = (BatchMessageIdImpl) messageId;
+            out.writeByte(MESSAGE_ID_BATCH);
+            out.writeLong(id.getLedgerId());
+            out.writeLong(id.getEntryId());
+            out.writeInt(id.getPartitionIndex());
+            out.writeInt(id.getBatchIndex());
+            out.writeInt(id.getBatchSize());
+        } else {
+            byte[] bytes = messageId.toByteArray();
+            out.writeByte(MESSAGE_ID_BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static MessageId readMessageId(DataInputView in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case MESSAGE_ID_NULL:
+                return null;
+            case MESSAGE_ID_ENTRY:
+                return new MessageIdImpl(in.readLong(), in.readLong(), in.readInt());
+            case MESSAGE_ID_BATCH:
+                long ledgerId = in.readLong();
+                long entryId = in.readLong();
+                int partitionIndex = in.readInt();
+                int batchIndex = in.readInt();
+                int batchSize = in.readInt();
+                return new BatchMessageIdImpl(
+                        ledgerId, entryId, partitionIndex, batchIndex, batchSize, BatchMessageAckerDisabled.INSTANCE);
+            case MESSAGE_ID_BYTES:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return MessageId.fromByteArray(bytes);
+            default:
+                throw new IOException("Unknown message id tag " + tag);
+        }
+    }
+
+    private static void writeJavaSerialized(Serializable object, DataOutputView out) throws IOException {
+        byte[] bytes = InstantiationUtil.serializeObject(object);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static <T> T readJavaSerialized(DataInputView in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            return InstantiationUtil.deserializeObject(bytes, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static PulsarPartitionSplit deserializeJavaSerialized(byte[] serialized) throws IOException {
         try (ByteArrayInputStream bais = new ByteArrayInputStream(serialized);
-             ObjectInputStream in = new ObjectInputStream(bais)) {
+             ObjectInputStream in = new LegacySplitObjectInputStream(bais)) {
             try {
                 return (PulsarPartitionSplit) in.readObject();
             } catch (ClassNotFoundException e) {
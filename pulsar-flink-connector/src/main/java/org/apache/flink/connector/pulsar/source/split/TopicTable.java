@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.split;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary of topic names, so that serialized splits refer to their topics by index
+ * and every topic name is written only once.
+ */
+@Internal
+public class TopicTable {
+    private final List<String> topics;
+    private final Map<String, Integer> indexes;
+
+    public TopicTable() {
+        this.topics = new ArrayList<>();
+        this.indexes = new HashMap<>();
+    }
+
+    /**
+     * Returns the index of the topic, adding it to the table if it is not known yet.
+     */
+    public int indexOf(String topic) {
+        Integer index = indexes.get(topic);
+        if (index == null) {
+            index = topics.size();
+            topics.add(topic);
+            indexes.put(topic, index);
+        }
+        return index;
+    }
+
+    public String getTopic(int index) throws IOException {
+        if (index < 0 || index >= topics.size()) {
+            throw new IOException("Unknown topic index " + index + " in a table of " + topics.size() + " topics");
+        }
+        return topics.get(index);
+    }
+
+    public int size() {
+        return topics.size();
+    }
+
+    public void write(DataOutputView out) throws IOException {
+        out.writeInt(topics.size());
+        for (String topic : topics) {
+            out.writeUTF(topic);
+        }
+    }
+
+    public static TopicTable read(DataInputView in) throws IOException {
+        TopicTable table = new TopicTable();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            table.indexOf(in.readUTF());
+        }
+        return table;
+    }
+}
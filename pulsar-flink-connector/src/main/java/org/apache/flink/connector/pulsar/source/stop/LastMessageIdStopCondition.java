@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.stop;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link StopCondition} that stops at the last message of the partition when the split was
+ * initialized. The last message id is kept with the split, so a restored split stops at the same message.
+ *
+ * <p>Should be initialized through {@link StopCondition}.
+ */
+public class LastMessageIdStopCondition implements StopCondition {
+    private static final long serialVersionUID = 7851379528380924731L;
+    private final boolean stopAfter;
+    @Nullable
+    private MessageId lastId;
+
+    public LastMessageIdStopCondition(boolean stopAfter) {
+        this.stopAfter = stopAfter;
+    }
+
+    public boolean isStopAfter() {
+        return stopAfter;
+    }
+
+    @Nullable
+    public MessageId getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(@Nullable MessageId lastId) {
+        this.lastId = lastId;
+    }
+
+    @Override
+    public void init(AbstractPartition partition, Consumer<byte[]> consumer) throws PulsarClientException {
+        if (lastId == null) {
+            lastId = consumer.getLastMessageId();
+        }
+    }
+
+    @Override
+    public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+        if (lastId == null) {
+            return StopResult.STOP_BEFORE;
+        }
+        return StopCondition.shouldStopAt(message, lastId, stopAfter);
+    }
+
+    @Override
+    public boolean isExhausted(
+            AbstractPartition partition,
+            Consumer<byte[]> consumer,
+            @Nullable MessageId startId,
+            boolean inclusive) {
+        return lastId == null || StopCondition.isExhausted(lastId, stopAfter, startId, inclusive, lastId);
+    }
+}
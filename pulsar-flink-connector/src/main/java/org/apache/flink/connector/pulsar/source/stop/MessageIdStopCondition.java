@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.stop;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link StopCondition} that stops all partitions at the same message id.
+ *
+ * <p>Should be initialized through {@link StopCondition}.
+ */
+public class MessageIdStopCondition implements StopCondition {
+    private static final long serialVersionUID = -2185727458203127424L;
+    private final MessageId stopId;
+    private final boolean stopAfter;
+
+    public MessageIdStopCondition(MessageId stopId, boolean stopAfter) {
+        this.stopId = stopId;
+        this.stopAfter = stopAfter;
+    }
+
+    public MessageId getStopId() {
+        return stopId;
+    }
+
+    public boolean isStopAfter() {
+        return stopAfter;
+    }
+
+    @Override
+    public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+        return StopCondition.shouldStopAt(message, stopId, stopAfter);
+    }
+
+    @Override
+    public boolean isExhausted(
+            AbstractPartition partition,
+            Consumer<byte[]> consumer,
+            @Nullable MessageId startId,
+            boolean inclusive) throws PulsarClientException {
+        return StopCondition.isExhausted(stopId, stopAfter, startId, inclusive, consumer.getLastMessageId());
+    }
+}
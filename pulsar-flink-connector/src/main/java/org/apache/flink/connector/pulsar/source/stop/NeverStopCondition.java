@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.stop;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+
+import org.apache.pulsar.client.api.Message;
+
+/**
+ * A {@link StopCondition} for unbounded splits that never stops.
+ *
+ * <p>Should be initialized through {@link StopCondition}.
+ */
+public class NeverStopCondition implements StopCondition {
+    private static final long serialVersionUID = -1264893402157428817L;
+
+    @Override
+    public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+        return StopResult.DONT_STOP;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.stop;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.common.naming.TopicName;
+
+import javax.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * A {@link StopCondition} that stops every partition at the message id given for its partition index,
+ * -1 being the index of a non-partitioned topic. Partitions without a message id are not read at all.
+ *
+ * <p>Unlike {@link PartitionMessageIdsStopCondition}, the message ids do not depend on how the
+ * partitions are divided into key ranges, but are shared by the partitions of all topics with the same index.
+ *
+ * <p>Should be initialized through {@link StopCondition}.
+ */
+public class PartitionIndexMessageIdsStopCondition implements StopCondition {
+    private static final long serialVersionUID = 3196283561453357906L;
+    private final Map<Integer, MessageId> stopIds;
+    private final boolean stopAfter;
+
+    public PartitionIndexMessageIdsStopCondition(Map<Integer, MessageId> stopIds, boolean stopAfter) {
+        this.stopIds = stopIds;
+        this.stopAfter = stopAfter;
+    }
+
+    public Map<Integer, MessageId> getStopIds() {
+        return stopIds;
+    }
+
+    public boolean isStopAfter() {
+        return stopAfter;
+    }
+
+    @Override
+    public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+        MessageId stopId = getStopId(partition);
+        if (stopId == null) {
+            return StopResult.STOP_BEFORE;
+        }
+        return StopCondition.shouldStopAt(message, stopId, stopAfter);
+    }
+
+    @Override
+    public boolean isExhausted(
+            AbstractPartition partition,
+            Consumer<byte[]> consumer,
+            @Nullable MessageId startId,
+            boolean inclusive) throws PulsarClientException {
+        MessageId stopId = getStopId(partition);
+        return stopId == null
+                || StopCondition.isExhausted(stopId, stopAfter, startId, inclusive, consumer.getLastMessageId());
+    }
+
+    @Nullable
+    private MessageId getStopId(AbstractPartition partition) {
+        return stopIds.get(TopicName.getPartitionIndex(partition.getTopic()));
+    }
+}
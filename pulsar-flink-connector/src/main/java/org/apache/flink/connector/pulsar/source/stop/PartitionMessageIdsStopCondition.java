@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.stop;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import javax.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * A {@link StopCondition} that stops every partition at its own message id. Partitions without a
+ * message id are not read at all.
+ *
+ * <p>Should be initialized through {@link StopCondition}.
+ */
+public class PartitionMessageIdsStopCondition implements StopCondition {
+    private static final long serialVersionUID = 6042465741375925113L;
+    private final Map<AbstractPartition, MessageId> stopIds;
+    private final boolean stopAfter;
+
+    public PartitionMessageIdsStopCondition(Map<AbstractPartition, MessageId> stopIds, boolean stopAfter) {
+        this.stopIds = stopIds;
+        this.stopAfter = stopAfter;
+    }
+
+    public Map<AbstractPartition, MessageId> getStopIds() {
+        return stopIds;
+    }
+
+    public boolean isStopAfter() {
+        return stopAfter;
+    }
+
+    @Override
+    public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+        MessageId stopId = stopIds.get(partition);
+        if (stopId == null) {
+            return StopResult.STOP_BEFORE;
+        }
+        return StopCondition.shouldStopAt(message, stopId, stopAfter);
+    }
+
+    @Override
+    public boolean isExhausted(
+            AbstractPartition partition,
+            Consumer<byte[]> consumer,
+            @Nullable MessageId startId,
+            boolean inclusive) throws PulsarClientException {
+        MessageId stopId = stopIds.get(partition);
+        return stopId == null
+                || StopCondition.isExhausted(stopId, stopAfter, startId, inclusive, consumer.getLastMessageId());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.stop;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link StopCondition} that stops at the first message published at or after a timestamp.
+ *
+ * <p>Unlike the event time used by {@link TimestampStopCondition}, every message has a publish time.
+ * A partition that has no message published at or after the timestamp yet stops after the last message
+ * it had when the split was initialized, so that reading it does not wait for new messages. As with
+ * {@link LastMessageIdStopCondition}, the last message id is kept with the split.
+ *
+ * <p>Should be initialized through {@link StopCondition}.
+ */
+public class PublishTimeStopCondition implements StopCondition {
+    private static final long serialVersionUID = -1705943860592380871L;
+    private final long timestamp;
+    @Nullable
+    private MessageId lastId;
+
+    public PublishTimeStopCondition(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Nullable
+    public MessageId getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(@Nullable MessageId lastId) {
+        this.lastId = lastId;
+    }
+
+    @Override
+    public void init(AbstractPartition partition, Consumer<byte[]> consumer) throws PulsarClientException {
+        if (lastId == null) {
+            lastId = consumer.getLastMessageId();
+        }
+    }
+
+    @Override
+    public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+        if (message.getPublishTime() >= timestamp) {
+            return StopResult.STOP_BEFORE;
+        }
+        return lastId != null ? StopCondition.shouldStopAt(message, lastId, true) : StopResult.DONT_STOP;
+    }
+
+    @Override
+    public boolean isExhausted(
+            AbstractPartition partition,
+            Consumer<byte[]> consumer,
+            @Nullable MessageId startId,
+            boolean inclusive) {
+        return lastId != null && StopCondition.isExhausted(lastId, true, startId, inclusive, lastId);
+    }
+}
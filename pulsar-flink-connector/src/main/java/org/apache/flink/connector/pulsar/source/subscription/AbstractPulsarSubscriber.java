@@ -15,17 +15,26 @@
 package org.apache.flink.connector.pulsar.source.subscription;
 
 import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.BrokerPartition;
 import org.apache.flink.connector.pulsar.source.PulsarSubscriber;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
 
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.admin.PulsarAdminException;
+import org.apache.pulsar.common.naming.TopicName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * The base implementations of {@link PulsarSubscriber}.
@@ -39,7 +48,7 @@ public abstract class AbstractPulsarSubscriber extends PulsarSubscriber {
             Set<AbstractPartition> currentAssignment) throws PulsarAdminException, InterruptedException, IOException {
         Set<AbstractPartition> newPartitions = new HashSet<>();
         Set<AbstractPartition> removedPartitions = new HashSet<>(currentAssignment);
-        for (AbstractPartition partition : getCurrentPartitions(pulsarAdmin)) {
+        for (AbstractPartition partition : getCurrentPartitions(pulsarAdmin, getRangesOfTopics(currentAssignment))) {
             if (!removedPartitions.remove(partition)) {
                 newPartitions.add(partition);
             }
@@ -53,5 +62,38 @@ public abstract class AbstractPulsarSubscriber extends PulsarSubscriber {
         return new PartitionChange(newPartitions, removedPartitions);
     }
 
-    public abstract Collection<AbstractPartition> getCurrentPartitions(PulsarAdmin pulsarAdmin) throws PulsarAdminException, InterruptedException, IOException;
+    public Collection<AbstractPartition> getCurrentPartitions(PulsarAdmin pulsarAdmin) throws PulsarAdminException, InterruptedException, IOException {
+        return getCurrentPartitions(pulsarAdmin, Collections.emptyMap());
+    }
+
+    /**
+     * Gets the partitions of the subscribed topics.
+     *
+     * @param pulsarAdmin          The pulsar admin used to retrieve partition information.
+     * @param currentRangesOfTopics the key ranges of the known partitions, by the name of their topic.
+     */
+    public abstract Collection<AbstractPartition> getCurrentPartitions(
+            PulsarAdmin pulsarAdmin,
+            Map<String, SortedSet<SerializableRange>> currentRangesOfTopics) throws PulsarAdminException, InterruptedException, IOException;
+
+    private static Map<String, SortedSet<SerializableRange>> getRangesOfTopics(Set<AbstractPartition> partitions) {
+        Map<String, SortedSet<SerializableRange>> rangesOfTopics = new HashMap<>();
+        for (AbstractPartition partition : partitions) {
+            if (partition instanceof BrokerPartition) {
+                TopicRange topicRange = ((BrokerPartition) partition).getTopicRange();
+                rangesOfTopics.computeIfAbsent(getTopicOfPartition(topicRange.getTopic()), t -> new TreeSet<>())
+                        .add(topicRange.getRange());
+            }
+        }
+        return rangesOfTopics;
+    }
+
+    private static String getTopicOfPartition(String partition) {
+        int partitionIndex = TopicName.getPartitionIndex(partition);
+        if (partitionIndex < 0) {
+            return partition;
+        }
+        String suffix = TopicName.PARTITIONED_TOPIC_SUFFIX + partitionIndex;
+        return partition.endsWith(suffix) ? partition.substring(0, partition.length() - suffix.length()) : partition;
+    }
 }
@@ -18,6 +18,7 @@ import org.apache.flink.connector.pulsar.source.AbstractPartition;
 import org.apache.flink.connector.pulsar.source.BrokerPartition;
 import org.apache.flink.connector.pulsar.source.SplitDivisionStrategy;
 import org.apache.flink.connector.pulsar.source.util.AsyncUtils;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
 import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
 
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +31,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
 import java.util.concurrent.TimeoutException;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -51,7 +55,9 @@ public class TopicListSubscriber extends AbstractPulsarSubscriber {
     }
 
     @Override
-    public Collection<AbstractPartition> getCurrentPartitions(PulsarAdmin pulsarAdmin) throws PulsarAdminException, InterruptedException, IOException {
+    public Collection<AbstractPartition> getCurrentPartitions(
+            PulsarAdmin pulsarAdmin,
+            Map<String, SortedSet<SerializableRange>> currentRangesOfTopics) throws PulsarAdminException, InterruptedException, IOException {
         Collection<AbstractPartition> partitions = new ArrayList<>();
         try {
             AsyncUtils.parallelAsync(
@@ -63,7 +69,11 @@ public class TopicListSubscriber extends AbstractPulsarSubscriber {
                         int numPartitions = topicMetadata.partitions;
                         // For key-shared mode, one split take over some range for all partitions of one topic,
                         // if not in key-shared mode, per partition per split for one topic.
-                        Collection<Range> ranges = splitDivisionStrategy.getRanges(topic, pulsarAdmin, context);
+                        Collection<Range> ranges = splitDivisionStrategy.getRanges(
+                                topic,
+                                currentRangesOfTopics.getOrDefault(topic, Collections.emptySortedSet()),
+                                pulsarAdmin,
+                                context);
                         if (numPartitions == 0) {
                             for (Range range : ranges) {
                                 partitions.add(new BrokerPartition(new TopicRange(topic, range)));
@@ -18,6 +18,7 @@ import org.apache.flink.connector.pulsar.source.AbstractPartition;
 import org.apache.flink.connector.pulsar.source.BrokerPartition;
 import org.apache.flink.connector.pulsar.source.SplitDivisionStrategy;
 import org.apache.flink.connector.pulsar.source.util.AsyncUtils;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
 import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
 
 import org.apache.pulsar.client.admin.PulsarAdmin;
@@ -29,8 +30,11 @@ import org.apache.pulsar.common.naming.TopicName;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -57,7 +61,9 @@ public class TopicPatternSubscriber extends AbstractPulsarSubscriber {
     }
 
     @Override
-    public Collection<AbstractPartition> getCurrentPartitions(PulsarAdmin pulsarAdmin) throws PulsarAdminException, InterruptedException, IOException {
+    public Collection<AbstractPartition> getCurrentPartitions(
+            PulsarAdmin pulsarAdmin,
+            Map<String, SortedSet<SerializableRange>> currentRangesOfTopics) throws PulsarAdminException, InterruptedException, IOException {
         List<AbstractPartition> partitions = new ArrayList<>();
         Topics topics = pulsarAdmin.topics();
 
@@ -69,7 +75,11 @@ public class TopicPatternSubscriber extends AbstractPulsarSubscriber {
                     (topic, topicMetadata) -> {
                         if (topicPattern.matcher(topic).matches()) {
                             int numPartitions = topicMetadata.partitions;
-                            Collection<Range> ranges = splitDivisionStrategy.getRanges(topic, pulsarAdmin, context);
+                            Collection<Range> ranges = splitDivisionStrategy.getRanges(
+                                    topic,
+                                    currentRangesOfTopics.getOrDefault(topic, Collections.emptySortedSet()),
+                                    pulsarAdmin,
+                                    context);
                             for (Range range : ranges) {
                                 if (numPartitions == 0) {
                                     partitions.add(new BrokerPartition(
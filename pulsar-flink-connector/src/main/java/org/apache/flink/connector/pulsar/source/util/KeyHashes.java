@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.util;
+
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
+
+import org.apache.flink.shaded.guava18.com.google.common.hash.Hashing;
+
+import org.apache.pulsar.client.api.Message;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The hashes of message keys that Key_Shared subscriptions assign to key ranges.
+ */
+public final class KeyHashes {
+
+    /** The size of the hash space of Key_Shared subscriptions. */
+    public static final int RANGE_SIZE = SerializableRange.fullRangeEnd + 1;
+
+    /** The sticky key of the brokers for messages without a key. */
+    private static final byte[] NONE_KEY = "NONE_KEY".getBytes(StandardCharsets.UTF_8);
+
+    private KeyHashes() {
+    }
+
+    /**
+     * Returns the hash of the sticky key of a message, its ordering key if it has one and its key
+     * otherwise, like the brokers compute it.
+     */
+    public static int hashOf(Message<?> message) {
+        if (message.hasOrderingKey()) {
+            return hashOf(message.getOrderingKey());
+        }
+        return hashOf(message.hasKey() ? message.getKeyBytes() : NONE_KEY);
+    }
+
+    /**
+     * Returns the hash of a key, the Murmur3 32-bit hash modulo the size of the hash space.
+     */
+    public static int hashOf(byte[] key) {
+        return (Hashing.murmur3_32().hashBytes(key).asInt() & Integer.MAX_VALUE) % RANGE_SIZE;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.util;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
+import org.apache.flink.util.Collector;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.impl.MessageImpl;
+import org.apache.pulsar.client.impl.TopicMessageImpl;
+import org.apache.pulsar.shade.io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Access to the payload of Pulsar messages without copying it.
+ */
+public final class MessagePayloads {
+
+    private MessagePayloads() {
+    }
+
+    /**
+     * Returns a read-only view of the payload of the message, or null if the message has no value.
+     * The view shares the memory of the received message whenever the client exposes it, otherwise
+     * it wraps {@link Message#getData()}.
+     */
+    public static ByteBuffer payload(Message<?> message) {
+        Message<?> actual = message;
+        while (actual instanceof TopicMessageImpl) {
+            actual = ((TopicMessageImpl<?>) actual).getMessage();
+        }
+        if (actual instanceof MessageImpl) {
+            ByteBuf buffer = ((MessageImpl<?>) actual).getDataBuffer();
+            if (buffer != null) {
+                return buffer.nioBuffer().asReadOnlyBuffer();
+            }
+        }
+        byte[] data = message.getData();
+        return data == null ? null : ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Deserializes the payload of the message with the given schema, straight from the message
+     * buffer if the schema supports it.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void deserialize(
+            DeserializationSchema<T> schema,
+            Message<?> message,
+            Collector<T> out) throws IOException {
+        if (schema instanceof ByteBufferDeserializationSchema) {
+            ((ByteBufferDeserializationSchema<T>) schema).deserialize(payload(message), out);
+        } else {
+            schema.deserialize(message.getData(), out);
+        }
+    }
+
+    /**
+     * Returns a stream over the remaining bytes of the buffer, which consumes the buffer.
+     */
+    public static InputStream asInputStream(ByteBuffer buffer) {
+        return new ByteBufferInputStream(buffer);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
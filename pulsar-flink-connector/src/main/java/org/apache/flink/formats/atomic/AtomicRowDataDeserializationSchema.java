@@ -14,8 +14,8 @@
 
 package org.apache.flink.formats.atomic;
 
-import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
 import org.apache.flink.streaming.connectors.pulsar.internal.IncompatibleSchemaException;
 import org.apache.flink.streaming.connectors.pulsar.internal.SimpleSchemaTranslator;
 import org.apache.flink.streaming.connectors.pulsar.util.RowDataUtil;
@@ -30,21 +30,26 @@ import org.apache.flink.table.types.utils.TypeConversions;
 import org.apache.flink.types.RowKind;
 
 import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.SchemaSerializationException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * rowDeserializationSchema for atomic type.
  */
-public class AtomicRowDataDeserializationSchema implements DeserializationSchema<RowData> {
+public class AtomicRowDataDeserializationSchema implements ByteBufferDeserializationSchema<RowData> {
     private static final long serialVersionUID = -228294330688809195L;
 
     private final String className;
     private final boolean useExtendFields;
     private final Class<?> clazz;
 
+    private transient Function<ByteBuffer, Object> decoder;
+
     public AtomicRowDataDeserializationSchema(String className, boolean useExtendFields) {
         this.className = className;
         this.useExtendFields = useExtendFields;
@@ -60,20 +65,85 @@ public class AtomicRowDataDeserializationSchema implements DeserializationSchema
     }
 
     @Override
-    public RowData deserialize(byte[] message) throws IOException {
+    public void open(InitializationContext context) throws Exception {
+        this.decoder = createDecoder();
+    }
+
+    @Override
+    public RowData deserialize(ByteBuffer message) throws IOException {
+        if (decoder == null) {
+            // the schema has not been opened, e.g. when used outside of a Flink source
+            decoder = createDecoder();
+        }
+        final GenericRowData rowData = new GenericRowData(RowKind.INSERT, 1);
+        RowDataUtil.setField(rowData, 0, message == null ? null : decoder.apply(message));
+        return rowData;
+    }
+
+    /**
+     * Resolves the decoder for {@link #clazz} once. Primitive types are decoded straight from the buffer
+     * in the same big-endian layout as the corresponding Pulsar schemas, other types are decoded with the
+     * Pulsar schema translated from the Flink data type.
+     */
+    private Function<ByteBuffer, Object> createDecoder() {
+        if (clazz == Byte.class) {
+            return buffer -> {
+                validateLength(buffer, Byte.BYTES);
+                return buffer.get(buffer.position());
+            };
+        } else if (clazz == Short.class) {
+            return buffer -> {
+                validateLength(buffer, Short.BYTES);
+                return buffer.getShort(buffer.position());
+            };
+        } else if (clazz == Integer.class) {
+            return buffer -> {
+                validateLength(buffer, Integer.BYTES);
+                return buffer.getInt(buffer.position());
+            };
+        } else if (clazz == Long.class) {
+            return buffer -> {
+                validateLength(buffer, Long.BYTES);
+                return buffer.getLong(buffer.position());
+            };
+        } else if (clazz == Float.class) {
+            return buffer -> {
+                validateLength(buffer, Float.BYTES);
+                return buffer.getFloat(buffer.position());
+            };
+        } else if (clazz == Double.class) {
+            return buffer -> {
+                validateLength(buffer, Double.BYTES);
+                return buffer.getDouble(buffer.position());
+            };
+        } else if (clazz == Boolean.class) {
+            return buffer -> {
+                validateLength(buffer, 1);
+                return buffer.get(buffer.position()) != 0;
+            };
+        }
+
         DataType dataType = TypeConversions.fromClassToDataType(clazz).
                 orElseThrow(() -> new IllegalStateException(clazz.getCanonicalName() + "cant cast to flink dataType"));
         try {
-            Schema schema = SimpleSchemaTranslator.sqlType2PulsarSchema(dataType);
-            Object data = schema.decode(message);
-            final GenericRowData rowData = new GenericRowData(RowKind.INSERT, 1);
-            RowDataUtil.setField(rowData, 0, data);
-            return rowData;
+            Schema<?> schema = SimpleSchemaTranslator.sqlType2PulsarSchema(dataType);
+            return buffer -> {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                return schema.decode(bytes);
+            };
         } catch (IncompatibleSchemaException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static void validateLength(ByteBuffer buffer, int expected) {
+        if (buffer.remaining() != expected) {
+            throw new SchemaSerializationException("Size of data received by atomic deserializer: expected "
+                    + expected + " bytes but got " + buffer.remaining());
+        }
+    }
+
     @Override
     public boolean isEndOfStream(RowData nextElement) {
         return false;
@@ -14,21 +14,23 @@
 
 package org.apache.flink.formats.protobufnative;
 
-import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.util.function.SerializableSupplier;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @Slf4j
-public class PulsarProtobufNativeRowDataDeserializationSchema implements DeserializationSchema<RowData> {
+public class PulsarProtobufNativeRowDataDeserializationSchema implements ByteBufferDeserializationSchema<RowData> {
 
     private SerializableSupplier<Descriptors.Descriptor> loadDescriptor;
     private RowType rowType;
@@ -54,12 +56,12 @@ public class PulsarProtobufNativeRowDataDeserializationSchema implements Deseria
     }
 
     @Override
-    public RowData deserialize(byte[] message) throws IOException {
+    public RowData deserialize(ByteBuffer message) throws IOException {
         if (message == null) {
             return null;
         }
         try {
-            DynamicMessage deserialize = DynamicMessage.parseFrom(descriptor, message);
+            DynamicMessage deserialize = DynamicMessage.parseFrom(descriptor, CodedInputStream.newInstance(message));
             return (RowData) runtimeConverter.convert(deserialize);
         } catch (Exception e) {
             throw new IOException("Failed to deserialize ProtobufNative record.", e);
@@ -22,11 +22,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.MessageRouter;
 import org.apache.pulsar.client.api.TypedMessageBuilder;
-import org.apache.pulsar.client.api.transaction.TxnID;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
@@ -111,13 +108,8 @@ public class FlinkPulsarSink<T> extends FlinkPulsarSinkBase<T> {
 
         CompletableFuture<MessageId> messageIdFuture = mb.sendAsync();
         if (transactionState.isTransactional()) {
-            // in transactional mode, we must sleep some time because pulsar have some bug can result data disorder.
-            // if pulsar-client fix this bug, we can safely remove this.
-            Thread.sleep(10);
-            TxnID transactionalId = transactionState.transactionalId;
-            List<CompletableFuture<MessageId>> futureList;
-            tid2FuturesMap.computeIfAbsent(transactionalId, key -> new ArrayList<>())
-                    .add(messageIdFuture);
+            // the sends of a producer are acknowledged in order, preCommit waits for all of them.
+            tid2InFlightMessages.get(transactionState.transactionalId).track(messageIdFuture);
             log.debug("message {} is invoke in txn {}", value, transactionState.transactionalId);
         }
         messageIdFuture.whenComplete(sendCallback);
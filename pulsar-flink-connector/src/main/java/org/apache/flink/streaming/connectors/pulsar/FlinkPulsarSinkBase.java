@@ -24,6 +24,9 @@ import org.apache.flink.api.common.typeutils.base.VoidSerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.state.FunctionInitializationContext;
 import org.apache.flink.runtime.state.FunctionSnapshotContext;
 import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
@@ -71,6 +74,11 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.FLUSHES_FAILED_METRICS_COUNTER;
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.FLUSHES_SUCCEEDED_METRICS_COUNTER;
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.LAST_FLUSH_DURATION_METRICS_GAUGE;
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.PENDING_RECORDS_METRICS_GAUGE;
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.PULSAR_SINK_METRICS_GROUP;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -103,6 +111,8 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
 
     protected long maxBlockTimeMs;
 
+    protected int transactionPoolSize;
+
     protected int sendTimeOutMs;
 
     /**
@@ -117,7 +127,7 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
 
     protected ConcurrentHashMap<TxnID, List<MessageId>> tid2MessagesMap;
 
-    protected ConcurrentHashMap<TxnID, List<CompletableFuture<MessageId>>> tid2FuturesMap;
+    protected ConcurrentHashMap<TxnID, InFlightMessages> tid2InFlightMessages;
 
     protected final boolean forcedTopic;
 
@@ -131,6 +141,12 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
 
     protected transient PulsarAdmin admin;
 
+    /** The shared client of {@link #clientConfigurationData}, acquired on first use and released on close. */
+    private transient PulsarClientImpl pulsarClient;
+
+    /** Transactions opened ahead of time in EXACTLY_ONCE mode, if a transaction pool size is set. */
+    private transient TransactionPool transactionPool;
+
     protected transient BiConsumer<MessageId, Throwable> sendCallback;
 
     /**
@@ -142,6 +158,13 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
 
     protected transient Map<String, Producer<T>> topic2Producer;
 
+    /** Duration of the last flush on checkpoint, exposed as a gauge. */
+    protected transient volatile long lastFlushDurationMs;
+
+    protected transient Counter flushesSucceeded;
+
+    protected transient Counter flushesFailed;
+
     public FlinkPulsarSinkBase(
             String adminUrl,
             Optional<String> defaultTopicName,
@@ -199,6 +222,9 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         this.maxBlockTimeMs =
                 SourceSinkUtils.getMaxBlockTimeMs(caseInsensitiveParams);
 
+        this.transactionPoolSize =
+                SourceSinkUtils.getTransactionPoolSize(caseInsensitiveParams);
+
         this.sendTimeOutMs =
                 SourceSinkUtils.getSendTimeoutMs(caseInsensitiveParams);
 
@@ -207,7 +233,7 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
             // in transactional mode, must set producer sendTimeout to 0;
             this.sendTimeOutMs = 0;
             this.tid2MessagesMap = new ConcurrentHashMap<>();
-            this.tid2FuturesMap = new ConcurrentHashMap<>();
+            this.tid2InFlightMessages = new ConcurrentHashMap<>();
             clientConfigurationData.setEnableTransaction(true);
         }
         if (this.clientConfigurationData.getServiceUrl() == null) {
@@ -253,6 +279,8 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
             flushOnCheckpoint = false;
         }
 
+        registerMetrics(getRuntimeContext().getMetricGroup());
+
         admin = PulsarClientUtils.newAdminFromConf(adminUrl, clientConfigurationData);
 
         serializationSchema.open(
@@ -263,14 +291,25 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         );
 
         if (forcedTopic) {
-            singleProducer = createProducer(clientConfigurationData, producerConf, defaultTopic,
-                    serializationSchema.getSchema());
+            singleProducer = createProducer(producerConf, defaultTopic, serializationSchema.getSchema());
         } else {
             topic2Producer = new HashMap<>();
         }
        //super.open(parameters);
     }
 
+    protected void registerMetrics(MetricGroup metricGroup) {
+        final MetricGroup sinkMetricGroup = metricGroup.addGroup(PULSAR_SINK_METRICS_GROUP);
+        flushesSucceeded = sinkMetricGroup.counter(FLUSHES_SUCCEEDED_METRICS_COUNTER);
+        flushesFailed = sinkMetricGroup.counter(FLUSHES_FAILED_METRICS_COUNTER);
+        sinkMetricGroup.gauge(LAST_FLUSH_DURATION_METRICS_GAUGE, (Gauge<Long>) () -> lastFlushDurationMs);
+        sinkMetricGroup.gauge(PENDING_RECORDS_METRICS_GAUGE, (Gauge<Long>) () -> {
+            synchronized (pendingRecordsLock) {
+                return pendingRecords;
+            }
+        });
+    }
+
     protected void initializeSendCallback() {
         if (sendCallback != null) {
             return;
@@ -298,9 +337,20 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
 
     @Override
     public void close() throws Exception {
-        checkErroneous();
-        producerClose();
-        checkErroneous();
+        try {
+            checkErroneous();
+            producerClose();
+            checkErroneous();
+        } finally {
+            try {
+                if (transactionPool != null) {
+                    transactionPool.close();
+                    transactionPool = null;
+                }
+            } finally {
+                releasePulsarClient();
+            }
+        }
     }
 
     protected Producer<T> getProducer(String topic) {
@@ -311,21 +361,19 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         if (topic2Producer.containsKey(topic)) {
             return topic2Producer.get(topic);
         } else {
-            Producer<T> p = createProducer(clientConfigurationData, producerConf, topic, serializationSchema.getSchema());
+            Producer<T> p = createProducer(producerConf, topic, serializationSchema.getSchema());
             topic2Producer.put(topic, p);
             return p;
         }
     }
 
     protected Producer<T> createProducer(
-            ClientConfigurationData clientConf,
             Map<String, Object> producerConf,
             String topic,
             Schema<T> schema) {
 
         try {
-            ProducerBuilder<T> builder = CachedPulsarClient
-                    .getOrCreate(clientConf)
+            ProducerBuilder<T> builder = getPulsarClient()
                     .newProducer(schema)
                     .topic(topic)
                     .sendTimeout(sendTimeOutMs, TimeUnit.MILLISECONDS)
@@ -346,34 +394,58 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         }
     }
 
+    /**
+     * Flushes the producers and records the outcome and duration of the flush in the sink metrics.
+     */
+    private void flush(PulsarTransactionState<T> transaction) throws Exception {
+        final long flushStart = System.nanoTime();
+        try {
+            producerFlush(transaction);
+        } catch (Exception e) {
+            if (flushesFailed != null) {
+                flushesFailed.inc();
+            }
+            throw e;
+        }
+        lastFlushDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - flushStart);
+        if (flushesSucceeded != null) {
+            flushesSucceeded.inc();
+        }
+    }
+
+    /**
+     * Flushes all producers in parallel and waits for the slowest of them, together with the
+     * acknowledgements of the transaction's sends.
+     */
     public void producerFlush(PulsarTransactionState<T> transaction) throws Exception {
+        List<CompletableFuture<?>> flushes = new ArrayList<>();
         if (singleProducer != null) {
-            singleProducer.flush();
+            flushes.add(singleProducer.flushAsync());
         } else {
             if (topic2Producer != null) {
                 for (Producer<?> p : topic2Producer.values()) {
-                    p.flush();
+                    flushes.add(p.flushAsync());
                 }
             }
         }
 
         if (transaction.isTransactional()) {
-            // we check the future was completed and add the messageId to list for persistence.
-            List<CompletableFuture<MessageId>> futureList = tid2FuturesMap.get(transaction.transactionalId);
-            for (CompletableFuture<MessageId> future : futureList) {
-                try {
-                    MessageId messageId = future.get();
-                    TxnID transactionalId = transaction.transactionalId;
-                    tid2MessagesMap.computeIfAbsent(transactionalId, key -> new ArrayList<>()).add(messageId);
-                    log.debug("transaction {} add the message {} to messageIdLIst", transactionalId, messageId);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                } catch (ExecutionException e) {
-                    throw new RuntimeException(e);
-                }
+            // all sends of the transaction must be acknowledged, their ids are persisted with the state.
+            InFlightMessages inFlightMessages = tid2InFlightMessages.remove(transaction.transactionalId);
+            if (inFlightMessages != null) {
+                flushes.add(inFlightMessages.seal().thenAccept(messageIds ->
+                        log.debug("transaction {} has {} acknowledged messages", transaction.transactionalId, messageIds.size())));
             }
         }
 
+        try {
+            CompletableFuture.allOf(flushes.toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Flushing got interrupted while checkpointing", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
         synchronized (pendingRecordsLock) {
             while (pendingRecords > 0) {
                 try {
@@ -395,9 +467,13 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
      * with transactions created during previous checkpoints.
      */
     private Transaction createTransaction() throws Exception {
-        PulsarClientImpl client = CachedPulsarClient.getOrCreate(clientConfigurationData);
-        Thread.sleep(100);
-        Transaction transaction = client
+        if (transactionPoolSize > 0) {
+            if (transactionPool == null) {
+                transactionPool = new TransactionPool(getPulsarClient(), transactionPoolSize, transactionTimeout, maxBlockTimeMs);
+            }
+            return transactionPool.take();
+        }
+        Transaction transaction = getPulsarClient()
                 .newTransaction()
                 .withTransactionTimeout(transactionTimeout, TimeUnit.MILLISECONDS)
                 .build()
@@ -414,8 +490,8 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
                 long txnIdLeastBits = ((TransactionImpl) transaction).getTxnIdLeastBits();
                 long txnIdMostBits = ((TransactionImpl) transaction).getTxnIdMostBits();
                 TxnID txnID = new TxnID(txnIdMostBits, txnIdLeastBits);
-                tid2MessagesMap.computeIfAbsent(txnID, key -> new ArrayList<>());
-                tid2FuturesMap.computeIfAbsent(txnID, key -> new ArrayList<>());
+                List<MessageId> pendingMessages = tid2MessagesMap.computeIfAbsent(txnID, key -> new ArrayList<>());
+                tid2InFlightMessages.computeIfAbsent(txnID, key -> new InFlightMessages(pendingMessages));
                 return new PulsarTransactionState<T>(
                         new TxnID(txnIdMostBits, txnIdLeastBits),
                         transaction,
@@ -441,7 +517,7 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         switch (semantic) {
             case EXACTLY_ONCE:
             case AT_LEAST_ONCE:
-                producerFlush(transaction);
+                flush(transaction);
                 break;
             case NONE:
                 break;
@@ -474,6 +550,8 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
     @Override
     protected void abort(PulsarTransactionState<T> transactionState) {
         if (transactionState.isTransactional()) {
+            tid2InFlightMessages.remove(transactionState.transactionalId);
+            tid2MessagesMap.remove(transactionState.transactionalId);
             CompletableFuture<Void> future = transactionState.transaction.abort();
             log.debug("transaction {} is aborting", transactionState.transactionalId.toString());
             try {
@@ -490,7 +568,7 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         if (transaction.isTransactional()) {
             try {
                 log.debug("transaction {} is recoverAndCommit...", transaction.transactionalId);
-                TransactionCoordinatorClientImpl tcClient = CachedPulsarClient.getOrCreate(clientConfigurationData).getTcClient();
+                TransactionCoordinatorClientImpl tcClient = getPulsarClient().getTcClient();
                 TxnID transactionalId = transaction.transactionalId;
                 tcClient.commit(transactionalId);
             } catch (PulsarClientException executionException) {
@@ -513,7 +591,7 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         if (transaction.isTransactional()) {
             try {
                 log.debug("transaction {} is recoverAndAbort...", transaction.transactionalId);
-                TransactionCoordinatorClientImpl tcClient = CachedPulsarClient.getOrCreate(clientConfigurationData).getTcClient();
+                TransactionCoordinatorClientImpl tcClient = getPulsarClient().getTcClient();
                 TxnID transactionalId = transaction.transactionalId;
                 tcClient.abort(transactionalId);
             } catch (PulsarClientException executionException) {
@@ -531,8 +609,26 @@ abstract class FlinkPulsarSinkBase<T> extends TwoPhaseCommitSinkFunction<T, Flin
         }
     }
 
+    /**
+     * Returns the client shared with the other tasks of this process. Transactions may be recovered
+     * in {@link #initializeState} before {@link #open}, so the client is acquired lazily.
+     */
+    protected PulsarClientImpl getPulsarClient() throws PulsarClientException {
+        if (pulsarClient == null) {
+            pulsarClient = CachedPulsarClient.getOrCreate(clientConfigurationData);
+        }
+        return pulsarClient;
+    }
+
+    private void releasePulsarClient() {
+        if (pulsarClient != null) {
+            pulsarClient = null;
+            CachedPulsarClient.release(clientConfigurationData);
+        }
+    }
+
     protected void producerClose() throws Exception {
-        producerFlush(currentTransaction());
+        flush(currentTransaction());
         if (admin != null) {
             admin.close();
         }
@@ -143,6 +143,9 @@ public class FlinkPulsarSource<T>
 
     protected final int commitMaxRetries;
 
+    /** Number of threads multiplexing all readers of a subtask, non-positive for a thread per topic range. */
+    protected final int readerPoolSize;
+
     /** The startup mode for the reader (default is {@link StartupMode#LATEST}). */
     private StartupMode startupMode = StartupMode.LATEST;
 
@@ -248,6 +251,8 @@ public class FlinkPulsarSource<T>
                 SourceSinkUtils.getPollTimeoutMs(caseInsensitiveParams);
         this.commitMaxRetries =
                 SourceSinkUtils.getCommitMaxRetries(caseInsensitiveParams);
+        this.readerPoolSize =
+                SourceSinkUtils.getReaderPoolSize(caseInsensitiveParams);
         this.useMetrics =
                 SourceSinkUtils.getUseMetrics(caseInsensitiveParams);
 
@@ -611,6 +616,7 @@ public class FlinkPulsarSource<T>
                 readerConf,
                 pollTimeoutMs,
                 commitMaxRetries,
+                readerPoolSize,
                 deserializer,
                 metadataReader,
                 streamingRuntime.getMetricGroup().addGroup(PULSAR_SOURCE_METRICS_GROUP),
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar;
+
+import org.apache.pulsar.client.api.MessageId;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The sends of a transaction that have not been acknowledged yet.
+ *
+ * <p>Only a counter is kept per transaction, the message id of every acknowledged send is appended
+ * to the pending messages of the transaction, so records are written without waiting for their
+ * sends and the transaction only waits for them once it is sealed before the commit.
+ */
+class InFlightMessages {
+
+    private final List<MessageId> messageIds;
+
+    private final CompletableFuture<List<MessageId>> allAcknowledged = new CompletableFuture<>();
+
+    private int inFlight;
+
+    private boolean sealed;
+
+    private Throwable failure;
+
+    InFlightMessages(List<MessageId> messageIds) {
+        this.messageIds = messageIds;
+    }
+
+    /**
+     * Tracks a send of the transaction, must not be called after {@link #seal()}.
+     */
+    void track(CompletableFuture<MessageId> sendFuture) {
+        synchronized (this) {
+            checkState(!sealed, "Transaction has already been sealed");
+            inFlight++;
+        }
+        sendFuture.whenComplete(this::acknowledge);
+    }
+
+    /**
+     * Stops accepting sends and returns a future that completes with the message ids of the
+     * transaction once all tracked sends are acknowledged, or with the first send failure.
+     */
+    CompletableFuture<List<MessageId>> seal() {
+        synchronized (this) {
+            sealed = true;
+        }
+        completeIfDone();
+        return allAcknowledged;
+    }
+
+    synchronized int getNumInFlight() {
+        return inFlight;
+    }
+
+    private void acknowledge(MessageId messageId, Throwable error) {
+        synchronized (this) {
+            if (error != null) {
+                if (failure == null) {
+                    failure = error;
+                }
+            } else {
+                messageIds.add(messageId);
+            }
+            inFlight--;
+        }
+        completeIfDone();
+    }
+
+    private void completeIfDone() {
+        Throwable error;
+        synchronized (this) {
+            if (!sealed || inFlight > 0) {
+                return;
+            }
+            error = failure;
+        }
+        if (error != null) {
+            allAcknowledged.completeExceptionally(error);
+        } else {
+            allAcknowledged.complete(messageIds);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar;
+
+import org.apache.flink.util.FlinkRuntimeException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.transaction.Transaction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps a number of transactions opened ahead of time with the transaction coordinator, so that
+ * starting the transaction of a checkpoint does not wait for a coordinator round-trip.
+ *
+ * <p>Every taken transaction is replaced by a new one opened asynchronously. Transactions that have
+ * been waiting in the pool for more than half of the transaction timeout are aborted instead of
+ * being handed out, and all transactions left in the pool are aborted on close.
+ *
+ * <p>The timeout of a transaction starts when it is opened, not when it is taken. A taken transaction
+ * has to stay open for a whole checkpoint interval plus the time until the checkpoint is committed,
+ * which the configured transaction timeout is sized for. Handing out only transactions with at least
+ * half of their timeout left keeps them from being aborted by the coordinator before they are
+ * committed, while still letting a pooled transaction wait for the next checkpoint.
+ */
+@Slf4j
+class TransactionPool implements AutoCloseable {
+
+    private final PulsarClient client;
+
+    private final int size;
+
+    private final long transactionTimeoutMs;
+
+    private final long maxBlockTimeMs;
+
+    /** Guarded by this. */
+    private final Deque<PooledTransaction> pool = new ArrayDeque<>();
+
+    /** Guarded by this. */
+    private boolean closed;
+
+    TransactionPool(PulsarClient client, int size, long transactionTimeoutMs, long maxBlockTimeMs) {
+        this.client = client;
+        this.size = size;
+        this.transactionTimeoutMs = transactionTimeoutMs;
+        this.maxBlockTimeMs = maxBlockTimeMs;
+        for (int i = 0; i < size; i++) {
+            refill();
+        }
+    }
+
+    /**
+     * Takes a pre-opened transaction, opening one synchronously if none of the pooled transactions
+     * can be used.
+     *
+     * @throws FlinkRuntimeException if the transaction is not opened within the max block time
+     */
+    Transaction take() throws Exception {
+        for (int attempt = 0; attempt < size; attempt++) {
+            PooledTransaction pooled;
+            synchronized (this) {
+                pooled = pool.poll();
+            }
+            if (pooled == null) {
+                break;
+            }
+            refill();
+            try {
+                Transaction transaction = awaitOpened(pooled.transaction);
+                if (System.currentTimeMillis() - pooled.openedAt < transactionTimeoutMs / 2) {
+                    return transaction;
+                }
+                log.info("Aborting pre-opened transaction {} that is close to its timeout", transaction);
+                transaction.abort();
+            } catch (ExecutionException e) {
+                log.warn("Failed to pre-open a transaction", e.getCause());
+            }
+        }
+        return awaitOpened(open());
+    }
+
+    /**
+     * Waits at most the max block time for a transaction to be opened. A transaction that is opened
+     * later is aborted, as it would otherwise stay open until its timeout.
+     */
+    private Transaction awaitOpened(CompletableFuture<Transaction> transaction) throws Exception {
+        try {
+            return transaction.get(maxBlockTimeMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            transaction.thenCompose(Transaction::abort);
+            throw new FlinkRuntimeException(
+                    "Timed out after " + maxBlockTimeMs + " ms waiting for the transaction coordinator to open a transaction", e);
+        }
+    }
+
+    synchronized int getNumPooled() {
+        return pool.size();
+    }
+
+    /**
+     * Aborts all transactions left in the pool, waiting at most the max block time for them.
+     */
+    @Override
+    public void close() throws Exception {
+        List<CompletableFuture<Void>> aborts = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (PooledTransaction pooled : pool) {
+                aborts.add(pooled.transaction.thenCompose(Transaction::abort));
+            }
+            pool.clear();
+        }
+        try {
+            CompletableFuture.allOf(aborts.toArray(new CompletableFuture[0]))
+                    .get(maxBlockTimeMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            log.warn("Failed to abort unused pre-opened transactions", e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("Timed out after {} ms aborting unused pre-opened transactions", maxBlockTimeMs);
+        }
+    }
+
+    private void refill() {
+        synchronized (this) {
+            if (!closed) {
+                pool.add(new PooledTransaction(open(), System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private CompletableFuture<Transaction> open() {
+        try {
+            return client.newTransaction()
+                    .withTransactionTimeout(transactionTimeoutMs, TimeUnit.MILLISECONDS)
+                    .build();
+        } catch (PulsarClientException e) {
+            CompletableFuture<Transaction> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static class PooledTransaction {
+
+        private final CompletableFuture<Transaction> transaction;
+
+        private final long openedAt;
+
+        PooledTransaction(CompletableFuture<Transaction> transaction, long openedAt) {
+            this.transaction = transaction;
+            this.openedAt = openedAt;
+        }
+    }
+}
@@ -15,10 +15,10 @@
 package org.apache.flink.streaming.connectors.pulsar.internal;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.util.StringUtils;
 
 import org.apache.flink.shaded.guava18.com.google.common.cache.Cache;
 import org.apache.flink.shaded.guava18.com.google.common.cache.CacheBuilder;
-import org.apache.flink.shaded.guava18.com.google.common.cache.RemovalListener;
 
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
@@ -28,10 +28,24 @@ import org.apache.pulsar.client.impl.PulsarClientImpl;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 import org.apache.pulsar.shade.com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Enable the sharing of same PulsarClient among tasks in a same process.
+ *
+ * <p>Clients are keyed by a fingerprint of their configuration, which is computed once per
+ * configuration instance, so the configuration must not be modified after its first lookup.
+ * Every {@link #getOrCreate(ClientConfigurationData)} takes a reference on the shared client
+ * and must be paired with a {@link #release(ClientConfigurationData)}; the client is closed
+ * when its last reference is released.
  */
 @Slf4j
 @UtilityClass
@@ -41,6 +55,10 @@ public class CachedPulsarClient {
 
     private static int cacheSize = 100;
 
+    /**
+     * Clients are closed by their last user instead of being evicted, the cache size is only the number
+     * of distinct clients above which a warning is logged.
+     */
     public static void setCacheSize(int newSize) {
         cacheSize = newSize;
     }
@@ -49,19 +67,13 @@ public class CachedPulsarClient {
         return cacheSize;
     }
 
-    private static final RemovalListener<String, PulsarClientImpl> removalListener = notification -> {
-        String config = notification.getKey();
-        PulsarClientImpl client = notification.getValue();
-        log.debug("Evicting pulsar client {} with config {}, due to {}", client, config, notification.getCause());
-
-        close(config, client);
-    };
-
-    private static final Cache<String, PulsarClientImpl> clientCache = CacheBuilder.newBuilder()
-        .maximumSize(cacheSize)
-        .removalListener(removalListener)
+    /** Fingerprints of the configurations seen so far, weakly keyed by configuration identity. */
+    private static final Cache<ClientConfigurationData, String> fingerprints = CacheBuilder.newBuilder()
+        .weakKeys()
         .build();
 
+    private static final ConcurrentHashMap<String, SharedClient> clients = new ConcurrentHashMap<>();
+
     private static PulsarClientImpl createPulsarClient(ClientConfigurationData clientConfig) throws PulsarClientException {
         PulsarClientImpl client;
         try {
@@ -74,16 +86,64 @@ public class CachedPulsarClient {
         return client;
     }
 
-    public static synchronized PulsarClientImpl getOrCreate(ClientConfigurationData config) throws PulsarClientException {
-        String key = serializeKey(config);
-        PulsarClientImpl client = clientCache.getIfPresent(key);
+    /**
+     * Returns the client shared by all users of an equal configuration and takes a reference on it.
+     * The client is created outside of the lock of the map, so lookups never block each other while
+     * a client connects; concurrent lookups of the same configuration wait for its creation.
+     */
+    public static PulsarClientImpl getOrCreate(ClientConfigurationData config) throws PulsarClientException {
+        String key = fingerprint(config);
+        AtomicReference<SharedClient> created = new AtomicReference<>();
+        SharedClient shared = clients.compute(key, (k, current) -> {
+            if (current == null) {
+                if (clients.size() >= cacheSize) {
+                    log.warn("More than {} distinct Pulsar clients are in use in this process", cacheSize);
+                }
+                current = new SharedClient();
+                created.set(current);
+            }
+            current.references++;
+            return current;
+        });
+        if (created.get() != null) {
+            try {
+                shared.client.complete(createPulsarClient(config));
+            } catch (PulsarClientException | RuntimeException e) {
+                // the next lookup tries again, the lookups waiting for this client fail as well
+                clients.remove(key, shared);
+                shared.client.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return shared.client.join();
+        } catch (CompletionException e) {
+            throw PulsarClientException.unwrap(e.getCause());
+        }
+    }
 
-        if (client == null) {
-            client = createPulsarClient(config);
-            clientCache.put(key, client);
+    /**
+     * Releases a reference taken by {@link #getOrCreate(ClientConfigurationData)}, closing the client
+     * once nobody uses it any more.
+     */
+    public static void release(ClientConfigurationData config) {
+        String key = fingerprint(config);
+        AtomicReference<SharedClient> unused = new AtomicReference<>();
+        clients.computeIfPresent(key, (k, shared) -> {
+            if (--shared.references > 0) {
+                return shared;
+            }
+            unused.set(shared);
+            return null;
+        });
+        if (unused.get() != null) {
+            closeWhenCreated(key, unused.get());
         }
+    }
 
-        return client;
+    private static void closeWhenCreated(String clientConfig, SharedClient shared) {
+        // a client that is still being created is closed once it exists
+        shared.client.thenAccept(client -> close(clientConfig, client));
     }
 
     private static void close(String clientConfig, PulsarClientImpl client) {
@@ -97,25 +157,68 @@ public class CachedPulsarClient {
         }
     }
 
+    private static String fingerprint(ClientConfigurationData clientConfig) {
+        String fingerprint = fingerprints.getIfPresent(clientConfig);
+        if (fingerprint == null) {
+            fingerprint = computeFingerprint(clientConfig);
+            fingerprints.put(clientConfig, fingerprint);
+        }
+        return fingerprint;
+    }
+
     @SneakyThrows
-    private String serializeKey(ClientConfigurationData clientConfig) {
-        return mapper.writeValueAsString(clientConfig);
+    private static String computeFingerprint(ClientConfigurationData clientConfig) {
+        byte[] serialized = mapper.writeValueAsBytes(clientConfig);
+        return StringUtils.byteToHexString(MessageDigest.getInstance("SHA-256").digest(serialized));
     }
 
     @VisibleForTesting
     static void close(ClientConfigurationData clientConfig) {
-        String key = serializeKey(clientConfig);
-        clientCache.invalidate(key);
+        String key = fingerprint(clientConfig);
+        SharedClient shared = clients.remove(key);
+        if (shared != null) {
+            closeWhenCreated(key, shared);
+        }
     }
 
     @VisibleForTesting
     static void clear() {
-        log.info("Cleaning up guava cache.");
-        clientCache.invalidateAll();
+        log.info("Closing all cached Pulsar clients.");
+        List<String> keys = new ArrayList<>(clients.keySet());
+        for (String key : keys) {
+            SharedClient shared = clients.remove(key);
+            if (shared != null) {
+                closeWhenCreated(key, shared);
+            }
+        }
     }
 
     @VisibleForTesting
     static ConcurrentMap<String, PulsarClientImpl> getAsMap() {
-        return clientCache.asMap();
+        ConcurrentMap<String, PulsarClientImpl> map = new ConcurrentHashMap<>();
+        for (Map.Entry<String, SharedClient> entry : clients.entrySet()) {
+            CompletableFuture<PulsarClientImpl> client = entry.getValue().client;
+            if (client.isDone() && !client.isCompletedExceptionally()) {
+                map.put(entry.getKey(), client.join());
+            }
+        }
+        return map;
+    }
+
+    @VisibleForTesting
+    static int getReferenceCount(ClientConfigurationData clientConfig) {
+        SharedClient shared = clients.get(fingerprint(clientConfig));
+        return shared == null ? 0 : shared.references;
+    }
+
+    /**
+     * A client together with the number of its users. The client is completed by the lookup that
+     * created the entry, the references are only modified inside map compute functions.
+     */
+    private static final class SharedClient {
+
+        private final CompletableFuture<PulsarClientImpl> client = new CompletableFuture<>();
+
+        private int references;
     }
 }
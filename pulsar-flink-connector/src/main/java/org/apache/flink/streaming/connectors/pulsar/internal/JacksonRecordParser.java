@@ -14,6 +14,7 @@
 
 package org.apache.flink.streaming.connectors.pulsar.internal;
 
+import org.apache.flink.connector.pulsar.source.util.MessagePayloads;
 import org.apache.flink.table.types.DataType;
 import org.apache.flink.table.types.FieldsDataType;
 import org.apache.flink.table.types.logical.LogicalType;
@@ -32,6 +33,7 @@ import org.apache.pulsar.shade.com.fasterxml.jackson.core.JsonToken;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.time.ZoneId;
@@ -106,22 +108,38 @@ public class JacksonRecordParser {
 
     public Row parse(String record, BiFunction<JsonFactory, String, JsonParser> createParser, Row row) throws BadRecordException {
         try (JsonParser parser = createParser.apply(factory, record)) {
-            JsonToken token = parser.nextToken();
-            if (token == null) {
-                return new Row(0);
-            } else {
-                Row result = rootConverter.apply(parser, row);
-                if (result == null) {
-                    throw new RuntimeException("Root converter returned null");
-                } else {
-                    return result;
-                }
-            }
+            return parse(parser, row);
         } catch (Exception e) {
             throw new BadRecordException(record, e);
         }
     }
 
+    /**
+     * Parses the UTF-8 encoded JSON between the position and the limit of the buffer, without
+     * decoding it into a String first. The position of the buffer is left unchanged.
+     */
+    public Row parse(ByteBuffer record, Row row) throws BadRecordException {
+        try (JsonParser parser = factory.createParser(MessagePayloads.asInputStream(record.duplicate()))) {
+            return parse(parser, row);
+        } catch (Exception e) {
+            throw new BadRecordException(StandardCharsets.UTF_8.decode(record.duplicate()).toString(), e);
+        }
+    }
+
+    private Row parse(JsonParser parser, Row row) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return new Row(0);
+        } else {
+            Row result = rootConverter.apply(parser, row);
+            if (result == null) {
+                throw new RuntimeException("Root converter returned null");
+            } else {
+                return result;
+            }
+        }
+    }
+
     private Row convertObject(JsonParser parser, FieldsDataType fdt, List<Function<JsonParser, Object>> fieldConverters, Row row) throws IOException {
 
         RowType rowType = (RowType) fdt.getLogicalType();
@@ -587,18 +605,18 @@ public class JacksonRecordParser {
         R apply(T t, U u) throws BadRecordException;
     }
 
-    static class FailureSafeRecordParser {
-        private final BiFunctionWithException<String, Row, Row> rawParser;
+    static class FailureSafeRecordParser<T> {
+        private final BiFunctionWithException<T, Row, Row> rawParser;
         private final ParseMode mode;
         private final FieldsDataType schema;
 
-        FailureSafeRecordParser(BiFunctionWithException<String, Row, Row> rawParser, ParseMode mode, FieldsDataType schema) {
+        FailureSafeRecordParser(BiFunctionWithException<T, Row, Row> rawParser, ParseMode mode, FieldsDataType schema) {
             this.rawParser = rawParser;
             this.mode = mode;
             this.schema = schema;
         }
 
-        Row parse(String input, Row row) {
+        Row parse(T input, Row row) {
             try {
                 return rawParser.apply(input, row);
             } catch (BadRecordException e) {
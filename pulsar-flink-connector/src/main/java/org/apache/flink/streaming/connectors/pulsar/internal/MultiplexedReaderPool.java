@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.internal;
+
+import org.apache.flink.annotation.VisibleForTesting;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.client.api.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A bounded pool of poller threads that multiplexes many Pulsar readers.
+ *
+ * <p>Instead of running one blocking {@link ReaderThread} per {@link TopicRange}, each assigned
+ * reader is driven through {@code readNextAsync()} by one of a fixed number of poller threads.
+ * The poller only wakes up for completed reads, so the thread count stays flat no matter how many
+ * partitions a subtask owns. The {@link ReaderThread} instances are used as per-partition reader
+ * handles and are never started.
+ *
+ * @param <T> the record type that read from each Pulsar message.
+ */
+@Slf4j
+public class MultiplexedReaderPool<T> {
+
+    /** Interval to re-check the running flag while a poller has nothing to do. */
+    private static final long IDLE_WAIT_MS = 100;
+
+    private final List<PollerThread<T>> pollers;
+
+    private final Map<TopicRange, ReaderThread<T>> readers = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public MultiplexedReaderPool(int poolSize, String taskName) {
+        checkArgument(poolSize > 0, "The reader pool size must be positive");
+        this.pollers = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            PollerThread<T> poller = new PollerThread<>(this);
+            poller.setName(String.format("Pulsar Reader Pool-%d in task %s", i, taskName));
+            poller.setDaemon(true);
+            pollers.add(poller);
+        }
+    }
+
+    public void start() {
+        for (PollerThread<T> poller : pollers) {
+            poller.start();
+            log.info("Starting Thread {}", poller.getName());
+        }
+    }
+
+    /**
+     * Hands the readers over to the least loaded pollers. The readers are opened asynchronously
+     * on the poller thread, failures are reported through the reader's {@link ExceptionProxy}.
+     */
+    public void addReaders(List<ReaderThread<T>> newReaders) {
+        for (ReaderThread<T> reader : newReaders) {
+            PollerThread<T> target = pollers.get(0);
+            for (PollerThread<T> poller : pollers) {
+                if (poller.numReaders.get() < target.numReaders.get()) {
+                    target = poller;
+                }
+            }
+            target.numReaders.incrementAndGet();
+            readers.put(reader.topicRange, reader);
+            target.events.add(new ReaderEvent<>(reader, null, null));
+        }
+    }
+
+    /** Returns the number of readers that have not reached the end of their stream yet. */
+    public int getNumActiveReaders() {
+        return (int) readers.values().stream().filter(ReaderThread::isRunning).count();
+    }
+
+    /** Returns the number of readers every poller drives. */
+    @VisibleForTesting
+    int[] getNumReadersPerPoller() {
+        return pollers.stream().mapToInt(poller -> poller.numReaders.get()).toArray();
+    }
+
+    /**
+     * Releases the slot of a reader that finished or failed, so that the poller can take new readers.
+     */
+    private void removeReader(ReaderThread<T> reader, PollerThread<T> poller) {
+        if (readers.remove(reader.topicRange, reader)) {
+            poller.numReaders.decrementAndGet();
+        }
+    }
+
+    public boolean isAlive() {
+        for (PollerThread<T> poller : pollers) {
+            if (poller.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Stops all pollers and closes their readers, waiting at most {@code timeoutMs} per poller. */
+    public void close(long timeoutMs) throws InterruptedException {
+        running = false;
+        for (PollerThread<T> poller : pollers) {
+            poller.interrupt();
+        }
+        for (PollerThread<T> poller : pollers) {
+            poller.join(timeoutMs);
+        }
+        for (ReaderThread<T> reader : readers.values()) {
+            try {
+                reader.cancel();
+            } catch (Throwable t) {
+                log.error("Error while closing Pulsar reader {}", reader.topicRange, t);
+            }
+        }
+        readers.clear();
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * Either a request to open a reader (no message and no error) or the outcome of
+     * an asynchronous read.
+     */
+    private static final class ReaderEvent<T> {
+        private final ReaderThread<T> reader;
+        private final Message<T> message;
+        private final Throwable error;
+
+        ReaderEvent(ReaderThread<T> reader, Message<T> message, Throwable error) {
+            this.reader = reader;
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Poller thread that opens its readers, keeps one asynchronous read outstanding per reader
+     * and emits the completed reads in order of completion.
+     */
+    private static final class PollerThread<T> extends Thread {
+
+        private final MultiplexedReaderPool<T> pool;
+
+        private final BlockingQueue<ReaderEvent<T>> events = new LinkedBlockingQueue<>();
+
+        /** Incremented by the fetcher thread on assignment, decremented by this thread on removal. */
+        private final AtomicInteger numReaders = new AtomicInteger();
+
+        PollerThread(MultiplexedReaderPool<T> pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (pool.running) {
+                    ReaderEvent<T> event = events.poll(IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        handle(event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // the pool is closing
+            }
+        }
+
+        private void handle(ReaderEvent<T> event) {
+            ReaderThread<T> reader = event.reader;
+            if (!pool.running) {
+                return;
+            }
+            if (!reader.isRunning()) {
+                // cancelled while a read was outstanding
+                pool.removeReader(reader, this);
+                return;
+            }
+            try {
+                if (event.error != null) {
+                    throw event.error;
+                }
+                if (event.message == null) {
+                    reader.openReader();
+                    log.info("Starting to read {} with reader pool thread {}", reader.topicRange, getName());
+                } else {
+                    reader.emitMessages(event.message);
+                }
+                if (reader.isRunning()) {
+                    readNext(reader);
+                } else {
+                    pool.removeReader(reader, this);
+                    reader.close();
+                }
+            } catch (Throwable t) {
+                reader.running = false;
+                pool.removeReader(reader, this);
+                if (pool.running) {
+                    reader.exceptionProxy.reportError(t);
+                }
+            }
+        }
+
+        private void readNext(ReaderThread<T> reader) {
+            reader.reader.readNextAsync().whenComplete((message, error) ->
+                    events.add(new ReaderEvent<>(reader, message, error)));
+        }
+    }
+}
@@ -16,6 +16,7 @@ package org.apache.flink.streaming.connectors.pulsar.internal;
 
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.util.MessagePayloads;
 import org.apache.flink.streaming.util.serialization.PulsarDeserializationSchema;
 import org.apache.flink.table.api.DataTypes;
 import org.apache.flink.table.types.CollectionDataType;
@@ -33,8 +34,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.impl.schema.generic.GenericAvroRecord;
 import org.apache.pulsar.common.schema.SchemaInfo;
-import org.apache.pulsar.shade.com.fasterxml.jackson.core.JsonFactory;
-import org.apache.pulsar.shade.com.fasterxml.jackson.core.JsonParser;
 import org.apache.pulsar.shade.com.google.common.collect.ImmutableSet;
 import org.apache.pulsar.shade.org.apache.avro.Conversions;
 import org.apache.pulsar.shade.org.apache.avro.LogicalType;
@@ -60,7 +59,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -122,24 +120,15 @@ public class PulsarDeserializer implements PulsarDeserializationSchema<Row> {
 
                 case JSON:
                     FieldsDataType fdt = (FieldsDataType) rootDataType;
-                    BiFunction<JsonFactory, String, JsonParser> createParser =
-                            (jsonFactory, s) -> {
-                                try {
-                                    return jsonFactory.createParser(s);
-                                } catch (IOException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            };
                     JacksonRecordParser rawParser = new JacksonRecordParser(rootDataType, parsedOptions);
-                    JacksonRecordParser.FailureSafeRecordParser parser = new JacksonRecordParser.FailureSafeRecordParser(
-                            (s, row) -> rawParser.parse(s, createParser, row),
+                    JacksonRecordParser.FailureSafeRecordParser<ByteBuffer> parser = new JacksonRecordParser.FailureSafeRecordParser<>(
+                            (value, row) -> rawParser.parse(value, row),
                             parsedOptions.getParseMode(),
                             fdt);
                     this.converter = msg -> {
                         int rowSize = useExtendField ? fdt.getChildren().size() + META_FIELD_NAMES.size() : fdt.getChildren().size();
                         Row resultRow = new Row(rowSize);
-                        byte[] value = msg.getData();
-                        parser.parse(new String(value, StandardCharsets.UTF_8), resultRow);
+                        parser.parse(MessagePayloads.payload(msg), resultRow);
                         if (useExtendField){
                             writeMetadataFields(msg, resultRow);
                         }
@@ -32,6 +32,7 @@ import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 import org.apache.pulsar.shade.com.google.common.collect.ImmutableList;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -125,11 +126,23 @@ public class PulsarFetcher<T> {
     /** The threads that runs the actual reading and hand the records to this fetcher. */
     private Map<TopicRange, ReaderThread<T>> topicToThread;
 
+    /**
+     * Number of poller threads multiplexing all readers of this fetcher,
+     * a non-positive value starts one {@link ReaderThread} per topic range.
+     */
+    private final int readerPoolSize;
+
+    /** The pool that drives the readers when {@link #readerPoolSize} is positive. */
+    private MultiplexedReaderPool<T> readerPool;
+
     /** Failed or not when data loss. **/
     private boolean failOnDataLoss = true;
 
     private boolean useEarliestWhenDataLoss;
 
+    /** Maximum number of messages a reader thread emits under one checkpoint lock acquisition. */
+    private final int emitBatchSize;
+
     // ------------------------------------------------------------------------
     //  Metrics
     // ------------------------------------------------------------------------
@@ -198,6 +211,45 @@ public class PulsarFetcher<T> {
         PulsarMetadataReader metadataReader,
         MetricGroup consumerMetricGroup,
         boolean useMetrics) throws Exception {
+        this(
+                sourceContext,
+                seedTopicsWithInitialOffsets,
+                excludeStartMessageIds,
+                watermarkStrategy,
+                processingTimeProvider,
+                autoWatermarkInterval,
+                userCodeClassLoader,
+                runtimeContext,
+                clientConf,
+                readerConf,
+                pollTimeoutMs,
+                commitMaxRetries,
+                0, // one reader thread per topic range
+                deserializer,
+                metadataReader,
+                consumerMetricGroup,
+                useMetrics
+        );
+    }
+
+    public PulsarFetcher(
+        SourceContext<T> sourceContext,
+        Map<TopicRange, MessageId> seedTopicsWithInitialOffsets,
+        Set<TopicRange> excludeStartMessageIds,
+        SerializedValue<WatermarkStrategy<T>> watermarkStrategy,
+        ProcessingTimeService processingTimeProvider,
+        long autoWatermarkInterval,
+        ClassLoader userCodeClassLoader,
+        StreamingRuntimeContext runtimeContext,
+        ClientConfigurationData clientConf,
+        Map<String, Object> readerConf,
+        int pollTimeoutMs,
+        int commitMaxRetries,
+        int readerPoolSize,
+        PulsarDeserializationSchema<T> deserializer,
+        PulsarMetadataReader metadataReader,
+        MetricGroup consumerMetricGroup,
+        boolean useMetrics) throws Exception {
 
         this.sourceContext = sourceContext;
         this.watermarkOutput = new SourceContextWatermarkOutputAdapter<>(sourceContext);
@@ -213,8 +265,10 @@ public class PulsarFetcher<T> {
         this.readerConf = readerConf == null ? new HashMap<>() : readerConf;
         this.failOnDataLoss = SourceSinkUtils.getFailOnDataLossAndRemoveKey(this.readerConf);
         this.useEarliestWhenDataLoss = SourceSinkUtils.getUseEarliestWhenDataLossAndRemoveKey(this.readerConf);
+        this.emitBatchSize = SourceSinkUtils.getEmitBatchSizeAndRemoveKey(this.readerConf);
         this.pollTimeoutMs = pollTimeoutMs;
         this.commitMaxRetries = commitMaxRetries;
+        this.readerPoolSize = readerPoolSize;
         this.deserializer = deserializer;
         this.metadataReader = metadataReader;
 
@@ -269,6 +323,10 @@ public class PulsarFetcher<T> {
     public void runFetchLoop() throws Exception {
         topicToThread = new HashMap<>();
         ExceptionProxy exceptionProxy = new ExceptionProxy(Thread.currentThread());
+        if (readerPoolSize > 0) {
+            readerPool = new MultiplexedReaderPool<>(readerPoolSize, runtimeContext.getTaskName());
+            readerPool.start();
+        }
 
         try {
 
@@ -289,8 +347,7 @@ public class PulsarFetcher<T> {
                         throw BreakingException.INSTANCE;
                     }
 
-                    topicToThread.putAll(
-                            createAndStartReaderThread(topicsToAssign, exceptionProxy));
+                    assignTopics(topicsToAssign, exceptionProxy);
 
                 } else {
                     // there were no partitions to assign. Check if any consumer threads shut down.
@@ -301,13 +358,12 @@ public class PulsarFetcher<T> {
 
                 }
 
-                if (topicToThread.size() == 0 && unassignedPartitionsQueue.isEmpty()) {
+                if (getNumActiveReaders() == 0 && unassignedPartitionsQueue.isEmpty()) {
                     PulsarTopicState topicForBlocking = unassignedPartitionsQueue.getElementBlocking();
                     if (topicForBlocking.equals(PoisonState.INSTANCE)) {
                         throw BreakingException.INSTANCE;
                     }
-                    topicToThread.putAll(
-                            createAndStartReaderThread(ImmutableList.of(topicForBlocking), exceptionProxy));
+                    assignTopics(ImmutableList.of(topicForBlocking), exceptionProxy);
                 }
             }
 
@@ -330,6 +386,10 @@ public class PulsarFetcher<T> {
 
             // make sure that in any case (completion, abort, error), all spawned threads are stopped
             try {
+                if (readerPool != null) {
+                    readerPool.close(500);
+                }
+
                 int runningThreads = 0;
                 do { // check whether threads are alive and cancel them
                     runningThreads = 0;
@@ -391,6 +451,34 @@ public class PulsarFetcher<T> {
         }
     }
 
+    /**
+     * Emits a batch of records taken from the same partition under a single checkpoint lock
+     * acquisition. The partition offset is only advanced once, to the offset of the last
+     * message in the batch, so a checkpoint either contains the whole batch or none of it.
+     *
+     * @param records The records to emit, skipped (null) records are not part of the batch
+     * @param pulsarEventTimestamps The timestamps of the pulsar records, in the order of the records
+     * @param partitionState The state of the pulsar partition from which the records were fetched
+     * @param offset The offset of the last pulsar message of the batch
+     */
+    protected void emitRecordsWithTimestamps(
+            List<T> records,
+            long[] pulsarEventTimestamps,
+            PulsarTopicState<T> partitionState,
+            MessageId offset) {
+        synchronized (checkpointLock) {
+            for (int i = 0; i < records.size(); i++) {
+                T record = records.get(i);
+                long timestamp = partitionState.extractTimestamp(record, pulsarEventTimestamps[i]);
+                sourceContext.collectWithTimestamp(record, timestamp);
+
+                // this might emit a watermark, so do it after emitting the record
+                partitionState.onEvent(record, timestamp);
+            }
+            partitionState.setOffset(offset);
+        }
+    }
+
     public void cancel() throws Exception {
         // single the main thread to exit
         running = false;
@@ -509,6 +597,36 @@ public class PulsarFetcher<T> {
         return state;
     }
 
+    private void assignTopics(List<PulsarTopicState<T>> states, ExceptionProxy exceptionProxy) {
+        if (readerPool != null) {
+            assignToReaderPool(states, exceptionProxy);
+        } else {
+            topicToThread.putAll(createAndStartReaderThread(states, exceptionProxy));
+        }
+    }
+
+    private int getNumActiveReaders() {
+        return readerPool != null ? readerPool.getNumActiveReaders() : topicToThread.size();
+    }
+
+    /**
+     * Hands the topic ranges over to the {@link MultiplexedReaderPool}. The reader threads are
+     * only used as reader handles and never started.
+     */
+    public void assignToReaderPool(
+            List<PulsarTopicState<T>> states,
+            ExceptionProxy exceptionProxy) {
+
+        Map<TopicRange, MessageId> startingOffsets = states.stream().collect(Collectors.toMap(PulsarTopicState::getTopicRange, PulsarTopicState::getOffset));
+        metadataReader.setupCursor(startingOffsets, failOnDataLoss);
+        List<ReaderThread<T>> readers = new ArrayList<>(states.size());
+        for (PulsarTopicState<T> state : states) {
+            readers.add(createReaderThread(exceptionProxy, state));
+        }
+        readerPool.addReaders(readers);
+        log.info("Assigned {} topic ranges to the reader pool", readers.size());
+    }
+
     public Map<TopicRange, ReaderThread<T>> createAndStartReaderThread(
             List<PulsarTopicState<T>> states,
             ExceptionProxy exceptionProxy) {
@@ -543,7 +661,8 @@ public class PulsarFetcher<T> {
                 exceptionProxy,
                 failOnDataLoss,
                 useEarliestWhenDataLoss,
-                excludeStartMessageIds.contains(state.getTopicRange()));
+                excludeStartMessageIds.contains(state.getTopicRange()),
+                emitBatchSize);
     }
 
     /**
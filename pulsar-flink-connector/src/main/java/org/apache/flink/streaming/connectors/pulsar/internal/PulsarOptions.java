@@ -53,7 +53,9 @@ public class PulsarOptions {
     public static final String FAIL_ON_WRITE_OPTION_KEY = "fail-on-write";
     public static final String TRANSACTION_TIMEOUT = "transaction-timeout";
     public static final String MAX_BLOCK_TIME_MS = "max-block-time-ms";
+    public static final String TRANSACTION_POOL_SIZE = "transaction-pool-size";
     public static final String POLL_TIMEOUT_MS_OPTION_KEY = "poll-timeout-ms";
+    public static final String READER_POOL_SIZE_OPTION_KEY = "reader-pool-size";
     public static final String SEND_TIMEOUT_MS = "send-timeout-ms";
     public static final String SUBSCRIPTION_ROLE_OPTION_KEY = "subscription-role-prefix";
     public static final String COMMIT_MAX_RETRIES = "commit-max-retries";
@@ -62,6 +64,7 @@ public class PulsarOptions {
     public static final String OLD_STATE_VERSION = "old-state-version";
     public static final String FAIL_ON_DATA_LOSS_OPTION_KEY = "failOnDataLoss";
     public static final String USE_EARLIEST_WHEN_DATA_LOSS_OPTION_KEY = "use-earliest-when-data-loss";
+    public static final String EMIT_BATCH_SIZE_OPTION_KEY = "emit-batch-size";
     public static final String SEND_DELAY_MILLISECONDS = "send-delay-millisecond";
 
     public static final String INSTRUCTION_FOR_FAIL_ON_DATA_LOSS_FALSE =
@@ -20,6 +20,7 @@ import org.apache.flink.streaming.util.serialization.PulsarDeserializationSchema
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.Reader;
 import org.apache.pulsar.client.api.ReaderBuilder;
@@ -28,6 +29,8 @@ import org.apache.pulsar.client.impl.MessageIdImpl;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -50,6 +53,11 @@ public class ReaderThread<T> extends Thread {
     protected boolean excludeMessageId = false;
     private boolean failOnDataLoss = true;
     private boolean useEarliestWhenDataLoss = false;
+    private int emitBatchSize = 1;
+
+    /** Records and event times of the batch currently drained from the reader. */
+    private List<T> batchRecords;
+    private long[] batchEventTimes;
 
     protected volatile boolean running = true;
     protected volatile boolean closed = false;
@@ -58,6 +66,9 @@ public class ReaderThread<T> extends Thread {
 
     protected volatile Reader<T> reader = null;
 
+    /** Whether this thread holds a reference on the shared client of {@link #clientConf}. */
+    private volatile boolean clientAcquired = false;
+
     public ReaderThread(
             PulsarFetcher<T> owner,
             PulsarTopicState state,
@@ -95,36 +106,65 @@ public class ReaderThread<T> extends Thread {
         this.excludeMessageId = excludeMessageId;
     }
 
+    public ReaderThread(
+            PulsarFetcher<T> owner,
+            PulsarTopicState state,
+            ClientConfigurationData clientConf,
+            Map<String, Object> readerConf,
+            PulsarDeserializationSchema<T> deserializer,
+            int pollTimeoutMs,
+            ExceptionProxy exceptionProxy,
+            boolean failOnDataLoss,
+            boolean useEarliestWhenDataLoss,
+            boolean excludeMessageId,
+            int emitBatchSize) {
+        this(owner, state, clientConf, readerConf, deserializer, pollTimeoutMs, exceptionProxy,
+                failOnDataLoss, useEarliestWhenDataLoss, excludeMessageId);
+        this.emitBatchSize = emitBatchSize;
+        if (emitBatchSize > 1) {
+            this.batchRecords = new ArrayList<>(emitBatchSize);
+            this.batchEventTimes = new long[emitBatchSize];
+        }
+    }
+
     @Override
     public void run() {
         log.info("Starting to fetch from {} at {}, failOnDataLoss {}", topicRange, startMessageId, failOnDataLoss);
 
         try {
-            handleTooLargeCursor();
-            createActualReader();
+            openReader();
             log.info("Starting to read {} with reader thread {}", topicRange, getName());
 
             while (running) {
                 Message<T> message = reader.readNext(pollTimeoutMs, TimeUnit.MILLISECONDS);
                 if (message != null) {
-                    emitRecord(message);
+                    emitMessages(message);
                 }
             }
         } catch (Throwable e) {
             exceptionProxy.reportError(e);
         } finally {
-            if (reader != null) {
-                try {
-                    close();
-                } catch (Throwable e) {
-                    log.error("Error while closing Pulsar reader " + e.toString());
-                }
+            try {
+                close();
+            } catch (Throwable e) {
+                log.error("Error while closing Pulsar reader " + e.toString());
             }
         }
     }
 
+    /**
+     * Validates the start position and creates the underlying Pulsar reader. This is also used
+     * by {@link MultiplexedReaderPool}, which drives the reader without starting this thread.
+     */
+    protected void openReader() throws PulsarClientException {
+        handleTooLargeCursor();
+        createActualReader();
+    }
+
     protected void createActualReader() throws PulsarClientException {
-        ReaderBuilder<T> readerBuilder = CachedPulsarClient.getOrCreate(clientConf)
+        PulsarClient client = CachedPulsarClient.getOrCreate(clientConf);
+        clientAcquired = true;
+        ReaderBuilder<T> readerBuilder = client
                 .newReader(deserializer.getSchema())
                 .topic(topicRange.getTopic())
                 .startMessageId(startMessageId)
@@ -166,6 +206,18 @@ public class ReaderThread<T> extends Thread {
         }
     }
 
+    /**
+     * Emits a received message, together with the messages already available in the reader if
+     * records are emitted in batches. This is also used by {@link MultiplexedReaderPool}.
+     */
+    protected void emitMessages(Message<T> message) throws IOException {
+        if (emitBatchSize > 1) {
+            emitRecordBatch(message);
+        } else {
+            emitRecord(message);
+        }
+    }
+
     protected void emitRecord(Message<T> message) throws IOException {
         MessageId messageId = message.getMessageId();
         final T record = deserializer.deserialize(message);
@@ -176,15 +228,43 @@ public class ReaderThread<T> extends Thread {
         owner.emitRecordsWithTimestamps(record, state, messageId, message.getEventTime());
     }
 
+    /**
+     * Drains the messages that are already available in the reader, up to the emit batch size,
+     * and hands them to the fetcher in one go.
+     */
+    protected void emitRecordBatch(Message<T> first) throws IOException {
+        batchRecords.clear();
+        MessageId lastMessageId = null;
+        int drained = 0;
+        Message<T> message = first;
+        while (message != null) {
+            final T record = deserializer.deserialize(message);
+            if (deserializer.isEndOfStream(record)) {
+                running = false;
+                break;
+            }
+            if (record != null) {
+                batchEventTimes[batchRecords.size()] = message.getEventTime();
+                batchRecords.add(record);
+            }
+            lastMessageId = message.getMessageId();
+            if (++drained >= emitBatchSize) {
+                break;
+            }
+            message = reader.readNext(0, TimeUnit.MILLISECONDS);
+        }
+        if (lastMessageId != null) {
+            owner.emitRecordsWithTimestamps(batchRecords, batchEventTimes, state, lastMessageId);
+        }
+    }
+
     public void cancel() throws IOException {
         this.running = false;
 
-        if (reader != null) {
-            try {
-                close();
-            } catch (IOException e) {
-                log.error("failed to close reader. ", e);
-            }
+        try {
+            close();
+        } catch (IOException e) {
+            log.error("failed to close reader. ", e);
         }
 
         this.interrupt();
@@ -195,7 +275,16 @@ public class ReaderThread<T> extends Thread {
             return;
         }
         closed = true;
-        reader.close();
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } finally {
+            if (clientAcquired) {
+                clientAcquired = false;
+                CachedPulsarClient.release(clientConf);
+            }
+        }
         log.info("Reader closed");
     }
 
@@ -102,6 +102,15 @@ public class SourceSinkUtils {
         return Integer.parseInt(interval);
     }
 
+    /**
+     * Number of threads multiplexing the readers of a source subtask,
+     * 0 (the default) starts one reader thread per topic range.
+     */
+    public static int getReaderPoolSize(Map<String, String> parameters) {
+        String size = parameters.getOrDefault(PulsarOptions.READER_POOL_SIZE_OPTION_KEY, "0");
+        return Integer.parseInt(size);
+    }
+
     public static boolean getUseMetrics(Map<String, String> parameters) {
         String useMetrics = parameters.getOrDefault(PulsarOptions.KEY_DISABLED_METRICS, "false");
         return Boolean.parseBoolean(useMetrics);
@@ -137,6 +146,15 @@ public class SourceSinkUtils {
         return Long.parseLong(value);
     }
 
+    /**
+     * Number of transactions an exactly-once sink opens ahead of time,
+     * 0 (the default) opens the transaction of every checkpoint when it starts.
+     */
+    public static int getTransactionPoolSize(Map<String, String> parameters) {
+        String size = parameters.getOrDefault(PulsarOptions.TRANSACTION_POOL_SIZE, "0");
+        return Integer.parseInt(size);
+    }
+
     public static Map<String, Object> getReaderParams(Map<String, String> parameters) {
         return parameters.keySet().stream()
                 .filter(k -> k.startsWith(PulsarOptions.PULSAR_READER_OPTION_KEY_PREFIX))
@@ -212,4 +230,15 @@ public class SourceSinkUtils {
         readerConf.remove(PulsarOptions.USE_EARLIEST_WHEN_DATA_LOSS_OPTION_KEY);
         return value;
     }
+
+    /**
+     * Maximum number of already received messages a reader thread emits under a single
+     * checkpoint lock acquisition, 1 (the default) emits every message on its own.
+     */
+    public static int getEmitBatchSizeAndRemoveKey(Map<String, Object> readerConf) {
+        String emitBatchSize = readerConf.getOrDefault(PulsarOptions.EMIT_BATCH_SIZE_OPTION_KEY, "1").toString();
+        final int value = Integer.parseInt(emitBatchSize);
+        readerConf.remove(PulsarOptions.EMIT_BATCH_SIZE_OPTION_KEY);
+        return value;
+    }
 }
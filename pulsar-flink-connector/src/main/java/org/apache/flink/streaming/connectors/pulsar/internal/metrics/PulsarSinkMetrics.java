@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.internal.metrics;
+
+/**
+ * A collection of Pulsar producer metrics related constant strings.
+ *
+ * <p>The names must not be changed, as that would break backward compatibility for the producer's metrics.
+ */
+public class PulsarSinkMetrics {
+
+    public static final String PULSAR_SINK_METRICS_GROUP = "PulsarProducer";
+
+    // ------------------------------------------------------------------------
+    //  Per-subtask metrics
+    // ------------------------------------------------------------------------
+
+    public static final String FLUSHES_SUCCEEDED_METRICS_COUNTER = "flushesSucceeded";
+    public static final String FLUSHES_FAILED_METRICS_COUNTER = "flushesFailed";
+    public static final String LAST_FLUSH_DURATION_METRICS_GAUGE = "lastFlushDurationMs";
+    public static final String PENDING_RECORDS_METRICS_GAUGE = "pendingRecords";
+}
@@ -16,9 +16,11 @@ package org.apache.flink.streaming.connectors.pulsar.table;
 
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
+import org.apache.flink.connector.pulsar.source.util.MessagePayloads;
 import org.apache.flink.streaming.util.serialization.FlinkSchema;
 import org.apache.flink.streaming.util.serialization.PulsarDeserializationSchema;
-import org.apache.flink.streaming.util.serialization.ThreadSafeDeserializationSchema;
+import org.apache.flink.streaming.util.serialization.ThreadLocalDeserializationSchema;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.types.DeserializationException;
@@ -32,9 +34,13 @@ import org.apache.pulsar.client.api.Schema;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * A specific {@link PulsarDeserializationSchema} for {@link PulsarDynamicTableSource}.
@@ -46,12 +52,22 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
     @Nullable
     private final DeserializationSchema<RowData> keyDeserialization;
 
+    /** Filter of the decoded keys, messages with other keys are dropped without decoding their values. */
+    @Nullable
+    private final KeyFilter keyFilter;
+
     private final DeserializationSchema<RowData> valueDeserialization;
 
     private final boolean hasMetadata;
 
+    /** Whether the decoded values are the produced rows, without keys, metadata and dropped fields. */
+    private final boolean valueOnly;
+
     private final OutputProjectionCollector outputCollector;
 
+    /** Copies of {@link #outputCollector}, as messages of different partitions are deserialized in parallel. */
+    private transient ThreadLocal<OutputProjectionCollector> tlsOutputCollector;
+
     private final TypeInformation<RowData> producedTypeInfo;
 
     private final boolean upsertMode;
@@ -68,6 +84,7 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
             int physicalArity,
             @Nullable DeserializationSchema<RowData> keyDeserialization,
             int[] keyProjection,
+            @Nullable KeyFilter keyFilter,
             DeserializationSchema<RowData> valueDeserialization,
             int[] valueProjection,
             boolean hasMetadata,
@@ -79,9 +96,13 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
                     keyDeserialization != null && keyProjection.length > 0,
                     "Key must be set in upsert mode for deserialization schema.");
         }
-        this.keyDeserialization = ThreadSafeDeserializationSchema.of(keyDeserialization);
-        this.valueDeserialization = ThreadSafeDeserializationSchema.of(valueDeserialization);
+        this.keyDeserialization = ThreadLocalDeserializationSchema.of(keyDeserialization);
+        this.keyFilter = keyFilter;
+        this.valueDeserialization = ThreadLocalDeserializationSchema.of(valueDeserialization);
         this.hasMetadata = hasMetadata;
+        this.valueOnly = keyDeserialization == null
+                && !hasMetadata
+                && Arrays.equals(valueProjection, IntStream.range(0, physicalArity).toArray());
         this.outputCollector = new OutputProjectionCollector(
                 physicalArity,
                 keyProjection,
@@ -90,6 +111,7 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
                 upsertMode);
         this.producedTypeInfo = producedTypeInfo;
         this.upsertMode = upsertMode;
+        this.tlsOutputCollector = ThreadLocal.withInitial(outputCollector::copy);
     }
 
     @Override
@@ -116,8 +138,8 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
     public void deserialize(Message<RowData> message, Collector<RowData> collector) throws IOException {
         // shortcut in case no output projection is required,
         // also not for a cartesian product with the keys
-        if (keyDeserialization == null && !hasMetadata) {
-            valueDeserialization.deserialize(message.getData(), collector);
+        if (valueOnly) {
+            MessagePayloads.deserialize(valueDeserialization, message, collector);
             return;
         }
         BufferingCollector keyCollector = new BufferingCollector();
@@ -125,15 +147,25 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
         // buffer key(s)
         if (keyDeserialization != null) {
             keyDeserialization.deserialize(message.getKeyBytes(), keyCollector);
+            if (keyFilter != null) {
+                keyCollector.buffer.removeIf(key -> !keyFilter.matches((GenericRowData) key));
+                if (keyCollector.buffer.isEmpty()) {
+                    return;
+                }
+            }
         }
 
         // project output while emitting values
+        final OutputProjectionCollector outputCollector = tlsOutputCollector.get();
         outputCollector.inputMessage = message;
         outputCollector.physicalKeyRows = keyCollector.buffer;
         outputCollector.outputCollector = collector;
-        if ((message.getData() == null || message.getData().length == 0) && upsertMode) {
+        ByteBuffer payload = MessagePayloads.payload(message);
+        if ((payload == null || !payload.hasRemaining()) && upsertMode) {
             // collect tombstone messages in upsert mode by hand
             outputCollector.collect(null);
+        } else if (valueDeserialization instanceof ByteBufferDeserializationSchema) {
+            ((ByteBufferDeserializationSchema<RowData>) valueDeserialization).deserialize(payload, outputCollector);
         } else {
             valueDeserialization.deserialize(message.getData(), outputCollector);
         }
@@ -150,6 +182,11 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
         return new FlinkSchema<>(Schema.BYTES.getSchemaInfo(), null, valueDeserialization);
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.tlsOutputCollector = ThreadLocal.withInitial(outputCollector::copy);
+    }
+
     // --------------------------------------------------------------------------------------------
 
     interface MetadataConverter extends Serializable {
@@ -215,6 +252,7 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
      *     <li>The deserialization schema emits multiple keys.
      *     <li>Keys and values have overlapping fields.
      *     <li>Keys are used and value is null.
+     *     <li>Decoded key and value fields are not produced, which have a negative position.
      * </ul>
      */
     private static final class OutputProjectionCollector implements Collector<RowData>, Serializable {
@@ -250,6 +288,15 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
             this.upsertMode = upsertMode;
         }
 
+        private OutputProjectionCollector copy() {
+            return new OutputProjectionCollector(
+                    physicalArity,
+                    keyProjection,
+                    valueProjection,
+                    metadataConverters,
+                    upsertMode);
+        }
+
         @Override
         public void collect(RowData physicalValueRow) {
             // no key defined
@@ -289,13 +336,17 @@ class DynamicPulsarDeserializationSchema implements PulsarDeserializationSchema<
 
             if (physicalValueRow != null) {
                 for (int valuePos = 0; valuePos < valueProjection.length; valuePos++) {
-                    producedRow.setField(valueProjection[valuePos], physicalValueRow.getField(valuePos));
+                    if (valueProjection[valuePos] >= 0) {
+                        producedRow.setField(valueProjection[valuePos], physicalValueRow.getField(valuePos));
+                    }
                 }
             }
 
             for (int keyPos = 0; keyPos < keyProjection.length; keyPos++) {
                 assert physicalKeyRow != null;
-                producedRow.setField(keyProjection[keyPos], physicalKeyRow.getField(keyPos));
+                if (keyProjection[keyPos] >= 0) {
+                    producedRow.setField(keyProjection[keyPos], physicalKeyRow.getField(keyPos));
+                }
             }
 
             for (int metadataPos = 0; metadataPos < metadataArity; metadataPos++) {
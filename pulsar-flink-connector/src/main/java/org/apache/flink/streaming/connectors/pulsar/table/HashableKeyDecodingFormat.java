@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.table.connector.ChangelogMode;
+import org.apache.flink.table.connector.format.DecodingFormat;
+import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.DataType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Marks a key format whose serialized key is the UTF-8 encoding of its single field, so that the
+ * Key_Shared hash of a key can be computed from the value of the key field.
+ *
+ * <p>This is the raw format with its default charset. Other formats may serialize equal keys
+ * differently, for example JSON with a different field order, and are not marked.
+ */
+class HashableKeyDecodingFormat implements DecodingFormat<DeserializationSchema<RowData>> {
+
+    private static final String RAW_FORMAT = "raw";
+
+    private final DecodingFormat<DeserializationSchema<RowData>> innerDecodingFormat;
+
+    HashableKeyDecodingFormat(DecodingFormat<DeserializationSchema<RowData>> innerDecodingFormat) {
+        this.innerDecodingFormat = innerDecodingFormat;
+    }
+
+    static DecodingFormat<DeserializationSchema<RowData>> wrapIfHashable(
+            DecodingFormat<DeserializationSchema<RowData>> decodingFormat,
+            String formatIdentifier,
+            Map<String, String> tableOptions) {
+        final String charset = tableOptions.get("key." + RAW_FORMAT + ".charset");
+        if (RAW_FORMAT.equals(formatIdentifier)
+                && (charset == null || StandardCharsets.UTF_8.name().equalsIgnoreCase(charset))) {
+            return new HashableKeyDecodingFormat(decodingFormat);
+        }
+        return decodingFormat;
+    }
+
+    @Override
+    public DeserializationSchema<RowData> createRuntimeDecoder(DynamicTableSource.Context context, DataType producedDataType) {
+        return innerDecodingFormat.createRuntimeDecoder(context, producedDataType);
+    }
+
+    @Override
+    public Map<String, DataType> listReadableMetadata() {
+        return innerDecodingFormat.listReadableMetadata();
+    }
+
+    @Override
+    public void applyReadableMetadata(List<String> metadataKeys) {
+        innerDecodingFormat.applyReadableMetadata(metadataKeys);
+    }
+
+    @Override
+    public ChangelogMode getChangelogMode() {
+        return innerDecodingFormat.getChangelogMode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        HashableKeyDecodingFormat that = (HashableKeyDecodingFormat) obj;
+        return Objects.equals(innerDecodingFormat, that.innerDecodingFormat);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(innerDecodingFormat);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.connector.pulsar.source.util.KeyHashes;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The values the key fields of a table source are restricted to by equality and IN filters, so
+ * that messages with other keys are dropped before their values are decoded.
+ *
+ * <p>While planning, the values are kept by the index of the physical field. The runtime filter is
+ * {@link #project projected} onto the positions of the fields in the decoded key rows.
+ */
+@EqualsAndHashCode
+class KeyFilter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The allowed values by field, strings for character fields and boxed values otherwise. */
+    private final Map<Integer, Set<Object>> values;
+
+    KeyFilter() {
+        this(new LinkedHashMap<>());
+    }
+
+    private KeyFilter(Map<Integer, Set<Object>> values) {
+        this.values = values;
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Restricts a key field by an equality or IN filter of the field with literals.
+     *
+     * @return whether the filter restricted a key field
+     */
+    boolean addFilter(ResolvedExpression filter, RowType physicalType, int[] keyProjection) {
+        final Map<Integer, Set<Object>> filterValues = new LinkedHashMap<>();
+        if (!collectValues(filter, physicalType, keyProjection, filterValues) || filterValues.size() != 1) {
+            return false;
+        }
+        final Map.Entry<Integer, Set<Object>> entry = filterValues.entrySet().iterator().next();
+        final Set<Object> fieldValues = values.get(entry.getKey());
+        if (fieldValues == null) {
+            values.put(entry.getKey(), entry.getValue());
+        } else {
+            fieldValues.retainAll(entry.getValue());
+        }
+        return true;
+    }
+
+    /**
+     * Returns the filter of the decoded key rows, or null if a restricted field is not decoded.
+     */
+    @Nullable
+    KeyFilter project(int[] keyFormatProjection) {
+        final Map<Integer, Set<Object>> projectedValues = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Set<Object>> entry : values.entrySet()) {
+            final int keyPos = indexOf(keyFormatProjection, entry.getKey());
+            if (keyPos < 0) {
+                return null;
+            }
+            projectedValues.put(keyPos, entry.getValue());
+        }
+        return new KeyFilter(projectedValues);
+    }
+
+    boolean matches(GenericRowData keyRow) {
+        for (Map.Entry<Integer, Set<Object>> entry : values.entrySet()) {
+            final int keyPos = entry.getKey();
+            if (keyRow.isNullAt(keyPos)) {
+                return false;
+            }
+            Object value = keyRow.getField(keyPos);
+            if (value instanceof StringData) {
+                value = value.toString();
+            }
+            if (!entry.getValue().contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the Key_Shared hash of each key of a string field whose serialized key is its UTF-8
+     * encoding as a range of its own, or null if the field is not restricted.
+     */
+    @Nullable
+    List<SerializableRange> getKeyHashRanges(int field) {
+        final Set<Object> fieldValues = values.get(field);
+        if (fieldValues == null || fieldValues.isEmpty()) {
+            return null;
+        }
+        final Set<Integer> hashes = new TreeSet<>();
+        for (Object value : fieldValues) {
+            if (!(value instanceof String)) {
+                return null;
+            }
+            hashes.add(KeyHashes.hashOf(((String) value).getBytes(StandardCharsets.UTF_8)));
+        }
+        return hashes.stream().map(hash -> SerializableRange.of(hash, hash)).collect(Collectors.toList());
+    }
+
+    /**
+     * Collects the values of an equality with a literal, an IN list of literals or a disjunction of
+     * them, all on the same key field.
+     */
+    private static boolean collectValues(
+            ResolvedExpression expression,
+            RowType physicalType,
+            int[] keyProjection,
+            Map<Integer, Set<Object>> values) {
+        if (!(expression instanceof CallExpression)) {
+            return false;
+        }
+        final CallExpression call = (CallExpression) expression;
+        final List<ResolvedExpression> args = call.getResolvedChildren();
+        if (call.getFunctionDefinition() == BuiltInFunctionDefinitions.OR) {
+            for (ResolvedExpression arg : args) {
+                if (!collectValues(arg, physicalType, keyProjection, values)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (call.getFunctionDefinition() == BuiltInFunctionDefinitions.EQUALS && args.size() == 2) {
+            if (args.get(1) instanceof FieldReferenceExpression) {
+                return collectValues(
+                        getKeyField(args.get(1), physicalType, keyProjection), args.subList(0, 1), physicalType, values);
+            }
+            return collectValues(
+                    getKeyField(args.get(0), physicalType, keyProjection), args.subList(1, 2), physicalType, values);
+        } else if (call.getFunctionDefinition() == BuiltInFunctionDefinitions.IN && args.size() > 1) {
+            return collectValues(
+                    getKeyField(args.get(0), physicalType, keyProjection), args.subList(1, args.size()), physicalType, values);
+        }
+        return false;
+    }
+
+    private static boolean collectValues(
+            int field,
+            List<ResolvedExpression> literals,
+            RowType physicalType,
+            Map<Integer, Set<Object>> values) {
+        if (field < 0) {
+            return false;
+        }
+        final Set<Object> fieldValues = values.computeIfAbsent(field, f -> new HashSet<>());
+        for (ResolvedExpression literal : literals) {
+            final Object value = getValue(literal, physicalType.getTypeAt(field));
+            if (value == null) {
+                return false;
+            }
+            fieldValues.add(value);
+        }
+        return true;
+    }
+
+    private static int getKeyField(ResolvedExpression expression, RowType physicalType, int[] keyProjection) {
+        if (!(expression instanceof FieldReferenceExpression)) {
+            return -1;
+        }
+        final int field = physicalType.getFieldNames().indexOf(((FieldReferenceExpression) expression).getName());
+        return indexOf(keyProjection, field) >= 0 ? field : -1;
+    }
+
+    @Nullable
+    private static Object getValue(ResolvedExpression expression, LogicalType type) {
+        if (!(expression instanceof ValueLiteralExpression)) {
+            return null;
+        }
+        final ValueLiteralExpression literal = (ValueLiteralExpression) expression;
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+                return literal.getValueAs(String.class).orElse(null);
+            case BOOLEAN:
+                return literal.getValueAs(Boolean.class).orElse(null);
+            case TINYINT:
+                return literal.getValueAs(Byte.class).orElse(null);
+            case SMALLINT:
+                return literal.getValueAs(Short.class).orElse(null);
+            case INTEGER:
+                return literal.getValueAs(Integer.class).orElse(null);
+            case BIGINT:
+                return literal.getValueAs(Long.class).orElse(null);
+            default:
+                return null;
+        }
+    }
+
+    private static int indexOf(int[] fields, int field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == field) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.table.connector.ChangelogMode;
+import org.apache.flink.table.connector.format.DecodingFormat;
+import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.DataType;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Marks a decoding format that reads the fields of a message by name, so that its runtime decoder can
+ * be created for a subset of the fields and skips the others.
+ *
+ * <p>Formats of other types are given all the fields of the key or value and the unused fields are
+ * dropped after decoding, as formats may read their fields by position.
+ */
+class ProjectableDecodingFormat implements DecodingFormat<DeserializationSchema<RowData>> {
+
+    /** Identifiers of the formats that read their fields by name. */
+    private static final Set<String> PROJECTABLE_FORMATS = new HashSet<>(Arrays.asList(
+            "json",
+            "debezium-json",
+            "canal-json",
+            "maxwell-json"));
+
+    private final DecodingFormat<DeserializationSchema<RowData>> innerDecodingFormat;
+
+    ProjectableDecodingFormat(DecodingFormat<DeserializationSchema<RowData>> innerDecodingFormat) {
+        this.innerDecodingFormat = innerDecodingFormat;
+    }
+
+    static DecodingFormat<DeserializationSchema<RowData>> wrapIfProjectable(
+            DecodingFormat<DeserializationSchema<RowData>> decodingFormat,
+            String formatIdentifier) {
+        if (PROJECTABLE_FORMATS.contains(formatIdentifier)) {
+            return new ProjectableDecodingFormat(decodingFormat);
+        }
+        return decodingFormat;
+    }
+
+    @Override
+    public DeserializationSchema<RowData> createRuntimeDecoder(DynamicTableSource.Context context, DataType producedDataType) {
+        return innerDecodingFormat.createRuntimeDecoder(context, producedDataType);
+    }
+
+    @Override
+    public Map<String, DataType> listReadableMetadata() {
+        return innerDecodingFormat.listReadableMetadata();
+    }
+
+    @Override
+    public void applyReadableMetadata(List<String> metadataKeys) {
+        innerDecodingFormat.applyReadableMetadata(metadataKeys);
+    }
+
+    @Override
+    public ChangelogMode getChangelogMode() {
+        return innerDecodingFormat.getChangelogMode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ProjectableDecodingFormat that = (ProjectableDecodingFormat) obj;
+        return Objects.equals(innerDecodingFormat, that.innerDecodingFormat);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(innerDecodingFormat);
+    }
+}
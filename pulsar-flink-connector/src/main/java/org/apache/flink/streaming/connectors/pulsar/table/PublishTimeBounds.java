@@ -0,0 +1,219 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinition;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The range of publish times a table source reads, narrowed by the filters on the publish time
+ * metadata column. The lower bound becomes a seek of every partition by timestamp and the upper bound
+ * becomes a publish time stop condition.
+ *
+ * <p>The bounds are only used to skip messages, the filters are still applied to every row. Filters
+ * whose bound cannot be used by the source, because it does not start at the earliest message or is
+ * unbounded, are not taken.
+ *
+ * <p>Bounds are literals, which the planner reduces constant expressions to, or for lower bounds the
+ * current time plus or minus day-time intervals, such as {@code NOW() - INTERVAL '1' HOUR}. The current
+ * time is taken once when the source is planned. It only grows while the rows are filtered, so the
+ * planned lower bound never skips a row the filter accepts. Upper bounds relative to the current time
+ * would, and are not taken.
+ */
+@EqualsAndHashCode
+class PublishTimeBounds {
+
+    private final boolean seekable;
+
+    private final boolean stoppable;
+
+    /** The inclusive lower bound in epoch milliseconds, or null if the source reads from its startup position. */
+    @Nullable
+    private Long lowerBound;
+
+    /** The exclusive upper bound in epoch milliseconds, or null if the source reads until its bounded mode stops. */
+    @Nullable
+    private Long upperBound;
+
+    PublishTimeBounds(boolean seekable, boolean stoppable) {
+        this.seekable = seekable;
+        this.stoppable = stoppable;
+    }
+
+    @Nullable
+    Long getLowerBound() {
+        return lowerBound;
+    }
+
+    @Nullable
+    Long getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Narrows the bounds by a comparison of the publish time field with a timestamp literal, or with
+     * the current time plus or minus intervals for a lower bound.
+     *
+     * @param planningTime the current time in epoch milliseconds
+     * @return whether the filter narrowed the bounds
+     */
+    boolean addFilter(ResolvedExpression filter, String publishTimeField, long planningTime) {
+        if (!(filter instanceof CallExpression)) {
+            return false;
+        }
+        final CallExpression call = (CallExpression) filter;
+        final List<ResolvedExpression> args = call.getResolvedChildren();
+        if (args.size() != 2) {
+            return false;
+        }
+        FunctionDefinition function = call.getFunctionDefinition();
+        final ResolvedExpression bound;
+        if (isField(args.get(0), publishTimeField)) {
+            bound = args.get(1);
+        } else if (isField(args.get(1), publishTimeField)) {
+            bound = args.get(0);
+            function = reverse(function);
+        } else {
+            return false;
+        }
+        Instant timestamp = getTimestamp(bound);
+        if (timestamp == null) {
+            final boolean lowerBound = function == BuiltInFunctionDefinitions.GREATER_THAN
+                    || function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL;
+            timestamp = lowerBound ? getTimestampFromNow(bound, planningTime) : null;
+        }
+        if (timestamp == null) {
+            return false;
+        }
+
+        // publish times have a precision of milliseconds, rounding widens the bounds
+        final long millis = timestamp.toEpochMilli();
+        if (function == BuiltInFunctionDefinitions.GREATER_THAN
+                || function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+            return raiseLowerBound(millis);
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN
+                || function == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+            return lowerUpperBound(millis + 1);
+        } else if (function == BuiltInFunctionDefinitions.EQUALS) {
+            final boolean raised = raiseLowerBound(millis);
+            final boolean lowered = lowerUpperBound(millis + 1);
+            return raised || lowered;
+        }
+        return false;
+    }
+
+    private boolean raiseLowerBound(long millis) {
+        if (!seekable || (lowerBound != null && lowerBound >= millis)) {
+            return false;
+        }
+        lowerBound = millis;
+        return true;
+    }
+
+    private boolean lowerUpperBound(long millis) {
+        if (!stoppable || (upperBound != null && upperBound <= millis)) {
+            return false;
+        }
+        upperBound = millis;
+        return true;
+    }
+
+    private static boolean isField(ResolvedExpression expression, String field) {
+        return expression instanceof FieldReferenceExpression
+                && ((FieldReferenceExpression) expression).getName().equals(field);
+    }
+
+    @Nullable
+    private static Instant getTimestamp(ResolvedExpression expression) {
+        if (!(expression instanceof ValueLiteralExpression)) {
+            return null;
+        }
+        return ((ValueLiteralExpression) expression).getValueAs(Instant.class).orElse(null);
+    }
+
+    /**
+     * Evaluates {@code NOW()} or {@code CURRENT_TIMESTAMP} plus or minus day-time interval literals at
+     * the given time, or returns null for other expressions.
+     */
+    @Nullable
+    private static Instant getTimestampFromNow(ResolvedExpression expression, long planningTime) {
+        if (!(expression instanceof CallExpression)) {
+            return null;
+        }
+        final CallExpression call = (CallExpression) expression;
+        final FunctionDefinition function = call.getFunctionDefinition();
+        final List<ResolvedExpression> args = call.getResolvedChildren();
+        if (args.isEmpty() && isCurrentTimestamp(function)) {
+            return Instant.ofEpochMilli(planningTime);
+        }
+        if (args.size() != 2) {
+            return null;
+        }
+        if (function == BuiltInFunctionDefinitions.MINUS) {
+            final Instant timestamp = getTimestampFromNow(args.get(0), planningTime);
+            final Duration interval = getInterval(args.get(1));
+            return timestamp == null || interval == null ? null : timestamp.minus(interval);
+        } else if (function == BuiltInFunctionDefinitions.PLUS) {
+            Instant timestamp = getTimestampFromNow(args.get(0), planningTime);
+            Duration interval = getInterval(args.get(1));
+            if (timestamp == null) {
+                timestamp = getTimestampFromNow(args.get(1), planningTime);
+                interval = getInterval(args.get(0));
+            }
+            return timestamp == null || interval == null ? null : timestamp.plus(interval);
+        }
+        return null;
+    }
+
+    private static boolean isCurrentTimestamp(FunctionDefinition function) {
+        return function == BuiltInFunctionDefinitions.CURRENT_TIMESTAMP
+                || (function instanceof BuiltInFunctionDefinition
+                        && "now".equalsIgnoreCase(((BuiltInFunctionDefinition) function).getName()));
+    }
+
+    @Nullable
+    private static Duration getInterval(ResolvedExpression expression) {
+        if (!(expression instanceof ValueLiteralExpression)) {
+            return null;
+        }
+        return ((ValueLiteralExpression) expression).getValueAs(Duration.class).orElse(null);
+    }
+
+    private static FunctionDefinition reverse(FunctionDefinition function) {
+        if (function == BuiltInFunctionDefinitions.GREATER_THAN) {
+            return BuiltInFunctionDefinitions.LESS_THAN;
+        } else if (function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+            return BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL;
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN) {
+            return BuiltInFunctionDefinitions.GREATER_THAN;
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+            return BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL;
+        }
+        return function;
+    }
+}
@@ -54,6 +54,11 @@ import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOpti
 import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.PARTITION_DISCOVERY_INTERVAL_MILLIS;
 import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.PROPERTIES;
 import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.PROPERTIES_PREFIX;
+import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_BOUNDED_MODE;
+import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_BOUNDED_SPECIFIC_OFFSETS;
+import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_BOUNDED_TIMESTAMP_MILLIS;
+import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_KEY_SHARED_RANGES_ENABLED;
+import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_NEW_SOURCE_ENABLED;
 import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_STARTUP_MODE;
 import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_STARTUP_SPECIFIC_OFFSETS;
 import static org.apache.flink.streaming.connectors.pulsar.table.PulsarTableOptions.SCAN_STARTUP_SUB_NAME;
@@ -191,6 +196,9 @@ public class PulsarDynamicTableFactory implements
         final PulsarTableOptions.StartupOptions startupOptions = PulsarTableOptions
                 .getStartupOptions(tableOptions);
 
+        final PulsarTableOptions.BoundedOptions boundedOptions = PulsarTableOptions
+                .getBoundedOptions(tableOptions);
+
         final DataType physicalDataType = context.getCatalogTable().getSchema().toPhysicalRowDataType();
 
         final int[] keyProjection = createKeyFormatProjection(tableOptions, physicalDataType);
@@ -199,10 +207,17 @@ public class PulsarDynamicTableFactory implements
 
         final String keyPrefix = tableOptions.getOptional(KEY_FIELDS_PREFIX).orElse(null);
 
+        final String keyFormatType = tableOptions.get(KEY_FORMAT);
+        final String valueFormatType = tableOptions.getOptional(FORMAT).orElseGet(() -> tableOptions.get(VALUE_FORMAT));
+
         return createPulsarTableSource(
                 physicalDataType,
-                keyDecodingFormat.orElse(null),
-                valueDecodingFormat,
+                keyDecodingFormat
+                        .map(format -> ProjectableDecodingFormat.wrapIfProjectable(format, keyFormatType))
+                        .map(format -> HashableKeyDecodingFormat.wrapIfHashable(
+                                format, keyFormatType, context.getCatalogTable().getOptions()))
+                        .orElse(null),
+                ProjectableDecodingFormat.wrapIfProjectable(valueDecodingFormat, valueFormatType),
                 keyProjection,
                 valueProjection,
                 keyPrefix,
@@ -211,7 +226,8 @@ public class PulsarDynamicTableFactory implements
                 serviceUrl,
                 adminUrl,
                 properties,
-                startupOptions);
+                startupOptions,
+                boundedOptions);
     }
 
     @Override
@@ -242,6 +258,11 @@ public class PulsarDynamicTableFactory implements
         options.add(SCAN_STARTUP_SPECIFIC_OFFSETS);
         options.add(SCAN_STARTUP_SUB_NAME);
         options.add(SCAN_STARTUP_SUB_START_OFFSET);
+        options.add(SCAN_BOUNDED_MODE);
+        options.add(SCAN_BOUNDED_SPECIFIC_OFFSETS);
+        options.add(SCAN_BOUNDED_TIMESTAMP_MILLIS);
+        options.add(SCAN_NEW_SOURCE_ENABLED);
+        options.add(SCAN_KEY_SHARED_RANGES_ENABLED);
 
         options.add(PARTITION_DISCOVERY_INTERVAL_MILLIS);
         options.add(SINK_SEMANTIC);
@@ -330,7 +351,8 @@ public class PulsarDynamicTableFactory implements
             String serviceUrl,
             String adminUrl,
             Properties properties,
-            PulsarTableOptions.StartupOptions startupOptions) {
+            PulsarTableOptions.StartupOptions startupOptions,
+            PulsarTableOptions.BoundedOptions boundedOptions) {
         return new PulsarDynamicTableSource(
                 physicalDataType,
                 keyDecodingFormat,
@@ -344,6 +366,7 @@ public class PulsarDynamicTableFactory implements
                 adminUrl,
                 properties,
                 startupOptions,
+                boundedOptions,
                 false);
     }
 }
@@ -17,36 +17,56 @@ package org.apache.flink.streaming.connectors.pulsar.table;
 import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.MessageDeserializer;
+import org.apache.flink.connector.pulsar.source.PulsarSource;
+import org.apache.flink.connector.pulsar.source.PulsarSourceBuilder;
+import org.apache.flink.connector.pulsar.source.PulsarSourceOptions;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.StopCondition;
 import org.apache.flink.streaming.connectors.pulsar.FlinkPulsarSource;
+import org.apache.flink.streaming.connectors.pulsar.config.BoundedMode;
 import org.apache.flink.streaming.connectors.pulsar.config.StartupMode;
 import org.apache.flink.streaming.connectors.pulsar.internal.PulsarClientUtils;
+import org.apache.flink.streaming.connectors.pulsar.internal.PulsarOptions;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
 import org.apache.flink.streaming.util.serialization.PulsarDeserializationSchema;
 import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.connector.ChangelogMode;
 import org.apache.flink.table.connector.format.DecodingFormat;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.SourceFunctionProvider;
+import org.apache.flink.table.connector.source.SourceProvider;
+import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
+import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsReadingMetadata;
 import org.apache.flink.table.connector.source.abilities.SupportsWatermarkPushDown;
 import org.apache.flink.table.data.GenericMapData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.expressions.ResolvedExpression;
 import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.utils.LogicalTypeChecks;
 import org.apache.flink.table.types.utils.DataTypeUtils;
+import org.apache.flink.util.Collector;
 import org.apache.flink.util.Preconditions;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
+import org.apache.pulsar.common.naming.TopicName;
 import org.apache.pulsar.shade.org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -63,7 +83,8 @@ import static org.apache.flink.table.descriptors.PulsarValidator.CONNECTOR_START
  * pulsar dynamic table source.
  */
 @Slf4j
-public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadingMetadata, SupportsWatermarkPushDown {
+public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadingMetadata, SupportsWatermarkPushDown,
+        SupportsProjectionPushDown, SupportsFilterPushDown {
 
     // --------------------------------------------------------------------------------------------
     // Mutable attributes
@@ -75,6 +96,16 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
     /** Metadata that is appended at the end of a physical source row. */
     protected List<String> metadataKeys;
 
+    /** Indices of the physical fields in the order of the produced row, or null if all fields are produced. */
+    protected @Nullable
+    int[] projectedFields;
+
+    /** Range of publish times that is read, narrowed by the pushed-down filters. */
+    protected PublishTimeBounds publishTimeBounds;
+
+    /** Values of the key fields that are read, restricted by the pushed-down filters. */
+    protected KeyFilter keyFilter;
+
     /** Watermark strategy that is used to generate per-partition watermark. */
     protected @Nullable
     WatermarkStrategy<RowData> watermarkStrategy;
@@ -138,6 +169,11 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
      */
     protected final PulsarTableOptions.StartupOptions startupOptions;
 
+    /**
+     * The bounded mode of the source, which reads with the FLIP-27 {@link PulsarSource} when bounded.
+     */
+    protected final PulsarTableOptions.BoundedOptions boundedOptions;
+
     /**
      * The default value when startup timestamp is not used.
      */
@@ -160,6 +196,37 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
             Properties properties,
             PulsarTableOptions.StartupOptions startupOptions,
             boolean upsertMode) {
+        this(physicalDataType,
+                keyDecodingFormat,
+                valueDecodingFormat,
+                keyProjection,
+                valueProjection,
+                keyPrefix,
+                topics,
+                topicPattern,
+                serviceUrl,
+                adminUrl,
+                properties,
+                startupOptions,
+                new PulsarTableOptions.BoundedOptions(),
+                upsertMode);
+    }
+
+    public PulsarDynamicTableSource(
+            DataType physicalDataType,
+            @Nullable DecodingFormat<DeserializationSchema<RowData>> keyDecodingFormat,
+            DecodingFormat<DeserializationSchema<RowData>> valueDecodingFormat,
+            int[] keyProjection,
+            int[] valueProjection,
+            @Nullable String keyPrefix,
+            List<String> topics,
+            String topicPattern,
+            String serviceUrl,
+            String adminUrl,
+            Properties properties,
+            PulsarTableOptions.StartupOptions startupOptions,
+            PulsarTableOptions.BoundedOptions boundedOptions,
+            boolean upsertMode) {
         this.producedDataType = physicalDataType;
         setTopicInfo(properties, topics, topicPattern);
 
@@ -174,6 +241,8 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
         // Mutable attributes
         this.producedDataType = physicalDataType;
         this.metadataKeys = new ArrayList<>();
+        this.publishTimeBounds = new PublishTimeBounds(false, false);
+        this.keyFilter = new KeyFilter();
         this.watermarkStrategy = null;
         // Pulsar-specific attributes
         Preconditions.checkArgument((topics != null && topicPattern == null) ||
@@ -185,6 +254,7 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
         this.serviceUrl = serviceUrl;
         this.properties = Preconditions.checkNotNull(properties, "Properties must not be null.");
         this.startupOptions = startupOptions;
+        this.boundedOptions = Preconditions.checkNotNull(boundedOptions, "Bounded options must not be null.");
         this.upsertMode = upsertMode;
     }
 
@@ -214,16 +284,41 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
     @Override
     public ScanRuntimeProvider getScanRuntimeProvider(ScanContext context) {
 
-        final DeserializationSchema<RowData> keyDeserialization =
-                createDeserialization(context, keyDecodingFormat, keyProjection, keyPrefix);
+        final int[] physicalProjection = getPhysicalProjection();
+
+        // upsert mode needs all key fields for deletions, otherwise keys are only decoded if they are produced
+        final int[] keyFormatProjection;
+        if (upsertMode) {
+            keyFormatProjection = keyProjection;
+        } else if (IntStream.of(keyProjection).anyMatch(field -> indexOf(physicalProjection, field) >= 0)) {
+            keyFormatProjection = createFormatProjection(keyDecodingFormat, keyProjection, physicalProjection);
+        } else {
+            keyFormatProjection = new int[0];
+        }
+        final int[] valueFormatProjection =
+                createFormatProjection(valueDecodingFormat, valueProjection, physicalProjection);
+
+        final DeserializationSchema<RowData> keyDeserialization = keyFormatProjection.length == 0
+                ? null
+                : createDeserialization(context, keyDecodingFormat, keyFormatProjection, keyPrefix);
 
         final DeserializationSchema<RowData> valueDeserialization =
-                createDeserialization(context, valueDecodingFormat, valueProjection, "");
+                createDeserialization(context, valueDecodingFormat, valueFormatProjection, "");
+        final KeyFilter runtimeKeyFilter = keyDeserialization == null || keyFilter.isEmpty()
+                ? null
+                : keyFilter.project(keyFormatProjection);
         final TypeInformation<RowData> producedTypeInfo =
                 context.createTypeInformation(producedDataType);
         PulsarDeserializationSchema<RowData> deserializationSchema = createPulsarDeserialization(keyDeserialization,
+                keyFormatProjection,
+                runtimeKeyFilter,
                 valueDeserialization,
+                valueFormatProjection,
+                physicalProjection,
                 producedTypeInfo);
+        if (boundedOptions.newSourceEnabled) {
+            return SourceProvider.of(createPulsarSource(deserializationSchema));
+        }
         final ClientConfigurationData clientConfigurationData = PulsarClientUtils.newClientConf(serviceUrl, properties);
         FlinkPulsarSource<RowData> source = new FlinkPulsarSource<>(
                 adminUrl,
@@ -256,9 +351,116 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
         return SourceFunctionProvider.of(source, false);
     }
 
+    private PulsarSource<RowData> createPulsarSource(PulsarDeserializationSchema<RowData> deserializationSchema) {
+        if (watermarkStrategy != null) {
+            // the planner of Flink 1.13 creates a SourceProvider's source without watermarks
+            throw new TableException("The FLIP-27 Pulsar source does not support watermarks pushed into the source.");
+        }
+        final ClientConfigurationData clientConfigurationData = PulsarClientUtils.newClientConf(serviceUrl, properties);
+        final PulsarSourceBuilder<RowData> builder = PulsarSource.<RowData>builder()
+                .setDeserializer(new RowDataMessageDeserializer(deserializationSchema))
+                .configurePulsarClient(conf -> {
+                    conf.setServiceUrl(clientConfigurationData.getServiceUrl());
+                    conf.setAuthPluginClassName(clientConfigurationData.getAuthPluginClassName());
+                    conf.setAuthParams(clientConfigurationData.getAuthParams());
+                })
+                .configure(conf -> {
+                    conf.set(PulsarSourceOptions.ADMIN_URL, adminUrl);
+                    String discoveryInterval = properties.getProperty(
+                            PulsarOptions.PARTITION_DISCOVERY_INTERVAL_MS_OPTION_KEY);
+                    if (discoveryInterval != null) {
+                        conf.set(PulsarSourceOptions.PARTITION_DISCOVERY_INTERVAL_MS, Long.parseLong(discoveryInterval));
+                    }
+                });
+
+        if (topicPattern != null) {
+            final TopicName pattern = TopicName.get(topicPattern);
+            builder.setTopicPattern(pattern.getNamespace(), Collections.singleton(pattern.getLocalName()));
+        } else {
+            builder.setTopics(topics.stream().map(topic -> TopicName.get(topic).toString()).toArray(String[]::new));
+        }
+
+        final List<SerializableRange> keyHashRanges = getKeyHashRanges();
+        if (keyHashRanges != null) {
+            // the brokers only dispatch the messages in the sticky hash ranges of a Key_Shared subscription
+            builder.setKeyHashRanges(keyHashRanges);
+        }
+
+        final Long lowerBound = publishTimeBounds.getLowerBound();
+        final Long upperBound = publishTimeBounds.getUpperBound();
+        switch (startupOptions.startupMode) {
+            case EARLIEST:
+                if (lowerBound != null) {
+                    builder.startAt(StartOffsetInitializer.timestamps(lowerBound));
+                    // a partition without messages after the pushed-down bound has nothing to read, no data was lost
+                    builder.configure(conf -> conf.set(
+                            PulsarSourceOptions.VERIFY_INITIAL_OFFSETS, PulsarSourceOptions.OffsetVerification.IGNORE));
+                } else {
+                    builder.startAt(StartOffsetInitializer.earliest());
+                }
+                break;
+            case LATEST:
+                builder.startAt(StartOffsetInitializer.latest());
+                break;
+            case EXTERNAL_SUBSCRIPTION:
+                MessageId subscriptionPosition = MessageId.latest;
+                if (CONNECTOR_STARTUP_MODE_VALUE_EARLIEST.equals(startupOptions.externalSubStartOffset)) {
+                    subscriptionPosition = MessageId.earliest;
+                }
+                builder.startAt(StartOffsetInitializer.committedOffsets(
+                        startupOptions.externalSubscriptionName, subscriptionPosition));
+                break;
+            default:
+                throw new TableException("Unsupported startup mode for the FLIP-27 Pulsar source: "
+                        + startupOptions.startupMode);
+        }
+
+        switch (boundedOptions.boundedMode) {
+            case LATEST:
+                // the publish time stop condition stops after the last message as well
+                builder.stopAt(upperBound != null
+                        ? StopCondition.stopAtPublishTime(upperBound)
+                        : StopCondition.stopAfterLast());
+                break;
+            case TIMESTAMP:
+                builder.stopAt(StopCondition.stopAtPublishTime(upperBound != null
+                        ? Math.min(upperBound, boundedOptions.boundedTimestampMillis)
+                        : boundedOptions.boundedTimestampMillis));
+                break;
+            case SPECIFIC_OFFSETS:
+                builder.stopAt(StopCondition.stopAtPartitionIndexMessageIds(
+                        new HashMap<>(boundedOptions.specificOffsets)));
+                break;
+            case UNBOUNDED:
+                break;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the Key_Shared hash of each filtered key as a range, or null if all keys are read.
+     *
+     * <p>The ranges are only subscribed to if enabled, and the hashes are only known for a single key
+     * field whose format is hashable. Bounded tables read all keys, as their stop conditions wait for
+     * the last message of a partition, which may have another key. A committed subscription is only
+     * resumed for all keys.
+     */
+    private @Nullable
+    List<SerializableRange> getKeyHashRanges() {
+        if (!boundedOptions.keySharedRangesEnabled
+                || !(keyDecodingFormat instanceof HashableKeyDecodingFormat)
+                || keyProjection.length != 1
+                || boundedOptions.boundedMode != BoundedMode.UNBOUNDED
+                || startupOptions.startupMode == StartupMode.EXTERNAL_SUBSCRIPTION) {
+            return null;
+        }
+        return keyFilter.getKeyHashRanges(keyProjection[0]);
+    }
+
     private PulsarDeserializationSchema<RowData> createPulsarDeserialization(
-            DeserializationSchema<RowData> keyDeserialization, DeserializationSchema<RowData> valueDeserialization,
-            TypeInformation<RowData> producedTypeInfo) {
+            DeserializationSchema<RowData> keyDeserialization, int[] keyFormatProjection, @Nullable KeyFilter keyFilter,
+            DeserializationSchema<RowData> valueDeserialization, int[] valueFormatProjection,
+            int[] physicalProjection, TypeInformation<RowData> producedTypeInfo) {
         final DynamicPulsarDeserializationSchema.MetadataConverter[] metadataConverters = metadataKeys.stream()
                 .map(k ->
                         Stream.of(ReadableMetadata.values())
@@ -274,16 +476,22 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
         // adjust physical arity with value format's metadata
         final int adjustedPhysicalArity = producedDataType.getChildren().size() - metadataKeys.size();
 
+        // map the decoded key and value fields to their positions in the produced row
+        final int[] adjustedKeyProjection = IntStream.of(keyFormatProjection)
+                .map(field -> indexOf(physicalProjection, field))
+                .toArray();
+
         // adjust value format projection to include value format's metadata columns at the end
         final int[] adjustedValueProjection = IntStream.concat(
-                IntStream.of(valueProjection),
-                IntStream.range(keyProjection.length + valueProjection.length, adjustedPhysicalArity))
+                IntStream.of(valueFormatProjection).map(field -> indexOf(physicalProjection, field)),
+                IntStream.range(physicalProjection.length, adjustedPhysicalArity))
                 .toArray();
 
         return new DynamicPulsarDeserializationSchema(
                 adjustedPhysicalArity,
                 keyDeserialization,
-                keyProjection,
+                adjustedKeyProjection,
+                keyFilter,
                 valueDeserialization,
                 adjustedValueProjection,
                 hasMetadata,
@@ -307,9 +515,13 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
                 adminUrl,
                 properties,
                 startupOptions,
-                false);
+                boundedOptions,
+                upsertMode);
         copy.producedDataType = producedDataType;
         copy.metadataKeys = metadataKeys;
+        copy.projectedFields = projectedFields;
+        copy.publishTimeBounds = publishTimeBounds;
+        copy.keyFilter = keyFilter;
         copy.watermarkStrategy = watermarkStrategy;
         return copy;
     }
@@ -336,6 +548,9 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
         PulsarDynamicTableSource that = (PulsarDynamicTableSource) o;
         return upsertMode == that.upsertMode && Objects.equals(producedDataType, that.producedDataType) &&
                 Objects.equals(metadataKeys, that.metadataKeys) &&
+                Arrays.equals(projectedFields, that.projectedFields) &&
+                Objects.equals(publishTimeBounds, that.publishTimeBounds) &&
+                Objects.equals(keyFilter, that.keyFilter) &&
                 Objects.equals(watermarkStrategy, that.watermarkStrategy) &&
                 Objects.equals(physicalDataType, that.physicalDataType) &&
                 Objects.equals(keyDecodingFormat, that.keyDecodingFormat) &&
@@ -347,18 +562,20 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
                 Objects.equals(serviceUrl, that.serviceUrl) &&
                 Objects.equals(adminUrl, that.adminUrl) &&
                 Objects.equals(new HashMap<>(properties), new HashMap<>(that.properties)) &&
-                Objects.equals(startupOptions, that.startupOptions);
+                Objects.equals(startupOptions, that.startupOptions) &&
+                Objects.equals(boundedOptions, that.boundedOptions);
     }
 
     @Override
     public int hashCode() {
         int result =
-                Objects.hash(producedDataType, metadataKeys, watermarkStrategy, physicalDataType, keyDecodingFormat,
-                        valueDecodingFormat, keyPrefix, topics, topicPattern, serviceUrl, adminUrl, properties,
-                        startupOptions,
+                Objects.hash(producedDataType, metadataKeys, publishTimeBounds, keyFilter, watermarkStrategy, physicalDataType,
+                        keyDecodingFormat, valueDecodingFormat, keyPrefix, topics, topicPattern, serviceUrl, adminUrl, properties,
+                        startupOptions, boundedOptions,
                         upsertMode);
         result = 31 * result + Arrays.hashCode(keyProjection);
         result = 31 * result + Arrays.hashCode(valueProjection);
+        result = 31 * result + Arrays.hashCode(projectedFields);
         return result;
     }
 
@@ -425,6 +642,125 @@ public class PulsarDynamicTableSource implements ScanTableSource, SupportsReadin
         this.watermarkStrategy = watermarkStrategy;
     }
 
+    @Override
+    public boolean supportsNestedProjection() {
+        // the planner produces nested fields as top-level fields, which the formats cannot decode
+        return false;
+    }
+
+    @Override
+    public void applyProjection(int[][] projectedFields) {
+        this.projectedFields = Stream.of(projectedFields).mapToInt(path -> path[0]).toArray();
+        this.producedDataType = DataTypeUtils.projectRow(physicalDataType, this.projectedFields);
+    }
+
+    @Override
+    public Result applyFilters(List<ResolvedExpression> filters) {
+        // the FLIP-27 source seeks partitions by timestamp, but can only skip messages it would read otherwise
+        final PublishTimeBounds bounds = new PublishTimeBounds(
+                boundedOptions.newSourceEnabled && startupOptions.startupMode == StartupMode.EARLIEST,
+                boundedOptions.boundedMode == BoundedMode.LATEST || boundedOptions.boundedMode == BoundedMode.TIMESTAMP);
+        // messages with other keys are dropped before their values are decoded
+        final KeyFilter keyFilter = new KeyFilter();
+        final RowType physicalType = (RowType) physicalDataType.getLogicalType();
+        final List<ResolvedExpression> acceptedFilters = new ArrayList<>();
+        final String publishTimeField = getMetadataFieldName(ReadableMetadata.PUBLISH_TIME.key);
+        // bounds relative to the current time are evaluated once, when the source is planned
+        final long planningTime = System.currentTimeMillis();
+        for (ResolvedExpression filter : filters) {
+            final boolean bounded = publishTimeField != null && bounds.addFilter(filter, publishTimeField, planningTime);
+            final boolean keyed = keyFilter.addFilter(filter, physicalType, keyProjection);
+            if (bounded || keyed) {
+                acceptedFilters.add(filter);
+            }
+        }
+        this.publishTimeBounds = bounds;
+        this.keyFilter = keyFilter;
+        // publish times of different producers are not strictly ordered, so all filters are still applied
+        return Result.of(acceptedFilters, filters);
+    }
+
+    /**
+     * Returns the name of the column of a connector metadata key, or null if the metadata is not read.
+     */
+    private @Nullable
+    String getMetadataFieldName(String metadataKey) {
+        final int index = metadataKeys.indexOf(metadataKey);
+        if (index < 0) {
+            return null;
+        }
+        final List<String> fieldNames = LogicalTypeChecks.getFieldNames(producedDataType.getLogicalType());
+        return fieldNames.get(fieldNames.size() - metadataKeys.size() + index);
+    }
+
+    private int[] getPhysicalProjection() {
+        if (projectedFields != null) {
+            return projectedFields;
+        }
+        return IntStream.range(0, physicalDataType.getChildren().size()).toArray();
+    }
+
+    /**
+     * Returns the fields a format decodes: only the produced fields if the format reads its fields by name,
+     * otherwise all fields of the key or value.
+     */
+    private static int[] createFormatProjection(
+            @Nullable DecodingFormat<DeserializationSchema<RowData>> format,
+            int[] projection,
+            int[] physicalProjection) {
+        if (!(format instanceof ProjectableDecodingFormat)) {
+            return projection;
+        }
+        return IntStream.of(projection)
+                .filter(field -> indexOf(physicalProjection, field) >= 0)
+                .toArray();
+    }
+
+    private static int indexOf(int[] fields, int field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == field) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the messages of the FLIP-27 {@link PulsarSource} with the deserialization schema of the table.
+     */
+    private static class RowDataMessageDeserializer implements MessageDeserializer<RowData> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PulsarDeserializationSchema<RowData> deserializationSchema;
+
+        RowDataMessageDeserializer(PulsarDeserializationSchema<RowData> deserializationSchema) {
+            this.deserializationSchema = deserializationSchema;
+        }
+
+        @Override
+        public void open(DeserializationSchema.InitializationContext context) throws Exception {
+            deserializationSchema.open(context);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void deserialize(Message<?> message, Collector<RowData> collector) throws IOException {
+            // the table schema only reads the raw key and payload of the message
+            deserializationSchema.deserialize((Message<RowData>) message, collector);
+        }
+
+        @Override
+        public boolean isEndOfStream(RowData nextElement) {
+            return deserializationSchema.isEndOfStream(nextElement);
+        }
+
+        @Override
+        public TypeInformation<RowData> getProducedType() {
+            return deserializationSchema.getProducedType();
+        }
+    }
+
     // --------------------------------------------------------------------------------------------
     // Metadata handling
     // --------------------------------------------------------------------------------------------
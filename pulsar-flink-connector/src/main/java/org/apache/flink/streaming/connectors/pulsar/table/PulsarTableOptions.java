@@ -17,6 +17,7 @@ package org.apache.flink.streaming.connectors.pulsar.table;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
 import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.streaming.connectors.pulsar.config.BoundedMode;
 import org.apache.flink.streaming.connectors.pulsar.config.StartupMode;
 import org.apache.flink.streaming.connectors.pulsar.util.KeyHashMessageRouterImpl;
 import org.apache.flink.table.api.TableException;
@@ -188,6 +189,45 @@ public class PulsarTableOptions {
             .noDefaultValue()
             .withDescription("Optional discovery topic interval of \"interval-millis\" millis");
 
+    public static final ConfigOption<String> SCAN_BOUNDED_MODE = ConfigOptions
+            .key("scan.bounded.mode")
+            .stringType()
+            .defaultValue("unbounded")
+            .withDescription("Optional bounded mode for Pulsar source, valid enumerations are "
+                    + "\"unbounded\", \"latest\", \"timestamp\",\n"
+                    + "or \"specific-offsets\". A bounded source reads with the FLIP-27 Pulsar source "
+                    + "and can run in batch execution mode");
+
+    public static final ConfigOption<String> SCAN_BOUNDED_SPECIFIC_OFFSETS = ConfigOptions
+            .key("scan.bounded.specific-offsets")
+            .stringType()
+            .noDefaultValue()
+            .withDescription("Optional offsets used in case of \"specific-offsets\" bounded mode, "
+                    + "the source stops before these offsets");
+
+    public static final ConfigOption<Long> SCAN_BOUNDED_TIMESTAMP_MILLIS = ConfigOptions
+            .key("scan.bounded.timestamp-millis")
+            .longType()
+            .noDefaultValue()
+            .withDescription("Optional publish timestamp used in case of \"timestamp\" bounded mode, "
+                    + "the source stops before the first message published at or after it");
+
+    public static final ConfigOption<Boolean> SCAN_NEW_SOURCE_ENABLED = ConfigOptions
+            .key("scan.new-source.enabled")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription("Optional flag to read an unbounded table with the FLIP-27 Pulsar source "
+                    + "instead of the legacy source function");
+
+    public static final ConfigOption<Boolean> SCAN_KEY_SHARED_RANGES_ENABLED = ConfigOptions
+            .key("scan.key-shared-ranges.enabled")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription("Optional flag to let the FLIP-27 Pulsar source subscribe as Key_Shared to the hash "
+                    + "of each key that '=' or 'IN' filters restrict a single raw string key field to, so that "
+                    + "the brokers do not dispatch messages with other keys. Only applies to unbounded tables. "
+                    + "Messages with an ordering key are dispatched by the hash of their ordering key and may be missed");
+
     // --------------------------------------------------------------------------------------------
     // Sink specific options
     // --------------------------------------------------------------------------------------------
@@ -230,6 +270,18 @@ public class PulsarTableOptions {
             SCAN_STARTUP_MODE_VALUE_EXTERNAL_SUBSCRIPTION,
             SCAN_STARTUP_MODE_VALUE_SPECIFIC_OFFSETS));
 
+    // Bounded mode.
+    public static final String SCAN_BOUNDED_MODE_VALUE_UNBOUNDED = "unbounded";
+    public static final String SCAN_BOUNDED_MODE_VALUE_LATEST = "latest";
+    public static final String SCAN_BOUNDED_MODE_VALUE_TIMESTAMP = "timestamp";
+    public static final String SCAN_BOUNDED_MODE_VALUE_SPECIFIC_OFFSETS = "specific-offsets";
+
+    private static final Set<String> SCAN_BOUNDED_MODE_ENUMS = new HashSet<>(Arrays.asList(
+            SCAN_BOUNDED_MODE_VALUE_UNBOUNDED,
+            SCAN_BOUNDED_MODE_VALUE_LATEST,
+            SCAN_BOUNDED_MODE_VALUE_TIMESTAMP,
+            SCAN_BOUNDED_MODE_VALUE_SPECIFIC_OFFSETS));
+
     // Sink partitioner.
     public static final String SINK_MESSAGE_ROUTER_VALUE_KEY_HASH = "key-hash";
     public static final String SINK_MESSAGE_ROUTER_VALUE_ROUND_ROBIN = "round-robin";
@@ -263,6 +315,7 @@ public class PulsarTableOptions {
     public static void validateTableSourceOptions(ReadableConfig tableOptions) {
         validateSourceTopic(tableOptions);
         validateScanStartupMode(tableOptions);
+        validateScanBoundedMode(tableOptions);
     }
 
     public static void validateSourceTopic(ReadableConfig tableOptions) {
@@ -311,6 +364,59 @@ public class PulsarTableOptions {
                 });
     }
 
+    private static void validateScanBoundedMode(ReadableConfig tableOptions) {
+        tableOptions.getOptional(SCAN_BOUNDED_MODE)
+                .map(String::toLowerCase)
+                .ifPresent(mode -> {
+                    if (!SCAN_BOUNDED_MODE_ENUMS.contains(mode)) {
+                        throw new ValidationException(
+                                String.format("Invalid value for option '%s'. Supported values are %s, but was: %s",
+                                        SCAN_BOUNDED_MODE.key(),
+                                        "[unbounded, latest, timestamp, specific-offsets]",
+                                        mode));
+                    }
+
+                    if (mode.equals(SCAN_BOUNDED_MODE_VALUE_TIMESTAMP)) {
+                        if (!tableOptions.getOptional(SCAN_BOUNDED_TIMESTAMP_MILLIS).isPresent()) {
+                            throw new ValidationException(String.format("'%s' is required in '%s' bounded mode"
+                                            + " but missing.",
+                                    SCAN_BOUNDED_TIMESTAMP_MILLIS.key(),
+                                    SCAN_BOUNDED_MODE_VALUE_TIMESTAMP));
+                        }
+                    }
+                    if (mode.equals(SCAN_BOUNDED_MODE_VALUE_SPECIFIC_OFFSETS)) {
+                        if (!tableOptions.getOptional(SCAN_BOUNDED_SPECIFIC_OFFSETS).isPresent()) {
+                            throw new ValidationException(String.format("'%s' is required in '%s' bounded mode"
+                                            + " but missing.",
+                                    SCAN_BOUNDED_SPECIFIC_OFFSETS.key(),
+                                    SCAN_BOUNDED_MODE_VALUE_SPECIFIC_OFFSETS));
+                        }
+                        String specificOffsets = tableOptions.get(SCAN_BOUNDED_SPECIFIC_OFFSETS);
+                        parseSpecificOffsets(specificOffsets, SCAN_BOUNDED_SPECIFIC_OFFSETS.key());
+                    }
+                });
+
+        boolean newSource = !SCAN_BOUNDED_MODE_VALUE_UNBOUNDED.equalsIgnoreCase(tableOptions.get(SCAN_BOUNDED_MODE))
+                || tableOptions.get(SCAN_NEW_SOURCE_ENABLED);
+        if (newSource && SCAN_STARTUP_MODE_VALUE_SPECIFIC_OFFSETS.equalsIgnoreCase(tableOptions.get(SCAN_STARTUP_MODE))) {
+            // the FLIP-27 source keys start offsets by partition and key range rather than by partition index
+            throw new ValidationException(String.format("'%s' startup mode is not supported by the "
+                            + "FLIP-27 Pulsar source, which is used when '%s' is not '%s' or '%s' is enabled.",
+                    SCAN_STARTUP_MODE_VALUE_SPECIFIC_OFFSETS,
+                    SCAN_BOUNDED_MODE.key(),
+                    SCAN_BOUNDED_MODE_VALUE_UNBOUNDED,
+                    SCAN_NEW_SOURCE_ENABLED.key()));
+        }
+        if (!newSource && tableOptions.get(SCAN_KEY_SHARED_RANGES_ENABLED)) {
+            throw new ValidationException(String.format("'%s' is only supported by the FLIP-27 Pulsar source, "
+                            + "which is used when '%s' is not '%s' or '%s' is enabled.",
+                    SCAN_KEY_SHARED_RANGES_ENABLED.key(),
+                    SCAN_BOUNDED_MODE.key(),
+                    SCAN_BOUNDED_MODE_VALUE_UNBOUNDED,
+                    SCAN_NEW_SOURCE_ENABLED.key()));
+        }
+    }
+
     public static void validateTableSinkOptions(ReadableConfig tableOptions) {
         validateSinkTopic(tableOptions);
         validateSinkSemantic(tableOptions);
@@ -494,6 +600,39 @@ public class PulsarTableOptions {
 
     }
 
+    public static BoundedOptions getBoundedOptions(ReadableConfig tableOptions) {
+        final BoundedOptions options = new BoundedOptions();
+        switch (tableOptions.get(SCAN_BOUNDED_MODE).toLowerCase()) {
+            case SCAN_BOUNDED_MODE_VALUE_UNBOUNDED:
+                options.boundedMode = BoundedMode.UNBOUNDED;
+                break;
+
+            case SCAN_BOUNDED_MODE_VALUE_LATEST:
+                options.boundedMode = BoundedMode.LATEST;
+                break;
+
+            case SCAN_BOUNDED_MODE_VALUE_TIMESTAMP:
+                options.boundedMode = BoundedMode.TIMESTAMP;
+                options.boundedTimestampMillis = tableOptions.get(SCAN_BOUNDED_TIMESTAMP_MILLIS);
+                break;
+
+            case SCAN_BOUNDED_MODE_VALUE_SPECIFIC_OFFSETS:
+                final Map<Integer, String> offsetList = parseSpecificOffsets(
+                        tableOptions.get(SCAN_BOUNDED_SPECIFIC_OFFSETS),
+                        SCAN_BOUNDED_SPECIFIC_OFFSETS.key());
+                offsetList.forEach((partition, offset) -> options.specificOffsets.put(partition, parseMessageId(offset)));
+                options.boundedMode = BoundedMode.SPECIFIC_OFFSETS;
+                break;
+
+            default:
+                throw new TableException("Unsupported bounded mode. Validator should have checked that.");
+        }
+        options.newSourceEnabled = options.boundedMode != BoundedMode.UNBOUNDED
+                || tableOptions.get(SCAN_NEW_SOURCE_ENABLED);
+        options.keySharedRangesEnabled = tableOptions.get(SCAN_KEY_SHARED_RANGES_ENABLED);
+        return options;
+    }
+
     private static MessageIdImpl parseMessageId(String offset) {
         final String[] split = offset.split(":");
         return new MessageIdImpl(
@@ -685,6 +824,18 @@ public class PulsarTableOptions {
         public String externalSubStartOffset;
     }
 
+    /**
+     * pulsar bounded options.
+     **/
+    @EqualsAndHashCode
+    public static class BoundedOptions {
+        public BoundedMode boundedMode = BoundedMode.UNBOUNDED;
+        public Map<Integer, MessageId> specificOffsets = new HashMap<>();
+        public long boundedTimestampMillis;
+        public boolean newSourceEnabled;
+        public boolean keySharedRangesEnabled;
+    }
+
     /**
      * Strategies to derive the data type of a value format by considering a key format.
      */
@@ -39,7 +39,7 @@ public class FlinkSchema<T> implements Schema<T>, Serializable {
                        DeserializationSchema<T> deserializer) {
         this.schemaInfo = schemaInfo;
         this.serializer = serializer;
-        this.deserializer = ThreadSafeDeserializationSchema.of(deserializer);
+        this.deserializer = ThreadLocalDeserializationSchema.of(deserializer);
     }
 
     @Override
@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.util.serialization;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.SerializedValue;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link DeserializationSchema} that gives every reader thread its own copy of the wrapped schema,
+ * so messages of different partitions can be decoded in parallel without a global lock.
+ *
+ * <p>The copies are created from the serialized form of the wrapped schema on first use in a thread
+ * and opened with the context passed to {@link #open(InitializationContext)}. They are loaded with the
+ * user code class loader of that context, or with the context class loader of the opening thread if
+ * the wrapper is used without being opened. Schemas that cannot be serialized fall back to the
+ * synchronized {@link ThreadSafeDeserializationSchema}. A wrapped {@link ByteBufferDeserializationSchema}
+ * keeps reading from the message buffer.
+ */
+@Slf4j
+public class ThreadLocalDeserializationSchema<T> implements DeserializationSchema<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DeserializationSchema<T> deserializationSchema;
+
+    private final SerializedValue<DeserializationSchema<T>> serializedSchema;
+
+    private transient volatile InitializationContext context;
+
+    private transient volatile ClassLoader userCodeClassLoader;
+
+    private transient ThreadLocal<DeserializationSchema<T>> threadLocalSchema;
+
+    private ThreadLocalDeserializationSchema(
+            DeserializationSchema<T> deserializationSchema,
+            SerializedValue<DeserializationSchema<T>> serializedSchema) {
+        this.deserializationSchema = deserializationSchema;
+        this.serializedSchema = serializedSchema;
+        this.threadLocalSchema = new ThreadLocal<>();
+        this.userCodeClassLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    /**
+     * Wraps the given schema so that it can be shared by reader threads. Already wrapped schemas are
+     * returned as they are, schemas that cannot be duplicated are wrapped by {@link ThreadSafeDeserializationSchema}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DeserializationSchema<T> of(DeserializationSchema<T> deserializationSchema) {
+        if (deserializationSchema == null
+                || deserializationSchema instanceof ThreadLocalDeserializationSchema
+                || deserializationSchema instanceof ThreadSafeDeserializationSchema) {
+            return deserializationSchema;
+        }
+        try {
+            SerializedValue<DeserializationSchema<T>> serializedSchema = new SerializedValue<>(deserializationSchema);
+            if (deserializationSchema instanceof ByteBufferDeserializationSchema) {
+                return new ByteBufferThreadLocalDeserializationSchema<>(deserializationSchema, serializedSchema);
+            }
+            return new ThreadLocalDeserializationSchema<>(deserializationSchema, serializedSchema);
+        } catch (IOException e) {
+            log.warn("{} can not be duplicated per thread, falling back to synchronized deserialization",
+                    deserializationSchema.getClass().getName(), e);
+            return ThreadSafeDeserializationSchema.of(deserializationSchema);
+        }
+    }
+
+    @Override
+    public void open(InitializationContext context) throws Exception {
+        this.userCodeClassLoader = context.getUserCodeClassLoader().asClassLoader();
+        this.context = context;
+    }
+
+    @Override
+    public T deserialize(byte[] message) throws IOException {
+        return getThreadLocalSchema().deserialize(message);
+    }
+
+    @Override
+    public void deserialize(byte[] message, Collector<T> out) throws IOException {
+        getThreadLocalSchema().deserialize(message, out);
+    }
+
+    @Override
+    public boolean isEndOfStream(T nextElement) {
+        return deserializationSchema.isEndOfStream(nextElement);
+    }
+
+    @Override
+    public TypeInformation<T> getProducedType() {
+        return deserializationSchema.getProducedType();
+    }
+
+    private DeserializationSchema<T> getThreadLocalSchema() throws IOException {
+        DeserializationSchema<T> schema = threadLocalSchema.get();
+        if (schema == null) {
+            try {
+                schema = serializedSchema.deserializeValue(userCodeClassLoader);
+                if (context != null) {
+                    schema.open(context);
+                }
+            } catch (Exception e) {
+                throw new IOException("Failed to create a copy of " + deserializationSchema.getClass().getName()
+                        + " for thread " + Thread.currentThread().getName(), e);
+            }
+            threadLocalSchema.set(schema);
+        }
+        return schema;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.threadLocalSchema = new ThreadLocal<>();
+        this.userCodeClassLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    /**
+     * Per-thread copies of a {@link ByteBufferDeserializationSchema}.
+     */
+    private static class ByteBufferThreadLocalDeserializationSchema<T>
+            extends ThreadLocalDeserializationSchema<T> implements ByteBufferDeserializationSchema<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private ByteBufferThreadLocalDeserializationSchema(
+                DeserializationSchema<T> deserializationSchema,
+                SerializedValue<DeserializationSchema<T>> serializedSchema) {
+            super(deserializationSchema, serializedSchema);
+        }
+
+        @Override
+        public T deserialize(ByteBuffer message) throws IOException {
+            return ((ByteBufferDeserializationSchema<T>) super.getThreadLocalSchema()).deserialize(message);
+        }
+
+        @Override
+        public void deserialize(ByteBuffer message, Collector<T> out) throws IOException {
+            ((ByteBufferDeserializationSchema<T>) super.getThreadLocalSchema()).deserialize(message, out);
+        }
+    }
+}
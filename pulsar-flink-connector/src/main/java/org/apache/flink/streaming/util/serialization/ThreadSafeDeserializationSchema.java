@@ -16,9 +16,11 @@ package org.apache.flink.streaming.util.serialization;
 
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
 import org.apache.flink.util.Collector;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Because the Pulsar Source is designed to be multi-threaded,
@@ -35,6 +37,9 @@ public class ThreadSafeDeserializationSchema<T> implements DeserializationSchema
     }
 
     public static ThreadSafeDeserializationSchema of(DeserializationSchema deserializationSchema) {
+        if (deserializationSchema instanceof ByteBufferDeserializationSchema) {
+            return new ByteBufferThreadSafeDeserializationSchema((ByteBufferDeserializationSchema) deserializationSchema);
+        }
         return deserializationSchema != null ? new ThreadSafeDeserializationSchema(deserializationSchema) : null;
     }
 
@@ -62,4 +67,28 @@ public class ThreadSafeDeserializationSchema<T> implements DeserializationSchema
     public synchronized TypeInformation getProducedType() {
         return deserializationSchema.getProducedType();
     }
+
+    /**
+     * Synchronized access to a {@link ByteBufferDeserializationSchema}.
+     */
+    private static class ByteBufferThreadSafeDeserializationSchema<T>
+            extends ThreadSafeDeserializationSchema<T> implements ByteBufferDeserializationSchema<T> {
+
+        private final ByteBufferDeserializationSchema<T> byteBufferSchema;
+
+        private ByteBufferThreadSafeDeserializationSchema(ByteBufferDeserializationSchema<T> deserializationSchema) {
+            super(deserializationSchema);
+            this.byteBufferSchema = deserializationSchema;
+        }
+
+        @Override
+        public synchronized T deserialize(ByteBuffer message) throws IOException {
+            return byteBufferSchema.deserialize(message);
+        }
+
+        @Override
+        public synchronized void deserialize(ByteBuffer message, Collector<T> out) throws IOException {
+            byteBufferSchema.deserialize(message, out);
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Range;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link AdaptiveSplitDivisionStrategy}.
+ */
+public class AdaptiveSplitDivisionStrategyTest {
+
+    @Test
+    public void testUniformHashesAreDividedEvenly() {
+        int[] hashes = new int[400];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = i * 160;
+        }
+        List<Range> ranges = AdaptiveSplitDivisionStrategy.divide(hashes, 4);
+        assertRanges(ranges, 0, 16000, 32000, 48000);
+    }
+
+    @Test
+    public void testHotKeyGetsANarrowRange() {
+        // half of the messages have the same key
+        int[] hashes = new int[200];
+        for (int i = 0; i < 100; i++) {
+            hashes[i] = i * 300;
+            hashes[100 + i] = 40000;
+        }
+        Arrays.sort(hashes);
+        List<Range> ranges = AdaptiveSplitDivisionStrategy.divide(hashes, 4);
+        // the cuts at the second and third quantile are merged at the hot key
+        assertRanges(ranges, 0, 15000, 40000);
+    }
+
+    @Test
+    public void testBatchEntryCountsItsMessages() {
+        Message<?> message = mock(Message.class);
+        assertEquals(1, AdaptiveSplitDivisionStrategy.getNumMessagesOfEntry(message));
+        when(message.getProperty("X-Pulsar-num-batch-message")).thenReturn("10");
+        assertEquals(10, AdaptiveSplitDivisionStrategy.getNumMessagesOfEntry(message));
+    }
+
+    private static void assertRanges(List<Range> ranges, int... starts) {
+        assertEquals(starts.length, ranges.size());
+        for (int i = 0; i < starts.length; i++) {
+            assertEquals(starts[i], ranges.get(i).getStart());
+            int end = i + 1 < starts.length ? starts[i + 1] - 1 : 65535;
+            assertEquals(end, ranges.get(i).getEnd());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+import org.apache.flink.util.InstantiationUtil;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test of {@link BrokerPartition}.
+ */
+public class BrokerPartitionTest {
+
+    private static final String TOPIC = "persistent://public/default/topic-partition-0";
+
+    /**
+     * Restores a partition that was written with Java serialization by the original class, which
+     * is part of splits and stop conditions in checkpoints taken before the class changed.
+     */
+    @Test
+    public void testRestoreLegacySerializedForm() throws Exception {
+        BrokerPartition restored;
+        try (InputStream in = BrokerPartitionTest.class.getResourceAsStream("/legacy-partitions/broker-partition.ser")) {
+            restored = InstantiationUtil.deserializeObject(in, BrokerPartitionTest.class.getClassLoader());
+        }
+        BrokerPartition expected = new BrokerPartition(new TopicRange(TOPIC, 0, 32767));
+        assertEquals(expected, restored);
+        assertEquals(TOPIC, restored.getTopic());
+        assertEquals(AbstractPartition.PartitionType.Broker, restored.getPartitionType());
+        assertEquals(expected.toString(), restored.toString());
+    }
+}
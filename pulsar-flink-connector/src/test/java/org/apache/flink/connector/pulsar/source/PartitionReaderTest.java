@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.impl.ConsumerImpl;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link PartitionReader}.
+ */
+public class PartitionReaderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNextBatchHarvestsCompletedReceives() throws Exception {
+        ConsumerImpl<byte[]> consumer = mock(ConsumerImpl.class);
+        CompletableFuture<Messages<byte[]>> firstReceive = new CompletableFuture<>();
+        CompletableFuture<Messages<byte[]>> secondReceive = new CompletableFuture<>();
+        when(consumer.batchReceiveAsync()).thenReturn(firstReceive, secondReceive);
+
+        PulsarPartitionSplit split = createSplit();
+        PartitionReader reader = new PartitionReader(split, consumer, split.getStopCondition());
+        reader.start();
+
+        // the receive did not complete, the reader does not block
+        assertFalse(reader.nextBatch().hasNext());
+        assertSame(firstReceive, reader.getPendingReceive());
+
+        Message<byte[]> message1 = mock(Message.class);
+        Message<byte[]> message2 = mock(Message.class);
+        Messages<byte[]> messages = mock(Messages.class);
+        when(messages.iterator()).thenReturn(Arrays.asList(message1, message2).iterator());
+        firstReceive.complete(messages);
+
+        Iterator<Message<?>> batch = reader.nextBatch();
+        assertSame(message1, batch.next());
+        assertSame(message2, batch.next());
+        assertFalse(batch.hasNext());
+        assertSame(message2, reader.getLastMessage());
+
+        // the next receive was started when the previous one was harvested
+        assertSame(secondReceive, reader.getPendingReceive());
+        verify(consumer, times(2)).batchReceiveAsync();
+        assertFalse(reader.isStopped());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadersAreOrderedByWatermark() throws Exception {
+        PartitionReader behind = createReaderWithLastTimestamp(100L, 0L);
+        PartitionReader ahead = createReaderWithLastTimestamp(0L, 500L);
+
+        assertEquals(100L, behind.getWatermark());
+        assertEquals(500L, ahead.getWatermark());
+
+        PriorityQueue<PartitionReader> queue = new PriorityQueue<>();
+        queue.add(ahead);
+        queue.add(behind);
+        assertSame(behind, queue.poll());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEmptyReceiveMarksReaderIdle() throws Exception {
+        ConsumerImpl<byte[]> consumer = mock(ConsumerImpl.class);
+        Messages<byte[]> empty = mock(Messages.class);
+        when(empty.iterator()).thenReturn(Collections.emptyIterator());
+        when(consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(empty), new CompletableFuture<>());
+
+        PartitionReader reader = new PartitionReader(createSplit(), consumer, StopCondition.never());
+        assertEquals(Long.MIN_VALUE, reader.getWatermark());
+        reader.start();
+        assertTrue(reader.isReady());
+        assertFalse(reader.nextBatch().hasNext());
+        assertTrue(reader.isIdle());
+        assertFalse(reader.isReady());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMessagesAfterStopIdAreNotRead() throws Exception {
+        ConsumerImpl<byte[]> consumer = mock(ConsumerImpl.class);
+        Message<byte[]> message1 = mock(Message.class);
+        when(message1.getMessageId()).thenReturn(new MessageIdImpl(3, 4, -1));
+        Message<byte[]> message2 = mock(Message.class);
+        when(message2.getMessageId()).thenReturn(new MessageIdImpl(3, 6, -1));
+        Messages<byte[]> messages = mock(Messages.class);
+        when(messages.iterator()).thenReturn(Arrays.asList(message1, message2).iterator());
+        when(consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages), new CompletableFuture<>());
+
+        // the split stops after a message id that it does not receive
+        PartitionReader reader = new PartitionReader(
+                createSplit(), consumer, StopCondition.stopAfterMessageId(new MessageIdImpl(3, 5, -1)));
+        Iterator<Message<?>> batch = reader.nextBatch();
+        assertSame(message1, batch.next());
+        assertFalse(batch.hasNext());
+        assertTrue(reader.isStopped());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMessagesUpToStartAreSkipped() throws Exception {
+        ConsumerImpl<byte[]> consumer = mock(ConsumerImpl.class);
+        Message<byte[]> message1 = mock(Message.class);
+        when(message1.getMessageId()).thenReturn(new MessageIdImpl(3, 5, -1));
+        Message<byte[]> message2 = mock(Message.class);
+        when(message2.getMessageId()).thenReturn(new MessageIdImpl(3, 6, -1));
+        Messages<byte[]> messages = mock(Messages.class);
+        when(messages.iterator()).thenReturn(Arrays.asList(message1, message2).iterator());
+        when(consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages), new CompletableFuture<>());
+
+        // the seek to the last consumed message delivers it again
+        PartitionReader reader = new PartitionReader(createSplit(), consumer, StopCondition.never());
+        reader.setStartAfter(new MessageIdImpl(3, 5, -1));
+        Iterator<Message<?>> batch = reader.nextBatch();
+        assertSame(message2, batch.next());
+        assertFalse(batch.hasNext());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PartitionReader createReaderWithLastTimestamp(long eventTime, long publishTime) throws Exception {
+        ConsumerImpl<byte[]> consumer = mock(ConsumerImpl.class);
+        Message<byte[]> message = mock(Message.class);
+        when(message.getEventTime()).thenReturn(eventTime);
+        when(message.getPublishTime()).thenReturn(publishTime);
+        Messages<byte[]> messages = mock(Messages.class);
+        when(messages.iterator()).thenReturn(Collections.singletonList(message).iterator());
+        when(consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages), new CompletableFuture<>());
+
+        PartitionReader reader = new PartitionReader(createSplit(), consumer, StopCondition.never());
+        reader.nextBatch().next();
+        assertFalse(reader.isIdle());
+        return reader;
+    }
+
+    private static PulsarPartitionSplit createSplit() {
+        return new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange("persistent://public/default/topic")),
+                StartOffsetInitializer.earliest(),
+                StopCondition.never());
+    }
+}
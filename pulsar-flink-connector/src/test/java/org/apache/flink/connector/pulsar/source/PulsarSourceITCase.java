@@ -18,7 +18,15 @@ import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.common.functions.RichFlatMapFunction;
 import org.apache.flink.api.common.restartstrategy.RestartStrategies;
 import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.common.time.Deadline;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitsAddition;
 import org.apache.flink.connector.pulsar.source.offset.SpecifiedStartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.reader.ParsedMessage;
+import org.apache.flink.connector.pulsar.source.reader.PulsarPartitionSplitReader;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.core.execution.JobClient;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.connectors.pulsar.PulsarTestBaseWithFlink;
@@ -34,14 +42,25 @@ import org.apache.flink.testutils.junit.RetryRule;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.ExceptionUtils;
 
+import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.SubscriptionInitialPosition;
+import org.apache.pulsar.client.api.SubscriptionMode;
+import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
+import org.apache.pulsar.client.util.ExecutorProvider;
+import org.apache.pulsar.common.policies.data.SubscriptionStats;
 import org.apache.pulsar.common.schema.SchemaType;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -52,6 +71,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.apache.flink.streaming.connectors.pulsar.SchemaData.fooList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -234,6 +254,100 @@ public class PulsarSourceITCase extends PulsarTestBaseWithFlink {
         TestUtils.tryExecute(see, "start from specific");
     }
 
+    @Test(timeout = 60 * 1000L)
+    public void testAcknowledgeOnDurableSubscription() throws Exception {
+        String topic = newTopic();
+        String subscription = "flink-durable";
+        sendTypedMessages(topic, SchemaType.STRING, Arrays.asList("1", "2", "3", "4", "5"), Optional.empty());
+
+        StreamExecutionEnvironment see = StreamExecutionEnvironment.getExecutionEnvironment();
+        see.setParallelism(1);
+        see.enableCheckpointing(100);
+
+        PulsarSource<String> source = PulsarSource.builder()
+                .setTopics(topic)
+                .setSubscriptionName(subscription)
+                .setSubscriptionMode(SubscriptionMode.Durable)
+                .setDeserializer(MessageDeserializer.valueOnly(new SimpleStringSchema()))
+                .startAt(StartOffsetInitializer.earliest())
+                .configure(conf -> {
+                    conf.set(PulsarSourceOptions.ADMIN_URL, adminUrl);
+                })
+                .configurePulsarClient(conf -> {
+                    conf.setServiceUrl(serviceUrl);
+                })
+                .build();
+
+        see.fromSource(source, WatermarkStrategy.noWatermarks(), "source").addSink(new SingletonStreamSink.StringSink<>());
+        JobClient jobClient = see.executeAsync("acknowledge on durable subscription");
+        try {
+            // the cursor moves once a checkpoint after the last message completes
+            Deadline deadline = Deadline.fromNow(Duration.ofSeconds(50));
+            long backlog = -1;
+            while (backlog != 0 && deadline.hasTimeLeft()) {
+                Thread.sleep(100);
+                SubscriptionStats stats = getPulsarAdmin().topics().getStats(topic).getSubscriptions().get(subscription);
+                backlog = stats == null ? -1 : stats.getMsgBacklog();
+            }
+            assertEquals(0, backlog);
+        } finally {
+            jobClient.cancel().get();
+        }
+    }
+
+    @Test(timeout = 60 * 1000L)
+    public void testRestoreDurableSubscriptionFromOlderCheckpoint() throws Exception {
+        String topic = newTopic();
+        String subscription = "flink-restore";
+        List<MessageId> mids = sendTypedMessages(topic, SchemaType.STRING, Arrays.asList("1", "2", "3", "4", "5"), Optional.empty());
+
+        // a checkpoint after the last message acknowledged all messages
+        PulsarClient client = getPulsarClient();
+        try (Consumer<String> consumer = client.newConsumer(Schema.STRING)
+                .topic(topic)
+                .subscriptionName(subscription)
+                .subscriptionInitialPosition(SubscriptionInitialPosition.Earliest)
+                .subscribe()) {
+            consumer.acknowledgeCumulative(mids.get(mids.size() - 1));
+        }
+
+        // the restored checkpoint was taken after the second message
+        PulsarPartitionSplit split = new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(topic, BrokerPartition.FULL_RANGE)),
+                StartOffsetInitializer.earliest(),
+                StopCondition.stopAfterLast());
+        split.setLastConsumedId(mids.get(1));
+
+        ConsumerConfigurationData<byte[]> consumerConfiguration = new ConsumerConfigurationData<>();
+        consumerConfiguration.setSubscriptionName(subscription);
+        consumerConfiguration.setSubscriptionMode(SubscriptionMode.Durable);
+        ExecutorProvider listenerExecutor = new ExecutorProvider(1, "restore test listener executor");
+        try (PulsarPartitionSplitReader<String> splitReader = new PulsarPartitionSplitReader<>(
+                new Configuration(),
+                consumerConfiguration,
+                client,
+                getPulsarAdmin(),
+                MessageDeserializer.valueOnly(new SimpleStringSchema()),
+                listenerExecutor)) {
+            splitReader.handleSplitsChanges(new SplitsAddition<>(Collections.singletonList(split)));
+            List<String> records = new ArrayList<>();
+            while (records.size() < 3) {
+                RecordsWithSplitIds<ParsedMessage<String>> batch = splitReader.fetch();
+                while (batch.nextSplit() != null) {
+                    ParsedMessage<String> record;
+                    while ((record = batch.nextRecordFromSplit()) != null) {
+                        records.add(record.getPayload());
+                    }
+                }
+                batch.recycle();
+            }
+            assertEquals(Arrays.asList("3", "4", "5"), records);
+        } finally {
+            listenerExecutor.shutdownNow();
+            client.close();
+        }
+    }
+
     /**
      * Util class to check if all message is exist.
      */
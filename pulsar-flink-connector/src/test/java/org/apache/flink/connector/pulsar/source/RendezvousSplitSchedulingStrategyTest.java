@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link RendezvousSplitSchedulingStrategy}.
+ */
+public class RendezvousSplitSchedulingStrategyTest {
+
+    private static final int NUM_PARTITIONS = 40;
+
+    @Test
+    public void testAssignmentIsStable() {
+        SplitSchedulingStrategy strategy = RendezvousSplitSchedulingStrategy.INSTANCE;
+        for (int i = 0; i < NUM_PARTITIONS; i++) {
+            assertEquals(strategy.getIndexOfReader(4, createSplit(i)), strategy.getIndexOfReader(4, createSplit(i)));
+        }
+    }
+
+    @Test
+    public void testAddingAReaderOnlyMovesSplitsToIt() {
+        SplitSchedulingStrategy strategy = RendezvousSplitSchedulingStrategy.INSTANCE;
+        int numMoved = 0;
+        for (int i = 0; i < NUM_PARTITIONS; i++) {
+            int before = strategy.getIndexOfReader(4, createSplit(i));
+            int after = strategy.getIndexOfReader(5, createSplit(i));
+            if (before != after) {
+                assertEquals(4, after);
+                numMoved++;
+            }
+        }
+        assertTrue(numMoved > 0 && numMoved < NUM_PARTITIONS / 2);
+    }
+
+    @Test
+    public void testSplitCountsAreBalanced() {
+        SplitSchedulingStrategy strategy = new RendezvousSplitSchedulingStrategy(1.0);
+        Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders = new HashMap<>();
+        for (int i = 0; i < NUM_PARTITIONS; i++) {
+            PulsarPartitionSplit split = createSplit(i);
+            int owner = strategy.getIndexOfReader(4, split, splitsOfReaders);
+            splitsOfReaders.computeIfAbsent(owner, r -> new ArrayList<>()).add(split);
+        }
+        for (int reader = 0; reader < 4; reader++) {
+            assertEquals(NUM_PARTITIONS / 4, splitsOfReaders.get(reader).size());
+        }
+    }
+
+    private static PulsarPartitionSplit createSplit(int partition) {
+        return new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange("persistent://public/default/topic-partition-" + partition)),
+                StartOffsetInitializer.earliest(),
+                StopCondition.never());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source;
+
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Unit test of {@link ThroughputSplitSchedulingStrategy}.
+ */
+public class ThroughputSplitSchedulingStrategyTest {
+
+    private static final String TOPIC = "persistent://public/default/topic-partition-";
+
+    @Test
+    public void testBalancedReadersKeepTheRendezvousAssignment() {
+        ThroughputSplitSchedulingStrategy strategy = new ThroughputSplitSchedulingStrategy();
+        for (int i = 0; i < 8; i++) {
+            PulsarPartitionSplit split = createSplit(i);
+            assertEquals(
+                    RendezvousSplitSchedulingStrategy.INSTANCE.getIndexOfReader(4, split),
+                    strategy.getIndexOfReader(4, split, Collections.emptyMap()));
+        }
+    }
+
+    @Test
+    public void testHotPartitionKeepsItsReaderToItself() {
+        ThroughputSplitSchedulingStrategy strategy = new ThroughputSplitSchedulingStrategy();
+        Map<String, Double> msgRateInOfTopics = new HashMap<>();
+        msgRateInOfTopics.put(TOPIC + 0, 1000.0);
+        for (int i = 1; i < 20; i++) {
+            msgRateInOfTopics.put(TOPIC + i, 10.0);
+        }
+        strategy.updateMessageRates(msgRateInOfTopics, Collections.emptyMap());
+
+        Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders = new HashMap<>();
+        List<PulsarPartitionSplit> hotSplits = new ArrayList<>();
+        hotSplits.add(createSplit(0));
+        splitsOfReaders.put(0, hotSplits);
+        for (int i = 1; i < 20; i++) {
+            PulsarPartitionSplit split = createSplit(i);
+            int owner = strategy.getIndexOfReader(4, split, splitsOfReaders);
+            assertNotEquals(0, owner);
+            splitsOfReaders.computeIfAbsent(owner, r -> new ArrayList<>()).add(split);
+        }
+    }
+
+    @Test
+    public void testRateOfKeyRangesIsScaled() {
+        ThroughputSplitSchedulingStrategy strategy = new ThroughputSplitSchedulingStrategy(1000L, 1.0);
+        strategy.updateMessageRates(Collections.singletonMap(TOPIC + 0, 100.0), Collections.emptyMap());
+
+        // reader 1 reads half of the hot partition, reader 0 reads a quarter of it
+        Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders = new HashMap<>();
+        splitsOfReaders.put(0, Collections.singletonList(createSplit(new TopicRange(TOPIC + 0, 0, 16383))));
+        splitsOfReaders.put(1, Collections.singletonList(createSplit(new TopicRange(TOPIC + 0, 16384, 49151))));
+        PulsarPartitionSplit split = createSplit(new TopicRange(TOPIC + 0, 49152, 65535));
+        int owner = strategy.getIndexOfReader(2, split, splitsOfReaders);
+        assertEquals(0, owner);
+    }
+
+    @Test
+    public void testLaggingPartitionWeighsMore() {
+        ThroughputSplitSchedulingStrategy strategy = new ThroughputSplitSchedulingStrategy(1000L, 1.0);
+        Map<String, Double> msgRateInOfTopics = new HashMap<>();
+        msgRateInOfTopics.put(TOPIC + 0, 100.0);
+        msgRateInOfTopics.put(TOPIC + 1, 100.0);
+        // both partitions receive the same rate, but the one of reader 0 lags behind
+        strategy.updateMessageRates(msgRateInOfTopics, Collections.singletonMap(TOPIC + 0, 10_000L));
+
+        Map<Integer, List<PulsarPartitionSplit>> splitsOfReaders = new HashMap<>();
+        splitsOfReaders.put(0, Collections.singletonList(createSplit(0)));
+        splitsOfReaders.put(1, Collections.singletonList(createSplit(1)));
+        PulsarPartitionSplit split = createSplit(2);
+        int owner = strategy.getIndexOfReader(2, split, splitsOfReaders);
+        assertEquals(1, owner);
+    }
+
+    private static PulsarPartitionSplit createSplit(int partition) {
+        return createSplit(new TopicRange(TOPIC + partition));
+    }
+
+    private static PulsarPartitionSplit createSplit(TopicRange topicRange) {
+        return new PulsarPartitionSplit(
+                new BrokerPartition(topicRange),
+                StartOffsetInitializer.earliest(),
+                StopCondition.never());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.alignment;
+
+import org.junit.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit test of {@link GlobalWatermarkTracker} and {@link WatermarkAlignment}.
+ */
+public class GlobalWatermarkTrackerTest {
+
+    @Test
+    public void testGlobalWatermarkIsTheLowestFreshReport() {
+        GlobalWatermarkTracker tracker = new GlobalWatermarkTracker(100);
+        assertEquals(OptionalLong.of(500L), tracker.report(0, 500L, 0L));
+        assertEquals(OptionalLong.of(200L), tracker.report(1, 200L, 10L));
+        // unchanged global watermark
+        assertFalse(tracker.report(0, 600L, 20L).isPresent());
+        // the report of subtask 1 expired
+        assertEquals(OptionalLong.of(600L), tracker.report(0, 600L, 150L));
+        // idle readers report the max value
+        assertEquals(OptionalLong.of(Long.MAX_VALUE), tracker.report(0, Long.MAX_VALUE, 160L));
+    }
+
+    @Test
+    public void testWatermarkLimit() {
+        WatermarkAlignment alignment = new WatermarkAlignment(1000L, 100L);
+        // no global watermark yet
+        assertEquals(Long.MAX_VALUE, alignment.getWatermarkLimit());
+
+        alignment.setGlobalWatermark(5000L);
+        assertEquals(6000L, alignment.getWatermarkLimit());
+        alignment.setGlobalWatermark(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, alignment.getWatermarkLimit());
+
+        Object splitReader1 = new Object();
+        Object splitReader2 = new Object();
+        assertEquals(Long.MAX_VALUE, alignment.getLocalWatermark());
+        alignment.updateLocalWatermark(splitReader1, 300L);
+        alignment.updateLocalWatermark(splitReader2, 200L);
+        assertEquals(200L, alignment.getLocalWatermark());
+        alignment.removeLocalWatermark(splitReader2);
+        assertEquals(300L, alignment.getLocalWatermark());
+    }
+}
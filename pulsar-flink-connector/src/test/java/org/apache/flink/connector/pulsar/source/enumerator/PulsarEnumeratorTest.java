@@ -331,6 +331,7 @@ public class PulsarEnumeratorTest extends PulsarTestBase {
                 stopCondition,
                 pulsarAdmin,
                 configuration,
+                "test-subscription",
                 enumContext,
                 currentAssignments,
                 splitSchedulingStrategy);
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.enumerator;
+
+import org.apache.flink.connector.pulsar.source.BrokerPartition;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplitSerializer;
+import org.apache.flink.connector.pulsar.source.util.SerdeUtils;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link PulsarSourceEnumeratorStateSerializer}.
+ */
+public class PulsarSourceEnumeratorStateSerializerTest {
+
+    private static final String TOPIC = "persistent://public/default/a-topic-with-a-rather-long-name";
+
+    private final PulsarSourceEnumeratorStateSerializer serializer = new PulsarSourceEnumeratorStateSerializer();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = createAssignment(3, 4);
+
+        PulsarSourceEnumeratorState restored = serializer.deserialize(
+                serializer.getVersion(),
+                serializer.serialize(new PulsarSourceEnumeratorState(assignment)));
+        assertAssignmentEquals(assignment, restored.getCurrentAssignment());
+    }
+
+    @Test
+    public void testTopicNamesAreWrittenOnce() throws Exception {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = createAssignment(3, 4);
+        PulsarSourceEnumeratorState state = new PulsarSourceEnumeratorState(assignment);
+
+        byte[] compact = serializer.serialize(state);
+        byte[] legacy = SerdeUtils.serializeSplitAssignments(assignment, new PulsarPartitionSplitSerializer());
+        assertTrue(compact.length < legacy.length);
+    }
+
+    @Test
+    public void testChangedAssignmentIsReencoded() throws Exception {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = createAssignment(2, 2);
+        PulsarSourceEnumeratorState state = new PulsarSourceEnumeratorState(assignment);
+        byte[] first = serializer.serialize(state);
+        assertEquals(first.length, serializer.serialize(state).length);
+
+        assignment.get(1).add(createSplit(TOPIC + "-partition-9"));
+        assignment.put(2, new ArrayList<>());
+        PulsarSourceEnumeratorState restored = serializer.deserialize(
+                serializer.getVersion(),
+                serializer.serialize(state));
+        assertAssignmentEquals(assignment, restored.getCurrentAssignment());
+    }
+
+    @Test
+    public void testTopicsOfRemovedReadersAreDropped() throws Exception {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = createAssignment(3, 2);
+        PulsarSourceEnumeratorState state = new PulsarSourceEnumeratorState(assignment);
+        serializer.serialize(state);
+
+        assignment.remove(2);
+        byte[] serialized = serializer.serialize(state);
+        assertEquals(new PulsarSourceEnumeratorStateSerializer().serialize(state).length, serialized.length);
+        assertAssignmentEquals(assignment, serializer.deserialize(serializer.getVersion(), serialized).getCurrentAssignment());
+    }
+
+    @Test
+    public void testReadSerdeUtilsFormat() throws Exception {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = createAssignment(2, 3);
+        byte[] legacy = SerdeUtils.serializeSplitAssignments(assignment, new PulsarPartitionSplitSerializer());
+
+        PulsarSourceEnumeratorState restored = serializer.deserialize(0, legacy);
+        assertAssignmentEquals(assignment, restored.getCurrentAssignment());
+    }
+
+    private static Map<Integer, List<PulsarPartitionSplit>> createAssignment(int numReaders, int splitsPerReader) {
+        Map<Integer, List<PulsarPartitionSplit>> assignment = new HashMap<>();
+        for (int reader = 0; reader < numReaders; reader++) {
+            List<PulsarPartitionSplit> splits = new ArrayList<>();
+            for (int i = 0; i < splitsPerReader; i++) {
+                splits.add(createSplit(TOPIC + "-partition-" + (reader * splitsPerReader + i)));
+            }
+            assignment.put(reader, splits);
+        }
+        return assignment;
+    }
+
+    private static PulsarPartitionSplit createSplit(String topic) {
+        return new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(topic)),
+                StartOffsetInitializer.earliest(),
+                StopCondition.never());
+    }
+
+    private static void assertAssignmentEquals(
+            Map<Integer, List<PulsarPartitionSplit>> expected,
+            Map<Integer, List<PulsarPartitionSplit>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((reader, splits) -> {
+            List<PulsarPartitionSplit> restored = actual.get(reader);
+            assertEquals(splits.size(), restored.size());
+            for (int i = 0; i < splits.size(); i++) {
+                assertEquals(splits.get(i).getPartition(), restored.get(i).getPartition());
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.source.PulsarSourceOptions;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link FetchBudget}.
+ */
+public class FetchBudgetTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void testFixedBudgetWithoutTargetLatency() {
+        FetchBudget budget = FetchBudget.fromConfiguration(new Configuration());
+        assertEquals((long) PulsarSourceOptions.MAX_FETCH_BYTES.defaultValue(), budget.getBudget());
+
+        budget.onFetchFinished(1024, 1000 * MS);
+        assertEquals((long) PulsarSourceOptions.MAX_FETCH_BYTES.defaultValue(), budget.getBudget());
+    }
+
+    @Test
+    public void testBudgetFollowsThroughput() {
+        FetchBudget budget = new FetchBudget(1_000, 1_000_000, 100);
+        assertEquals(1_000, budget.getBudget());
+
+        // 1000 bytes in 1 ms, 100 ms target latency
+        budget.onFetchFinished(1_000, MS);
+        assertEquals(100_000, budget.getBudget());
+
+        // fetches that take longer than the target shrink the budget
+        budget.onFetchFinished(100_000, 1000 * MS);
+        assertTrue(budget.getBudget() < 100_000);
+
+        // the budget stays within its bounds
+        for (int i = 0; i < 20; i++) {
+            budget.onFetchFinished(1_000_000, MS);
+        }
+        assertEquals(1_000_000, budget.getBudget());
+        for (int i = 0; i < 50; i++) {
+            budget.onFetchFinished(1, 1000 * MS);
+        }
+        assertEquals(1_000, budget.getBudget());
+    }
+
+    @Test
+    public void testEmptyFetchesDoNotChangeTheBudget() {
+        FetchBudget budget = new FetchBudget(1_000, 1_000_000, 100);
+        budget.onFetchFinished(1_000, MS);
+        budget.onFetchFinished(0, 500 * MS);
+        assertEquals(100_000, budget.getBudget());
+    }
+}
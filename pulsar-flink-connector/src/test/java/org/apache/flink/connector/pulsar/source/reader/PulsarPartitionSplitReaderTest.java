@@ -0,0 +1,281 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.pulsar.source.BrokerPartition;
+import org.apache.flink.connector.pulsar.source.MessageDeserializer;
+import org.apache.flink.connector.pulsar.source.PartitionReader;
+import org.apache.flink.connector.pulsar.source.PulsarSourceOptions;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer.CreationConfiguration;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.alignment.WatermarkAlignment;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+import org.apache.flink.util.Collector;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.impl.ConsumerImpl;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link PulsarPartitionSplitReader}.
+ */
+public class PulsarPartitionSplitReaderTest {
+
+    private PulsarPartitionSplitReader<Long> splitReader;
+
+    @After
+    public void closeSplitReader() {
+        if (splitReader != null) {
+            splitReader.close();
+        }
+    }
+
+    @Test
+    public void testPartitionAheadPausesUntilOthersCatchUp() throws Exception {
+        splitReader = createSplitReader(100L, null);
+        TestPartition behind = new TestPartition("topic-0");
+        TestPartition ahead = new TestPartition("topic-1");
+        splitReader.addPartitionReader(behind.reader);
+        splitReader.addPartitionReader(ahead.reader);
+
+        behind.receive(0L);
+        ahead.receive(1000L);
+        assertEquals(Arrays.asList(0L, 1000L), fetchSorted());
+
+        // the next batch of the partition that is more than the max drift ahead is not fetched
+        ahead.receive(1001L);
+        assertTrue(fetchSorted().isEmpty());
+        verify(ahead.consumer, times(2)).batchReceiveAsync();
+
+        behind.receive(950L);
+        assertEquals(Arrays.asList(950L, 1001L), fetchSorted());
+        verify(ahead.consumer, times(3)).batchReceiveAsync();
+    }
+
+    @Test
+    public void testSplitReaderAheadOfOtherReadersPausesUntilTheyCatchUp() throws Exception {
+        WatermarkAlignment alignment = new WatermarkAlignment(100L, 1000L);
+        splitReader = createSplitReader(0L, alignment);
+        TestPartition partition = new TestPartition("topic-0");
+        splitReader.addPartitionReader(partition.reader);
+
+        partition.receive(1000L);
+        assertEquals(Collections.singletonList(1000L), fetchSorted());
+        assertEquals(1000L, alignment.getLocalWatermark());
+
+        // the other source readers are more than the max drift behind
+        alignment.setGlobalWatermark(0L);
+        partition.receive(1001L);
+        assertTrue(fetchSorted().isEmpty());
+        verify(partition.consumer, times(2)).batchReceiveAsync();
+
+        alignment.setGlobalWatermark(950L);
+        assertEquals(Collections.singletonList(1001L), fetchSorted());
+        assertEquals(1001L, alignment.getLocalWatermark());
+    }
+
+    @Test
+    public void testFetchIsLimitedByNumberOfMessages() throws Exception {
+        splitReader = createSplitReader(0L, null, 3);
+        TestPartition partition1 = new TestPartition("topic-0");
+        TestPartition partition2 = new TestPartition("topic-1");
+        splitReader.addPartitionReader(partition1.reader);
+        splitReader.addPartitionReader(partition2.reader);
+
+        // the messages of one receive reach the limit, the other receive is left for the next fetch
+        partition1.receive(0L, 1L, 2L);
+        partition2.receive(3L, 4L, 5L);
+        assertEquals(3, fetchSorted().size());
+        assertEquals(3, fetchSorted().size());
+    }
+
+    @Test
+    public void testEmptyPartitionFinishesWithoutReceiving() throws Exception {
+        assertFinishesWithoutReceiving(StartOffsetInitializer.earliest(), new MessageIdImpl(3, -1, -1));
+    }
+
+    @Test
+    public void testLatestStartupFinishesWithoutReceiving() throws Exception {
+        assertFinishesWithoutReceiving(StartOffsetInitializer.latest(), new MessageIdImpl(3, 5, -1));
+    }
+
+    /**
+     * Sets up a split that stops after the last message of its partition and checks that it finishes
+     * with the first fetch, without waiting for messages published after it was set up.
+     */
+    @SuppressWarnings("unchecked")
+    private void assertFinishesWithoutReceiving(
+            StartOffsetInitializer startOffsetInitializer,
+            MessageId lastMessageId) throws Exception {
+        splitReader = createSplitReader(0L, null);
+        ConsumerImpl<byte[]> consumer = mock(ConsumerImpl.class);
+        when(consumer.getLastMessageId()).thenReturn(lastMessageId);
+        when(consumer.batchReceiveAsync()).thenReturn(new CompletableFuture<>());
+        when(consumer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        BrokerPartition partition = new BrokerPartition(new TopicRange("topic-0"));
+        PulsarPartitionSplit split = new PulsarPartitionSplit(
+                partition, startOffsetInitializer, StopCondition.stopAfterLast());
+        CreationConfiguration creationConfiguration = new CreationConfiguration(new ConsumerConfigurationData<>());
+        startOffsetInitializer.initializeBeforeCreation(partition, creationConfiguration);
+
+        PartitionReader reader = splitReader.createPartitionReader(split, consumer, creationConfiguration);
+        reader.start();
+        splitReader.addPartitionReader(reader);
+
+        RecordsWithSplitIds<ParsedMessage<Long>> batch = splitReader.fetch();
+        assertNull(batch.nextSplit());
+        assertEquals(Collections.singleton(split.splitId()), batch.finishedSplits());
+        verify(consumer, never()).batchReceiveAsync();
+        verify(consumer).closeAsync();
+    }
+
+    private static PulsarPartitionSplitReader<Long> createSplitReader(
+            long maxWatermarkDrift,
+            @Nullable WatermarkAlignment alignment) {
+        return createSplitReader(maxWatermarkDrift, alignment, PulsarSourceOptions.MAX_FETCH_RECORDS.defaultValue());
+    }
+
+    private static PulsarPartitionSplitReader<Long> createSplitReader(
+            long maxWatermarkDrift,
+            @Nullable WatermarkAlignment alignment,
+            int maxFetchRecords) {
+        Configuration configuration = new Configuration();
+        configuration.set(PulsarSourceOptions.MAX_FETCH_TIME, 50L);
+        configuration.set(PulsarSourceOptions.MAX_FETCH_RECORDS, maxFetchRecords);
+        configuration.set(PulsarSourceOptions.MAX_WATERMARK_DRIFT_MS, maxWatermarkDrift);
+        return new PulsarPartitionSplitReader<>(
+                configuration,
+                new ConsumerConfigurationData<>(),
+                null,
+                null,
+                new EventTimeDeserializer(),
+                null,
+                alignment,
+                null);
+    }
+
+    /**
+     * Fetches once and returns the event times of the fetched records in ascending order.
+     */
+    private List<Long> fetchSorted() {
+        RecordsWithSplitIds<ParsedMessage<Long>> batch = splitReader.fetch();
+        List<Long> records = new ArrayList<>();
+        while (batch.nextSplit() != null) {
+            ParsedMessage<Long> record;
+            while ((record = batch.nextRecordFromSplit()) != null) {
+                records.add(record.getPayload());
+            }
+        }
+        batch.recycle();
+        Collections.sort(records);
+        return records;
+    }
+
+    /**
+     * A partition whose receives are completed by the test.
+     */
+    private static class TestPartition {
+
+        private final ConsumerImpl<byte[]> consumer;
+
+        private final PartitionReader reader;
+
+        private final List<CompletableFuture<Messages<byte[]>>> receives = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        TestPartition(String topic) {
+            consumer = mock(ConsumerImpl.class);
+            when(consumer.batchReceiveAsync()).thenAnswer(invocation -> {
+                CompletableFuture<Messages<byte[]>> receive = new CompletableFuture<>();
+                receives.add(receive);
+                return receive;
+            });
+            when(consumer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+            PulsarPartitionSplit split = new PulsarPartitionSplit(
+                    new BrokerPartition(new TopicRange(topic)),
+                    StartOffsetInitializer.earliest(),
+                    StopCondition.never());
+            reader = new PartitionReader(split, consumer, split.getStopCondition());
+            reader.start();
+        }
+
+        /**
+         * Completes the pending receive with messages of the given event times.
+         */
+        @SuppressWarnings("unchecked")
+        void receive(long... eventTimes) {
+            List<Message<byte[]>> messages = new ArrayList<>();
+            for (long eventTime : eventTimes) {
+                Message<byte[]> message = mock(Message.class);
+                when(message.getEventTime()).thenReturn(eventTime);
+                when(message.getMessageId()).thenReturn(new MessageIdImpl(1, eventTime, -1));
+                messages.add(message);
+            }
+            Messages<byte[]> batch = mock(Messages.class);
+            when(batch.iterator()).thenReturn(messages.iterator());
+            receives.get(receives.size() - 1).complete(batch);
+        }
+    }
+
+    /**
+     * Emits the event time of every message.
+     */
+    private static class EventTimeDeserializer implements MessageDeserializer<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void deserialize(Message<?> message, Collector<Long> collector) {
+            collector.collect(message.getEventTime());
+        }
+
+        @Override
+        public boolean isEndOfStream(Long nextElement) {
+            return false;
+        }
+
+        @Override
+        public TypeInformation<Long> getProducedType() {
+            return TypeInformation.of(Long.class);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link PulsarRecordBatch}.
+ */
+public class PulsarRecordBatchTest {
+
+    @Test
+    public void testRecordsAreGroupedInRunsOfSplits() {
+        PulsarRecordBatch<Integer> batch = new PulsarRecordBatch<>(b -> { });
+        // more records than the initial capacity
+        for (int i = 0; i < 100; i++) {
+            batch.add("split-0", i, new MessageIdImpl(0, i, -1), i);
+        }
+        batch.add("split-1", 100, new MessageIdImpl(1, 0, -1), 100L);
+        batch.add("split-0", 101, new MessageIdImpl(0, 100, -1), 101L);
+        batch.addFinishedSplit("split-1");
+
+        assertEquals("split-0", batch.nextSplit());
+        for (int i = 0; i < 100; i++) {
+            ParsedMessage<Integer> record = batch.nextRecordFromSplit();
+            assertEquals(i, (int) record.getPayload());
+            assertEquals(new MessageIdImpl(0, i, -1), record.getMessageId());
+            assertEquals(i, record.getTimestamp());
+        }
+        assertNull(batch.nextRecordFromSplit());
+
+        assertEquals("split-1", batch.nextSplit());
+        assertEquals(100, (int) batch.nextRecordFromSplit().getPayload());
+        assertNull(batch.nextRecordFromSplit());
+
+        assertEquals("split-0", batch.nextSplit());
+        assertEquals(101, (int) batch.nextRecordFromSplit().getPayload());
+        assertNull(batch.nextRecordFromSplit());
+
+        assertNull(batch.nextSplit());
+        assertEquals(Collections.singleton("split-1"), batch.finishedSplits());
+    }
+
+    @Test
+    public void testRecycleClearsAndReturnsTheBatch() {
+        List<PulsarRecordBatch<String>> pool = new ArrayList<>();
+        PulsarRecordBatch<String> batch = new PulsarRecordBatch<>(pool::add);
+        MessageId id = new MessageIdImpl(0, 0, -1);
+        batch.add("split", "value", id, 1L);
+        batch.addFinishedSplit("split");
+        batch.recycle();
+
+        assertEquals(1, pool.size());
+        assertSame(batch, pool.get(0));
+        assertEquals(0, batch.size());
+        assertTrue(batch.finishedSplits().isEmpty());
+        assertNull(batch.nextSplit());
+
+        batch.add("other", "next", id, 2L);
+        assertEquals("other", batch.nextSplit());
+        assertEquals("next", batch.nextRecordFromSplit().getPayload());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.connector.base.source.reader.synchronization.FutureCompletingBlockingQueue;
+import org.apache.flink.connector.pulsar.source.BrokerPartition;
+import org.apache.flink.connector.pulsar.source.PulsarSourceOptions.FetcherAssignment;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test of {@link PulsarSplitFetcherManager}.
+ */
+public class PulsarSplitFetcherManagerTest {
+
+    @Test
+    public void testRoundRobinAssignment() {
+        PulsarSplitFetcherManager<String> manager = createManager(FetcherAssignment.ROUND_ROBIN);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i % 3, manager.getFetcherIndex(createSplit(i)));
+        }
+    }
+
+    @Test
+    public void testHashAssignmentIsStable() {
+        PulsarSplitFetcherManager<String> manager = createManager(FetcherAssignment.HASH);
+        for (int i = 0; i < 6; i++) {
+            int index = manager.getFetcherIndex(createSplit(i));
+            assertEquals(index, manager.getFetcherIndex(createSplit(i)));
+            assertEquals(Math.floorMod(createSplit(i).splitId().hashCode(), 3), index);
+        }
+    }
+
+    private static PulsarSplitFetcherManager<String> createManager(FetcherAssignment assignment) {
+        return new PulsarSplitFetcherManager<>(
+                new FutureCompletingBlockingQueue<>(),
+                () -> {
+                    throw new UnsupportedOperationException();
+                },
+                3,
+                assignment);
+    }
+
+    private static PulsarPartitionSplit createSplit(int partition) {
+        return new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange("persistent://public/default/topic-partition-" + partition)),
+                StartOffsetInitializer.earliest(),
+                StopCondition.never());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link SplitAcknowledger}.
+ */
+public class SplitAcknowledgerTest {
+
+    @Test
+    public void testPositionsAreCoalescedWhileAnAcknowledgementIsInFlight() {
+        CompletableFuture<Void> firstAck = new CompletableFuture<>();
+        Consumer<?> consumer = mock(Consumer.class);
+        when(consumer.acknowledgeCumulativeAsync(any(MessageId.class)))
+                .thenReturn(firstAck)
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        SplitAcknowledger acknowledger = new SplitAcknowledger(new UnregisteredMetricsGroup());
+        acknowledger.register("split", consumer);
+
+        MessageId id1 = new MessageIdImpl(1, 1, -1);
+        MessageId id2 = new MessageIdImpl(1, 2, -1);
+        MessageId id3 = new MessageIdImpl(1, 3, -1);
+        acknowledger.acknowledge("split", id1);
+        acknowledger.acknowledge("split", id2);
+        acknowledger.acknowledge("split", id3);
+        verify(consumer, times(1)).acknowledgeCumulativeAsync(any(MessageId.class));
+
+        firstAck.complete(null);
+        verify(consumer).acknowledgeCumulativeAsync(id1);
+        verify(consumer, never()).acknowledgeCumulativeAsync(id2);
+        verify(consumer).acknowledgeCumulativeAsync(id3);
+
+        // nothing is in flight anymore
+        MessageId id4 = new MessageIdImpl(1, 4, -1);
+        acknowledger.acknowledge("split", id4);
+        verify(consumer).acknowledgeCumulativeAsync(id4);
+    }
+
+    @Test
+    public void testSplitsWithoutConsumerAreSkipped() {
+        Consumer<?> consumer = mock(Consumer.class);
+        when(consumer.acknowledgeCumulativeAsync(any(MessageId.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        SplitAcknowledger acknowledger = new SplitAcknowledger(new UnregisteredMetricsGroup());
+        acknowledger.register("split", consumer);
+        acknowledger.unregister("split");
+
+        acknowledger.acknowledge("split", new MessageIdImpl(1, 1, -1));
+        verify(consumer, never()).acknowledgeCumulativeAsync(any(MessageId.class));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.split;
+
+import org.apache.flink.connector.pulsar.source.stop.LastMessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.NeverStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.TimestampStopCondition;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link LegacySplitObjectInputStream}.
+ *
+ * <p>The fixtures were written with Java serialization by the built-in stop conditions of the
+ * original {@code StopCondition} interface, a lambda per factory method and the anonymous
+ * {@code LastStopCondition} classes of {@code stopAtLast} and {@code stopAfterLast}.
+ */
+public class LegacySplitObjectInputStreamTest {
+
+    @Test
+    public void testTimestampLambdas() throws Exception {
+        TimestampStopCondition stopAt = (TimestampStopCondition) readFixture("stop-at-timestamp");
+        assertEquals(1234L, stopAt.getTimestamp());
+        assertFalse(stopAt.isStopAfter());
+
+        TimestampStopCondition stopAfter = (TimestampStopCondition) readFixture("stop-after-timestamp");
+        assertEquals(5678L, stopAfter.getTimestamp());
+        assertTrue(stopAfter.isStopAfter());
+    }
+
+    @Test
+    public void testNeverLambda() throws Exception {
+        assertTrue(readFixture("never") instanceof NeverStopCondition);
+    }
+
+    @Test
+    public void testAnonymousLastStopConditions() throws Exception {
+        LastMessageIdStopCondition stopAtLast = (LastMessageIdStopCondition) readFixture("stop-at-last");
+        assertFalse(stopAtLast.isStopAfter());
+        assertNull(stopAtLast.getLastId());
+
+        LastMessageIdStopCondition stopAfterLast = (LastMessageIdStopCondition) readFixture("stop-after-last");
+        assertTrue(stopAfterLast.isStopAfter());
+        assertNull(stopAfterLast.getLastId());
+    }
+
+    private static Object readFixture(String name) throws Exception {
+        try (InputStream resource = LegacySplitObjectInputStreamTest.class.getResourceAsStream(
+                "/legacy-stop-conditions/" + name + ".ser");
+             ObjectInputStream in = new LegacySplitObjectInputStream(resource)) {
+            return in.readObject();
+        }
+    }
+}
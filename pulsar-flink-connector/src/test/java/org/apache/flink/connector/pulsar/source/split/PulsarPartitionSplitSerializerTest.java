@@ -0,0 +1,159 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.split;
+
+import org.apache.flink.connector.pulsar.source.AbstractPartition;
+import org.apache.flink.connector.pulsar.source.BrokerPartition;
+import org.apache.flink.connector.pulsar.source.StartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.StopCondition;
+import org.apache.flink.connector.pulsar.source.offset.SpecifiedStartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.offset.TimestampStartOffsetInitializer;
+import org.apache.flink.connector.pulsar.source.stop.LastMessageIdStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionIndexMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PartitionMessageIdsStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.PublishTimeStopCondition;
+import org.apache.flink.connector.pulsar.source.stop.TimestampStopCondition;
+import org.apache.flink.streaming.connectors.pulsar.internal.TopicRange;
+import org.apache.flink.util.InstantiationUtil;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.impl.BatchMessageIdImpl;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link PulsarPartitionSplitSerializer}.
+ */
+public class PulsarPartitionSplitSerializerTest {
+
+    private static final String TOPIC = "persistent://public/default/topic-partition-0";
+
+    private final PulsarPartitionSplitSerializer serializer = new PulsarPartitionSplitSerializer();
+
+    @Test
+    public void testSerializeBuiltInConditions() throws Exception {
+        BrokerPartition partition = new BrokerPartition(new TopicRange(TOPIC, 0, 32767));
+        Map<AbstractPartition, MessageId> offsets = Collections.singletonMap(partition, new MessageIdImpl(1, 2, 0));
+        PulsarPartitionSplit split = new PulsarPartitionSplit(
+                partition,
+                StartOffsetInitializer.offsets(offsets, MessageId.earliest, false),
+                StopCondition.stopAfterMessageIds(offsets));
+        split.setLastConsumedId(new BatchMessageIdImpl(1, 1, 0, 3));
+
+        PulsarPartitionSplit restored = roundTrip(split);
+        assertEquals(partition, restored.getPartition());
+        assertEquals(split.getLastConsumedId(), restored.getLastConsumedId());
+
+        SpecifiedStartOffsetInitializer initializer = (SpecifiedStartOffsetInitializer) restored.getStartOffsetInitializer();
+        assertEquals(offsets, initializer.getInitialOffsets());
+        assertEquals(MessageId.earliest, initializer.getDefaultOffset());
+        assertFalse(initializer.isInclusive());
+
+        PartitionMessageIdsStopCondition stopCondition = (PartitionMessageIdsStopCondition) restored.getStopCondition();
+        assertEquals(offsets, stopCondition.getStopIds());
+        assertTrue(stopCondition.isStopAfter());
+    }
+
+    @Test
+    public void testSerializeInitializedLastStopCondition() throws Exception {
+        LastMessageIdStopCondition stopCondition = (LastMessageIdStopCondition) StopCondition.stopAtLast();
+        stopCondition.setLastId(new MessageIdImpl(4, 5, -1));
+        PulsarPartitionSplit split = new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(TOPIC)),
+                StartOffsetInitializer.timestamps(42L),
+                stopCondition);
+
+        PulsarPartitionSplit restored = roundTrip(split);
+        assertEquals(42L, ((TimestampStartOffsetInitializer) restored.getStartOffsetInitializer()).getStartingTimestamp());
+        LastMessageIdStopCondition restoredCondition = (LastMessageIdStopCondition) restored.getStopCondition();
+        assertFalse(restoredCondition.isStopAfter());
+        assertEquals(stopCondition.getLastId(), restoredCondition.getLastId());
+        assertEquals(split.splitId(), restored.splitId());
+    }
+
+    @Test
+    public void testSerializeTableStopConditions() throws Exception {
+        Map<Integer, MessageId> stopIds = Collections.singletonMap(0, new MessageIdImpl(3, 4, 0));
+        PulsarPartitionSplit indexSplit = new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(TOPIC)),
+                StartOffsetInitializer.earliest(),
+                StopCondition.stopAtPartitionIndexMessageIds(stopIds));
+        PartitionIndexMessageIdsStopCondition indexCondition =
+                (PartitionIndexMessageIdsStopCondition) roundTrip(indexSplit).getStopCondition();
+        assertEquals(stopIds, indexCondition.getStopIds());
+        assertFalse(indexCondition.isStopAfter());
+
+        PublishTimeStopCondition stopCondition = (PublishTimeStopCondition) StopCondition.stopAtPublishTime(42L);
+        stopCondition.setLastId(new MessageIdImpl(4, 5, 0));
+        PulsarPartitionSplit publishTimeSplit = new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(TOPIC)),
+                StartOffsetInitializer.earliest(),
+                stopCondition);
+        PublishTimeStopCondition restoredCondition =
+                (PublishTimeStopCondition) roundTrip(publishTimeSplit).getStopCondition();
+        assertEquals(42L, restoredCondition.getTimestamp());
+        assertEquals(stopCondition.getLastId(), restoredCondition.getLastId());
+    }
+
+    @Test
+    public void testSerializeCustomStopCondition() throws Exception {
+        PulsarPartitionSplit split = new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(TOPIC)),
+                StartOffsetInitializer.earliest(),
+                new CustomStopCondition());
+
+        assertTrue(roundTrip(split).getStopCondition() instanceof CustomStopCondition);
+    }
+
+    @Test
+    public void testDeserializeJavaSerializedSplit() throws Exception {
+        PulsarPartitionSplit split = new PulsarPartitionSplit(
+                new BrokerPartition(new TopicRange(TOPIC)),
+                StartOffsetInitializer.earliest(),
+                StopCondition.stopAtTimestamp(7L));
+        split.setLastConsumedId(new MessageIdImpl(1, 1, -1));
+
+        PulsarPartitionSplit restored = serializer.deserialize(
+                PulsarPartitionSplitSerializer.JAVA_SERIALIZATION_VERSION,
+                InstantiationUtil.serializeObject(split));
+        assertEquals(split.getPartition(), restored.getPartition());
+        assertEquals(split.getLastConsumedId(), restored.getLastConsumedId());
+        assertEquals(7L, ((TimestampStopCondition) restored.getStopCondition()).getTimestamp());
+    }
+
+    private PulsarPartitionSplit roundTrip(PulsarPartitionSplit split) throws Exception {
+        return serializer.deserialize(serializer.getVersion(), serializer.serialize(split));
+    }
+
+    /**
+     * A stop condition that is not built in.
+     */
+    private static class CustomStopCondition implements StopCondition {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public StopResult shouldStop(AbstractPartition partition, Message<?> message) {
+            return StopResult.DONT_STOP;
+        }
+    }
+}
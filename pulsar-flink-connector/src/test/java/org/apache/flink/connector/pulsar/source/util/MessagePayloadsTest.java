@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.connector.pulsar.source.util;
+
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
+
+import org.apache.pulsar.client.api.Message;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link MessagePayloads}.
+ */
+public class MessagePayloadsTest {
+
+    @Test
+    public void testPayloadOfOtherMessages() {
+        Message<?> message = mock(Message.class);
+        when(message.getData()).thenReturn(new byte[]{1, 2, 3});
+        ByteBuffer payload = MessagePayloads.payload(message);
+        assertEquals(3, payload.remaining());
+        assertEquals(2, payload.get(1));
+
+        when(message.getData()).thenReturn(null);
+        assertNull(MessagePayloads.payload(message));
+    }
+
+    @Test
+    public void testDeserializeFromBuffer() throws Exception {
+        Message<?> message = mock(Message.class);
+        when(message.getData()).thenReturn("value".getBytes(StandardCharsets.UTF_8));
+
+        List<Integer> lengths = new ArrayList<>();
+        MessagePayloads.deserialize(new LengthSchema(), message, new ListCollector<>(lengths));
+        assertEquals(5, (int) lengths.get(0));
+
+        List<String> values = new ArrayList<>();
+        MessagePayloads.deserialize(new SimpleStringSchema(), message, new ListCollector<>(values));
+        assertEquals("value", values.get(0));
+    }
+
+    @Test
+    public void testInputStream() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{0, 1, 2, (byte) 255, 4});
+        buffer.position(1);
+        InputStream in = MessagePayloads.asInputStream(buffer);
+        assertEquals(1, in.read());
+        byte[] bytes = new byte[8];
+        assertEquals(3, in.read(bytes, 0, bytes.length));
+        assertArrayEquals(new byte[]{2, (byte) 255, 4}, Arrays.copyOf(bytes, 3));
+        assertEquals(-1, in.read());
+    }
+
+    private static class LengthSchema implements ByteBufferDeserializationSchema<Integer> {
+
+        @Override
+        public Integer deserialize(ByteBuffer message) {
+            return message.remaining();
+        }
+
+        @Override
+        public boolean isEndOfStream(Integer nextElement) {
+            return false;
+        }
+
+        @Override
+        public TypeInformation<Integer> getProducedType() {
+            return Types.INT;
+        }
+    }
+}
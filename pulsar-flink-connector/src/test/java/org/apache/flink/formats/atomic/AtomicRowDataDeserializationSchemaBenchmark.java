@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.formats.atomic;
+
+import org.apache.flink.streaming.connectors.pulsar.internal.SimpleSchemaTranslator;
+import org.apache.flink.streaming.connectors.pulsar.util.RowDataUtil;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.utils.TypeConversions;
+import org.apache.flink.types.RowKind;
+
+import org.apache.pulsar.client.api.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link AtomicRowDataDeserializationSchema} with resolving the data type and the
+ * Pulsar schema for every record.
+ *
+ * <p>Run with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AtomicRowDataDeserializationSchemaBenchmark {
+
+    @Param({"java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.String"})
+    public String className;
+
+    private Class<?> clazz;
+
+    private byte[] message;
+
+    private AtomicRowDataDeserializationSchema deserializationSchema;
+
+    @Setup
+    public void setup() throws Exception {
+        clazz = Class.forName(className);
+        deserializationSchema = new AtomicRowDataDeserializationSchema.Builder(className).build();
+        deserializationSchema.open(null);
+
+        if (clazz == Integer.class) {
+            message = Schema.INT32.encode(42);
+        } else if (clazz == Long.class) {
+            message = Schema.INT64.encode(42L);
+        } else if (clazz == Double.class) {
+            message = Schema.DOUBLE.encode(42.0d);
+        } else {
+            message = Schema.STRING.encode("forty-two");
+        }
+    }
+
+    @Benchmark
+    public RowData resolvedSchema() throws Exception {
+        return deserializationSchema.deserialize(message);
+    }
+
+    @Benchmark
+    public RowData perRecordSchema() throws Exception {
+        DataType dataType = TypeConversions.fromClassToDataType(clazz).get();
+        Schema<?> schema = SimpleSchemaTranslator.sqlType2PulsarSchema(dataType);
+        final GenericRowData rowData = new GenericRowData(RowKind.INSERT, 1);
+        RowDataUtil.setField(rowData, 0, schema.decode(message));
+        return rowData;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AtomicRowDataDeserializationSchemaBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
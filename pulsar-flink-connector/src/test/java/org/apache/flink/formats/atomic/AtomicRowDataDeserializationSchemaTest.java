@@ -71,6 +71,10 @@ public class AtomicRowDataDeserializationSchemaTest extends TestLogger {
                         Schema.FLOAT,
                         Float.MAX_VALUE
                 },
+                new Object[]{
+                        Schema.BOOL,
+                        Boolean.TRUE
+                },
                 new Object[]{
                         Schema.BYTES,
                         new byte[]{1, 2, 3, 5, 6, 8, 9, 0}
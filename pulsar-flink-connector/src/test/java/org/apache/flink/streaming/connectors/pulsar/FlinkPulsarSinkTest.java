@@ -18,6 +18,12 @@ import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.testutils.CheckedThread;
 import org.apache.flink.core.testutils.MultiShotLatch;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Metric;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
 import org.apache.flink.runtime.state.FunctionSnapshotContext;
 import org.apache.flink.streaming.api.operators.StreamSink;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
@@ -38,12 +44,17 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.FLUSHES_FAILED_METRICS_COUNTER;
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.FLUSHES_SUCCEEDED_METRICS_COUNTER;
+import static org.apache.flink.streaming.connectors.pulsar.internal.metrics.PulsarSinkMetrics.PENDING_RECORDS_METRICS_GAUGE;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
@@ -278,6 +289,42 @@ public class FlinkPulsarSinkTest extends TestLogger {
         testHarness.close();
     }
 
+    /**
+     * Test ensuring that the pending records gauge follows the sends and their acknowledgements,
+     * and that a checkpoint counts a successful flush.
+     */
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testFlushMetrics() throws Throwable {
+        final DummyFlinkPulsarSink<String> sink = new DummyFlinkPulsarSink<>(dummyClientConf(), dummyProperties());
+
+        final OneInputStreamOperatorTestHarness<String, Object> testHarness =
+                new OneInputStreamOperatorTestHarness<>(new StreamSink<>(sink));
+
+        testHarness.open();
+
+        final Gauge<Long> pendingRecords = (Gauge<Long>) sink.getMetric(PENDING_RECORDS_METRICS_GAUGE);
+        final Counter flushesSucceeded = (Counter) sink.getMetric(FLUSHES_SUCCEEDED_METRICS_COUNTER);
+        final Counter flushesFailed = (Counter) sink.getMetric(FLUSHES_FAILED_METRICS_COUNTER);
+        Assert.assertEquals(Long.valueOf(0L), pendingRecords.getValue());
+
+        testHarness.processElement(new StreamRecord<>("msg-1"));
+        testHarness.processElement(new StreamRecord<>("msg-2"));
+        Assert.assertEquals(Long.valueOf(2L), pendingRecords.getValue());
+
+        sink.getPendingCallbacks().get(0).accept(null, null);
+        Assert.assertEquals(Long.valueOf(1L), pendingRecords.getValue());
+        sink.getPendingCallbacks().get(1).accept(null, null);
+        Assert.assertEquals(Long.valueOf(0L), pendingRecords.getValue());
+        Assert.assertEquals(0L, flushesSucceeded.getCount());
+
+        testHarness.snapshot(123L, 123L);
+        Assert.assertEquals(1L, flushesSucceeded.getCount());
+        Assert.assertEquals(0L, flushesFailed.getCount());
+
+        testHarness.close();
+    }
+
     private static class DummyFlinkPulsarSink<T> extends FlinkPulsarSink<T> {
 
         private static final long serialVersionUID = 1L;
@@ -293,6 +340,7 @@ public class FlinkPulsarSinkTest extends TestLogger {
 
         private transient List<BiConsumer<MessageId, Throwable>> pendingCallbacks;
         private transient MultiShotLatch flushLatch;
+        private transient RecordingMetricGroup metricGroup;
         private boolean isFlushed;
 
         public DummyFlinkPulsarSink(ClientConfigurationData clientConf, Properties properties) {
@@ -310,6 +358,7 @@ public class FlinkPulsarSinkTest extends TestLogger {
 
             this.pendingCallbacks = new ArrayList<>();
             this.flushLatch = new MultiShotLatch();
+            this.metricGroup = new RecordingMetricGroup();
 
             when(mockMessageBuilder.sendAsync()).thenAnswer((Answer<CompletableFuture<MessageId>>) invocation -> {
 
@@ -354,6 +403,11 @@ public class FlinkPulsarSinkTest extends TestLogger {
             if (flushOnCheckpoint && !((StreamingRuntimeContext) this.getRuntimeContext()).isCheckpointingEnabled()) {
                 flushOnCheckpoint = false;
             }
+            registerMetrics(metricGroup);
+        }
+
+        public Metric getMetric(String name) {
+            return metricGroup.metrics.get(name);
         }
 
         public void waitUntilFlushStarted() throws InterruptedException {
@@ -398,4 +452,34 @@ public class FlinkPulsarSinkTest extends TestLogger {
             }
         }
     }
+
+    /**
+     * Metric group that keeps the registered metrics by name.
+     */
+    private static class RecordingMetricGroup extends UnregisteredMetricsGroup {
+
+        private final Map<String, Metric> metrics = new HashMap<>();
+
+        @Override
+        public Counter counter(String name) {
+            return counter(name, new SimpleCounter());
+        }
+
+        @Override
+        public <C extends Counter> C counter(String name, C counter) {
+            metrics.put(name, counter);
+            return counter;
+        }
+
+        @Override
+        public <T, G extends Gauge<T>> G gauge(String name, G gauge) {
+            metrics.put(name, gauge);
+            return gauge;
+        }
+
+        @Override
+        public MetricGroup addGroup(String name) {
+            return this;
+        }
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test of {@link InFlightMessages}.
+ */
+public class InFlightMessagesTest {
+
+    @Test
+    public void testSealCompletesAfterAllSendsAreAcknowledged() throws Exception {
+        List<MessageId> pendingMessages = new ArrayList<>();
+        InFlightMessages inFlightMessages = new InFlightMessages(pendingMessages);
+
+        CompletableFuture<MessageId> send1 = new CompletableFuture<>();
+        CompletableFuture<MessageId> send2 = new CompletableFuture<>();
+        inFlightMessages.track(send1);
+        inFlightMessages.track(send2);
+
+        MessageId id1 = new MessageIdImpl(1, 1, -1);
+        send1.complete(id1);
+        CompletableFuture<List<MessageId>> sealed = inFlightMessages.seal();
+        assertFalse(sealed.isDone());
+        assertEquals(1, inFlightMessages.getNumInFlight());
+
+        MessageId id2 = new MessageIdImpl(1, 2, -1);
+        send2.complete(id2);
+        assertTrue(sealed.isDone());
+        assertEquals(Arrays.asList(id1, id2), sealed.get());
+        assertEquals(Arrays.asList(id1, id2), pendingMessages);
+    }
+
+    @Test
+    public void testSealWithoutSends() {
+        InFlightMessages inFlightMessages = new InFlightMessages(new ArrayList<>());
+        assertTrue(inFlightMessages.seal().isDone());
+    }
+
+    @Test
+    public void testSealFailsWhenASendFails() throws Exception {
+        InFlightMessages inFlightMessages = new InFlightMessages(new ArrayList<>());
+        CompletableFuture<MessageId> send = new CompletableFuture<>();
+        inFlightMessages.track(send);
+        send.completeExceptionally(new PulsarClientException("send failed"));
+
+        try {
+            inFlightMessages.seal().get();
+            fail("Sealing should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof PulsarClientException);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTrackAfterSealIsRejected() {
+        InFlightMessages inFlightMessages = new InFlightMessages(new ArrayList<>());
+        inFlightMessages.seal();
+        inFlightMessages.track(new CompletableFuture<>());
+    }
+}
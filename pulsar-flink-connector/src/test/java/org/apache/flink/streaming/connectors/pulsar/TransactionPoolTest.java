@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar;
+
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.transaction.Transaction;
+import org.apache.pulsar.client.api.transaction.TransactionBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link TransactionPool}.
+ */
+public class TransactionPoolTest {
+
+    private PulsarClient client;
+
+    private TransactionBuilder builder;
+
+    private List<Transaction> opened;
+
+    @Before
+    public void setUp() throws Exception {
+        client = mock(PulsarClient.class);
+        opened = new ArrayList<>();
+        builder = mock(TransactionBuilder.class);
+        when(client.newTransaction()).thenReturn(builder);
+        when(builder.withTransactionTimeout(anyLong(), any())).thenReturn(builder);
+        when(builder.build()).thenAnswer(invocation -> {
+            Transaction transaction = mock(Transaction.class);
+            when(transaction.abort()).thenReturn(CompletableFuture.completedFuture(null));
+            opened.add(transaction);
+            return CompletableFuture.completedFuture(transaction);
+        });
+    }
+
+    @Test
+    public void testTakeReplacesTheTakenTransaction() throws Exception {
+        TransactionPool pool = new TransactionPool(client, 2, 60_000, 1_000);
+        assertEquals(2, opened.size());
+
+        Transaction transaction = pool.take();
+        assertSame(opened.get(0), transaction);
+        assertEquals(3, opened.size());
+        assertEquals(2, pool.getNumPooled());
+    }
+
+    @Test
+    public void testCloseAbortsUnusedTransactions() throws Exception {
+        TransactionPool pool = new TransactionPool(client, 2, 60_000, 1_000);
+        Transaction taken = pool.take();
+        pool.close();
+
+        verify(taken, never()).abort();
+        verify(opened.get(1)).abort();
+        verify(opened.get(2)).abort();
+        assertEquals(0, pool.getNumPooled());
+    }
+
+    @Test
+    public void testStaleTransactionsAreAborted() throws Exception {
+        TransactionPool pool = new TransactionPool(client, 1, 0, 1_000);
+        Transaction stale = opened.get(0);
+
+        Transaction transaction = pool.take();
+        verify(stale).abort();
+        assertSame(opened.get(2), transaction);
+    }
+
+    @Test
+    public void testTimeoutOpeningTransaction() throws Exception {
+        CompletableFuture<Transaction> slowTransaction = new CompletableFuture<>();
+        when(builder.build()).thenReturn(slowTransaction);
+        TransactionPool pool = new TransactionPool(client, 1, 60_000, 10);
+
+        try {
+            pool.take();
+            fail("Expected the take to time out");
+        } catch (FlinkRuntimeException e) {
+            assertTrue(e.getMessage().contains("Timed out after 10 ms"));
+        }
+        assertEquals(1, pool.getNumPooled());
+
+        // a transaction opened after the timeout is not leaked
+        Transaction late = mock(Transaction.class);
+        when(late.abort()).thenReturn(CompletableFuture.completedFuture(null));
+        slowTransaction.complete(late);
+        verify(late).abort();
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.apache.flink.streaming.connectors.pulsar.internal;
 
+import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.impl.PulsarClientImpl;
 import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
 import org.junit.Before;
@@ -26,6 +27,9 @@ import java.util.concurrent.ConcurrentMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Unit test of {@link CachedPulsarClient}.
@@ -109,4 +113,45 @@ public class CachedPulsarClientTest {
 
         assertEquals(map2.values().iterator().next(), client1);
     }
+
+    @Test
+    public void testShouldCloseClientWhenLastReferenceIsReleased() throws Exception {
+        ClientConfigurationData conf1 = new ClientConfigurationData();
+        conf1.setServiceUrl(SERVICE_URL);
+
+        ClientConfigurationData conf2 = new ClientConfigurationData();
+        conf2.setServiceUrl(SERVICE_URL);
+
+        PulsarClientImpl client1 = CachedPulsarClient.getOrCreate(conf1);
+        PulsarClientImpl client2 = CachedPulsarClient.getOrCreate(conf2);
+
+        assertSame(client1, client2);
+        assertEquals(2, CachedPulsarClient.getReferenceCount(conf1));
+
+        CachedPulsarClient.release(conf1);
+        assertEquals(1, CachedPulsarClient.getReferenceCount(conf2));
+        assertEquals(1, CachedPulsarClient.getAsMap().size());
+
+        CachedPulsarClient.release(conf2);
+        assertEquals(0, CachedPulsarClient.getReferenceCount(conf1));
+        assertTrue(CachedPulsarClient.getAsMap().isEmpty());
+
+        assertNotSame(client1, CachedPulsarClient.getOrCreate(conf1));
+    }
+
+    @Test
+    public void testFailedCreationIsNotCached() {
+        ClientConfigurationData conf = new ClientConfigurationData();
+        conf.setServiceUrl("not-a-service-url");
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                CachedPulsarClient.getOrCreate(conf);
+                fail("The client of an invalid service url should not be created");
+            } catch (PulsarClientException e) {
+                assertEquals(0, CachedPulsarClient.getReferenceCount(conf));
+                assertTrue(CachedPulsarClient.getAsMap().isEmpty());
+            }
+        }
+    }
 }
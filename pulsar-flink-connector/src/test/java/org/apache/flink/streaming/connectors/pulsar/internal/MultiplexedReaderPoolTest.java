@@ -0,0 +1,197 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.internal;
+
+import org.apache.flink.streaming.util.serialization.PulsarDeserializationSchema;
+import org.apache.flink.util.TestLogger;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Reader;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test of {@link MultiplexedReaderPool}.
+ */
+public class MultiplexedReaderPoolTest extends TestLogger {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final PulsarFetcher<String> owner = mock(PulsarFetcher.class);
+
+    private MultiplexedReaderPool<String> pool;
+
+    @After
+    public void closePool() throws Exception {
+        if (pool != null) {
+            pool.close(TIMEOUT_MS);
+        }
+    }
+
+    @Test
+    public void testReadersAreSpreadOverPollers() throws Exception {
+        pool = new MultiplexedReaderPool<>(2, "test");
+        pool.addReaders(Arrays.asList(idleReader("topic-1"), idleReader("topic-2"), idleReader("topic-3")));
+        assertArrayEquals(new int[]{2, 1}, pool.getNumReadersPerPoller());
+
+        pool.addReaders(Collections.singletonList(idleReader("topic-4")));
+        assertArrayEquals(new int[]{2, 2}, pool.getNumReadersPerPoller());
+        assertEquals(4, pool.getNumActiveReaders());
+    }
+
+    @Test
+    public void testFinishedReaderIsRemoved() throws Exception {
+        pool = new MultiplexedReaderPool<>(2, "test");
+        final PulsarDeserializationSchema<String> endOfStream = deserializer();
+        when(endOfStream.isEndOfStream("record")).thenReturn(true);
+        final Reader<String> reader = mock(Reader.class);
+        when(reader.readNextAsync()).thenReturn(CompletableFuture.completedFuture(message(1)));
+
+        pool.addReaders(Arrays.asList(
+                new TestReaderThread(owner, "topic-1", reader, endOfStream, 1),
+                idleReader("topic-2"),
+                idleReader("topic-3")));
+        assertArrayEquals(new int[]{2, 1}, pool.getNumReadersPerPoller());
+
+        pool.start();
+        waitUntil(() -> Arrays.equals(new int[]{1, 1}, pool.getNumReadersPerPoller()));
+        assertEquals(2, pool.getNumActiveReaders());
+        verify(reader, timeout(TIMEOUT_MS)).close();
+
+        // the released slot takes the next reader
+        pool.addReaders(Collections.singletonList(idleReader("topic-4")));
+        assertArrayEquals(new int[]{2, 1}, pool.getNumReadersPerPoller());
+    }
+
+    @Test
+    public void testFailedReaderIsRemoved() throws Exception {
+        pool = new MultiplexedReaderPool<>(1, "test");
+        final Reader<String> reader = mock(Reader.class);
+        final CompletableFuture<Message<String>> failedRead = new CompletableFuture<>();
+        failedRead.completeExceptionally(new RuntimeException("read failed"));
+        when(reader.readNextAsync()).thenReturn(failedRead);
+        final TestReaderThread failing = new TestReaderThread(owner, "topic-1", reader, deserializer(), 1);
+
+        pool.addReaders(Collections.singletonList(failing));
+        pool.start();
+        waitUntil(() -> pool.getNumReadersPerPoller()[0] == 0);
+        assertEquals(0, pool.getNumActiveReaders());
+    }
+
+    @Test
+    public void testMessagesAreEmittedInBatches() throws Exception {
+        pool = new MultiplexedReaderPool<>(1, "test");
+        final Reader<String> reader = mock(Reader.class);
+        when(reader.readNextAsync()).thenReturn(CompletableFuture.completedFuture(message(1)), new CompletableFuture<>());
+        when(reader.readNext(0, TimeUnit.MILLISECONDS)).thenReturn(message(2), (Message<String>) null);
+        final TestReaderThread batching = new TestReaderThread(owner, "topic-1", reader, deserializer(), 10);
+
+        pool.addReaders(Collections.singletonList(batching));
+        pool.start();
+        verify(owner, timeout(TIMEOUT_MS)).emitRecordsWithTimestamps(
+                eq(Arrays.asList("record", "record")), any(long[].class), eq(batching.state), eq(messageId(2)));
+        verify(owner, timeout(TIMEOUT_MS).times(0)).emitRecordsWithTimestamps(
+                any(String.class), any(PulsarTopicState.class), any(MessageId.class), anyLong());
+    }
+
+    // ------------------------------------------------------------------------
+
+    private TestReaderThread idleReader(String topic) {
+        final Reader<String> reader = mock(Reader.class);
+        when(reader.readNextAsync()).thenReturn(new CompletableFuture<>());
+        return new TestReaderThread(owner, topic, reader, deserializer(), 1);
+    }
+
+    private static PulsarDeserializationSchema<String> deserializer() {
+        final PulsarDeserializationSchema<String> deserializer = mock(PulsarDeserializationSchema.class);
+        try {
+            when(deserializer.deserialize(any(Message.class))).thenReturn("record");
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        return deserializer;
+    }
+
+    private static MessageId messageId(int entryId) {
+        return new MessageIdImpl(1, entryId, -1);
+    }
+
+    private static Message<String> message(int entryId) {
+        final Message<String> message = mock(Message.class);
+        when(message.getMessageId()).thenReturn(messageId(entryId));
+        return message;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Reader handle on a mocked Pulsar reader.
+     */
+    private static class TestReaderThread extends ReaderThread<String> {
+
+        private final Reader<String> mockReader;
+
+        TestReaderThread(
+                PulsarFetcher<String> owner,
+                String topic,
+                Reader<String> mockReader,
+                PulsarDeserializationSchema<String> deserializer,
+                int emitBatchSize) {
+            super(owner,
+                    new PulsarTopicState<>(new TopicRange(topic)),
+                    new ClientConfigurationData(),
+                    Collections.emptyMap(),
+                    deserializer,
+                    100,
+                    new ExceptionProxy(null),
+                    false,
+                    false,
+                    false,
+                    emitBatchSize);
+            this.mockReader = mockReader;
+        }
+
+        @Override
+        protected void openReader() {
+            reader = mockReader;
+        }
+    }
+}
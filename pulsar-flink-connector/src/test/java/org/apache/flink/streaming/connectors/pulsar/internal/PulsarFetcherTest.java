@@ -31,6 +31,7 @@ import org.apache.pulsar.common.naming.TopicName;
 import org.junit.Test;
 import org.mockito.internal.util.collections.Sets;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -115,6 +116,36 @@ public class PulsarFetcherTest extends TestLogger {
         assertEquals(dummyMessageId(3), stateHolder.getOffset());
     }
 
+    @Test
+    public void testEmitRecordBatch() throws Exception {
+        String testTopic = "test-topic";
+        Map<TopicRange, MessageId> offset = Collections.singletonMap(new TopicRange(topicName(testTopic, 1)),
+                MessageId.latest);
+
+        TestSourceContext<Long> sourceContext = new TestSourceContext<Long>();
+        TestFetcher<Long> fetcher = new TestFetcher<>(
+                sourceContext,
+                offset,
+                null,
+                new TestProcessingTimeService(),
+                0);
+
+        PulsarTopicState stateHolder = fetcher.getSubscribedTopicStates().get(0);
+        fetcher.emitRecordsWithTimestamps(
+                Arrays.asList(1L, 2L, 3L),
+                new long[]{dummyMessageEventTime(), dummyMessageEventTime(), dummyMessageEventTime()},
+                stateHolder,
+                dummyMessageId(3));
+        assertEquals(3L, sourceContext.getLatestElement().getValue().longValue());
+        assertEquals(dummyMessageId(3), stateHolder.getOffset());
+
+        // a batch of skipped records still advances the offset
+        fetcher.emitRecordsWithTimestamps(
+                Collections.emptyList(), new long[0], stateHolder, dummyMessageId(5));
+        assertEquals(3L, sourceContext.getLatestElement().getValue().longValue());
+        assertEquals(dummyMessageId(5), stateHolder.getOffset());
+    }
+
     @Test
     public void testConcurrentPartitionsDiscoveryAndLoopFetching() throws Exception {
         String tp = "test-topic";
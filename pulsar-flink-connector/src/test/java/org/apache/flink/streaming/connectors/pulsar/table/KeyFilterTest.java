@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.connector.pulsar.source.util.KeyHashes;
+import org.apache.flink.streaming.connectors.pulsar.internal.SerializableRange;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link KeyFilter}.
+ */
+public class KeyFilterTest {
+
+    private static final RowType PHYSICAL_TYPE = (RowType) DataTypes.ROW(
+            DataTypes.FIELD("tenant", DataTypes.STRING()),
+            DataTypes.FIELD("shard", DataTypes.INT()),
+            DataTypes.FIELD("payload", DataTypes.STRING())).getLogicalType();
+
+    private static final int[] KEY_PROJECTION = {0, 1};
+
+    private static final FieldReferenceExpression TENANT =
+            new FieldReferenceExpression("tenant", DataTypes.STRING(), 0, 0);
+
+    private static final FieldReferenceExpression SHARD =
+            new FieldReferenceExpression("shard", DataTypes.INT(), 0, 1);
+
+    private static final FieldReferenceExpression PAYLOAD =
+            new FieldReferenceExpression("payload", DataTypes.STRING(), 0, 2);
+
+    @Test
+    public void testEqualityAndInFilters() {
+        final KeyFilter keyFilter = new KeyFilter();
+        assertTrue(keyFilter.addFilter(call(BuiltInFunctionDefinitions.EQUALS, literal(42), SHARD), PHYSICAL_TYPE, KEY_PROJECTION));
+        assertTrue(keyFilter.addFilter(
+                call(BuiltInFunctionDefinitions.IN, TENANT, literal("tenant-1"), literal("tenant-2"), literal("tenant-3")),
+                PHYSICAL_TYPE,
+                KEY_PROJECTION));
+        // intersects with the values of the IN filter
+        assertTrue(keyFilter.addFilter(
+                call(BuiltInFunctionDefinitions.OR,
+                        call(BuiltInFunctionDefinitions.EQUALS, TENANT, literal("tenant-1")),
+                        call(BuiltInFunctionDefinitions.EQUALS, TENANT, literal("tenant-2"))),
+                PHYSICAL_TYPE,
+                KEY_PROJECTION));
+
+        final KeyFilter runtimeFilter = keyFilter.project(new int[]{0, 1});
+        assertTrue(runtimeFilter.matches(GenericRowData.of(StringData.fromString("tenant-1"), 42)));
+        assertTrue(runtimeFilter.matches(GenericRowData.of(StringData.fromString("tenant-2"), 42)));
+        assertFalse(runtimeFilter.matches(GenericRowData.of(StringData.fromString("tenant-3"), 42)));
+        assertFalse(runtimeFilter.matches(GenericRowData.of(StringData.fromString("tenant-1"), 7)));
+        assertFalse(runtimeFilter.matches(GenericRowData.of(null, 42)));
+
+        // the decoded key rows have their fields in the order of the key format
+        final KeyFilter reorderedFilter = keyFilter.project(new int[]{1, 0});
+        assertTrue(reorderedFilter.matches(GenericRowData.of(42, StringData.fromString("tenant-1"))));
+        assertNull(keyFilter.project(new int[]{0}));
+    }
+
+    @Test
+    public void testIgnoredFilters() {
+        final KeyFilter keyFilter = new KeyFilter();
+        assertFalse(keyFilter.addFilter(call(BuiltInFunctionDefinitions.EQUALS, PAYLOAD, literal("a")), PHYSICAL_TYPE, KEY_PROJECTION));
+        assertFalse(keyFilter.addFilter(call(BuiltInFunctionDefinitions.NOT_EQUALS, TENANT, literal("a")), PHYSICAL_TYPE, KEY_PROJECTION));
+        assertFalse(keyFilter.addFilter(call(BuiltInFunctionDefinitions.EQUALS, TENANT, PAYLOAD), PHYSICAL_TYPE, KEY_PROJECTION));
+        assertFalse(keyFilter.addFilter(
+                call(BuiltInFunctionDefinitions.OR,
+                        call(BuiltInFunctionDefinitions.EQUALS, TENANT, literal("tenant-1")),
+                        call(BuiltInFunctionDefinitions.EQUALS, SHARD, literal(42))),
+                PHYSICAL_TYPE,
+                KEY_PROJECTION));
+        assertTrue(keyFilter.isEmpty());
+    }
+
+    @Test
+    public void testKeyHashRanges() {
+        final KeyFilter keyFilter = new KeyFilter();
+        assertNull(keyFilter.getKeyHashRanges(0));
+        keyFilter.addFilter(
+                call(BuiltInFunctionDefinitions.IN, TENANT, literal("tenant-1"), literal("tenant-2")),
+                PHYSICAL_TYPE,
+                KEY_PROJECTION);
+        keyFilter.addFilter(call(BuiltInFunctionDefinitions.EQUALS, SHARD, literal(42)), PHYSICAL_TYPE, KEY_PROJECTION);
+
+        // every key is read by its own hash, not by the span of the hashes
+        final int hash1 = KeyHashes.hashOf("tenant-1".getBytes(StandardCharsets.UTF_8));
+        final int hash2 = KeyHashes.hashOf("tenant-2".getBytes(StandardCharsets.UTF_8));
+        assertEquals(
+                Arrays.asList(
+                        SerializableRange.of(Math.min(hash1, hash2), Math.min(hash1, hash2)),
+                        SerializableRange.of(Math.max(hash1, hash2), Math.max(hash1, hash2))),
+                keyFilter.getKeyHashRanges(0));
+        // only string keys are hashed
+        assertNull(keyFilter.getKeyHashRanges(1));
+    }
+
+    private static ValueLiteralExpression literal(String value) {
+        return new ValueLiteralExpression(value, DataTypes.STRING().notNull());
+    }
+
+    private static ValueLiteralExpression literal(int value) {
+        return new ValueLiteralExpression(value, DataTypes.INT().notNull());
+    }
+
+    private static CallExpression call(FunctionDefinition function, ResolvedExpression... args) {
+        return new CallExpression(function, Arrays.asList(args), DataTypes.BOOLEAN());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test of {@link PublishTimeBounds}.
+ */
+public class PublishTimeBoundsTest {
+
+    private static final String PUBLISH_TIME = "publish_time";
+
+    private static final FieldReferenceExpression PUBLISH_TIME_FIELD =
+            new FieldReferenceExpression(PUBLISH_TIME, DataTypes.TIMESTAMP_WITH_LOCAL_TIME_ZONE(3), 0, 3);
+
+    /** The time the filters are planned at. */
+    private static final long NOW = 1622505600000L;
+
+    @Test
+    public void testBoundsOfComparisons() {
+        final PublishTimeBounds bounds = new PublishTimeBounds(true, true);
+        assertTrue(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN, PUBLISH_TIME_FIELD, literal(1000)), PUBLISH_TIME, NOW));
+        assertTrue(bounds.addFilter(compare(BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL, PUBLISH_TIME_FIELD, literal(5000)), PUBLISH_TIME, NOW));
+        assertEquals(Long.valueOf(1000), bounds.getLowerBound());
+        assertEquals(Long.valueOf(5001), bounds.getUpperBound());
+
+        // literal on the left side
+        assertTrue(bounds.addFilter(compare(BuiltInFunctionDefinitions.LESS_THAN, literal(2000), PUBLISH_TIME_FIELD), PUBLISH_TIME, NOW));
+        assertEquals(Long.valueOf(2000), bounds.getLowerBound());
+
+        // wider bounds do not narrow the range
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL, PUBLISH_TIME_FIELD, literal(1500)), PUBLISH_TIME, NOW));
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.LESS_THAN, PUBLISH_TIME_FIELD, literal(6000)), PUBLISH_TIME, NOW));
+
+        assertTrue(bounds.addFilter(compare(BuiltInFunctionDefinitions.EQUALS, PUBLISH_TIME_FIELD, literal(3000)), PUBLISH_TIME, NOW));
+        assertEquals(Long.valueOf(3000), bounds.getLowerBound());
+        assertEquals(Long.valueOf(3001), bounds.getUpperBound());
+    }
+
+    @Test
+    public void testIgnoredFilters() {
+        final PublishTimeBounds bounds = new PublishTimeBounds(true, true);
+        final FieldReferenceExpression eventTime =
+                new FieldReferenceExpression("event_time", DataTypes.TIMESTAMP_WITH_LOCAL_TIME_ZONE(3), 0, 4);
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN, eventTime, literal(1000)), PUBLISH_TIME, NOW));
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.NOT_EQUALS, PUBLISH_TIME_FIELD, literal(1000)), PUBLISH_TIME, NOW));
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN, PUBLISH_TIME_FIELD, eventTime), PUBLISH_TIME, NOW));
+        assertNull(bounds.getLowerBound());
+        assertNull(bounds.getUpperBound());
+    }
+
+    @Test
+    public void testBoundsUnusedBySource() {
+        final PublishTimeBounds bounds = new PublishTimeBounds(false, true);
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN, PUBLISH_TIME_FIELD, literal(1000)), PUBLISH_TIME, NOW));
+        assertTrue(bounds.addFilter(compare(BuiltInFunctionDefinitions.EQUALS, PUBLISH_TIME_FIELD, literal(3000)), PUBLISH_TIME, NOW));
+        assertNull(bounds.getLowerBound());
+        assertEquals(Long.valueOf(3001), bounds.getUpperBound());
+    }
+
+    @Test
+    public void testLowerBoundRelativeToNow() {
+        final PublishTimeBounds bounds = new PublishTimeBounds(true, true);
+        final CallExpression now = new CallExpression(
+                BuiltInFunctionDefinitions.CURRENT_TIMESTAMP,
+                Collections.emptyList(),
+                DataTypes.TIMESTAMP_WITH_LOCAL_TIME_ZONE(3).notNull());
+        final CallExpression oneHourAgo = new CallExpression(
+                BuiltInFunctionDefinitions.MINUS,
+                Arrays.asList(now, new ValueLiteralExpression(Duration.ofHours(1), DataTypes.INTERVAL(DataTypes.HOUR()).notNull())),
+                DataTypes.TIMESTAMP_WITH_LOCAL_TIME_ZONE(3).notNull());
+        assertTrue(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN, PUBLISH_TIME_FIELD, oneHourAgo), PUBLISH_TIME, NOW));
+        assertEquals(Long.valueOf(NOW - Duration.ofHours(1).toMillis()), bounds.getLowerBound());
+
+        // the current time grows while the rows are filtered, it does not bound the publish times from above
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.LESS_THAN, PUBLISH_TIME_FIELD, now), PUBLISH_TIME, NOW));
+        assertFalse(bounds.addFilter(compare(BuiltInFunctionDefinitions.GREATER_THAN, oneHourAgo, PUBLISH_TIME_FIELD), PUBLISH_TIME, NOW));
+        assertNull(bounds.getUpperBound());
+    }
+
+    private static ValueLiteralExpression literal(long epochMillis) {
+        return new ValueLiteralExpression(
+                Instant.ofEpochMilli(epochMillis), DataTypes.TIMESTAMP_WITH_LOCAL_TIME_ZONE(3).notNull());
+    }
+
+    private static CallExpression compare(FunctionDefinition function, ResolvedExpression left, ResolvedExpression right) {
+        return new CallExpression(function, Arrays.asList(left, right), DataTypes.BOOLEAN());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.pulsar.table;
+
+import org.apache.flink.table.api.EnvironmentSettings;
+import org.apache.flink.table.api.TableEnvironment;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Plans queries on the publish time of a table read by the FLIP-27 source and checks which filters
+ * are pushed into the source.
+ */
+public class PublishTimeFilterPushDownTest {
+
+    /** The digest of a table source scan with at least one pushed filter. */
+    private static final Pattern PUSHED_FILTER = Pattern.compile("filter=\\[[^\\]]");
+
+    private TableEnvironment tableEnv;
+
+    @Before
+    public void createTable() {
+        tableEnv = TableEnvironment.create(EnvironmentSettings.newInstance()
+                .useBlinkPlanner()
+                .inStreamingMode()
+                .build());
+        tableEnv.executeSql("CREATE TABLE pulsar_table (\n"
+                + "  id INT,\n"
+                + "  publish_time TIMESTAMP(3) WITH LOCAL TIME ZONE METADATA FROM 'publishTime' VIRTUAL\n"
+                + ") WITH (\n"
+                + "  'connector' = 'pulsar',\n"
+                + "  'topic' = 'persistent://public/default/topic',\n"
+                + "  'service-url' = 'pulsar://localhost:6650',\n"
+                + "  'admin-url' = 'http://localhost:8080',\n"
+                + "  'format' = 'json',\n"
+                + "  'scan.startup.mode' = 'earliest',\n"
+                + "  'scan.new-source.enabled' = 'true'\n"
+                + ")");
+    }
+
+    @Test
+    public void testConstantBoundIsPushedDown() {
+        final String plan = tableEnv.explainSql(
+                "SELECT id FROM pulsar_table WHERE publish_time > TO_TIMESTAMP_LTZ(1622505600000, 3)");
+        assertTrue(plan, PUSHED_FILTER.matcher(plan).find());
+    }
+
+    @Test
+    public void testLowerBoundRelativeToNowIsPushedDown() {
+        // the current time is taken once when the source is planned
+        final String plan = tableEnv.explainSql(
+                "SELECT id FROM pulsar_table WHERE publish_time > CURRENT_TIMESTAMP - INTERVAL '1' HOUR");
+        assertTrue(plan, PUSHED_FILTER.matcher(plan).find());
+    }
+}
@@ -16,10 +16,13 @@ package org.apache.flink.streaming.connectors.pulsar.table;
 
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.connector.pulsar.source.PulsarSource;
 import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.apache.flink.streaming.api.functions.source.SourceFunction;
 import org.apache.flink.streaming.connectors.pulsar.FlinkPulsarSink;
 import org.apache.flink.streaming.connectors.pulsar.FlinkPulsarSource;
+import org.apache.flink.streaming.connectors.pulsar.config.BoundedMode;
 import org.apache.flink.streaming.connectors.pulsar.config.StartupMode;
 import org.apache.flink.streaming.connectors.pulsar.util.KeyHashMessageRouterImpl;
 import org.apache.flink.table.api.DataTypes;
@@ -36,6 +39,7 @@ import org.apache.flink.table.connector.sink.SinkFunctionProvider;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.SourceFunctionProvider;
+import org.apache.flink.table.connector.source.SourceProvider;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.expressions.utils.ResolvedExpressionMock;
 import org.apache.flink.table.factories.TestFormatFactory;
@@ -44,12 +48,14 @@ import org.apache.flink.table.factories.TestFormatFactory.EncodingFormatMock;
 import org.apache.flink.table.runtime.connector.sink.SinkRuntimeProviderContext;
 import org.apache.flink.table.runtime.connector.source.ScanRuntimeProviderContext;
 import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.utils.LogicalTypeChecks;
 import org.apache.flink.util.TestLogger;
 
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.MessageRouter;
 import org.apache.pulsar.client.api.TopicMetadata;
+import org.apache.pulsar.client.impl.MessageIdImpl;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -253,6 +259,75 @@ public class PulsarDynamicTableFactoryTest extends TestLogger {
         assertThat(sourceFunction, instanceOf(FlinkPulsarSource.class));
     }
 
+    @Test
+    public void testBoundedTableSource() {
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getBasicSourceOptions(),
+                options -> {
+                    options.put("scan.startup.mode", "earliest");
+                    options.remove("scan.startup.specific-offsets");
+                    options.put("scan.bounded.mode", "specific-offsets");
+                    options.put("scan.bounded.specific-offsets", "42:1012:0;44:1011:1");
+                });
+        final PulsarDynamicTableSource actualPulsarSource =
+                (PulsarDynamicTableSource) createTableSource(SCHEMA, modifiedOptions);
+
+        final PulsarTableOptions.BoundedOptions boundedOptions = new PulsarTableOptions.BoundedOptions();
+        boundedOptions.boundedMode = BoundedMode.SPECIFIC_OFFSETS;
+        boundedOptions.specificOffsets.put(0, new MessageIdImpl(42, 1012, 0));
+        boundedOptions.specificOffsets.put(1, new MessageIdImpl(44, 1011, 1));
+        boundedOptions.newSourceEnabled = true;
+        assertEquals(boundedOptions, actualPulsarSource.boundedOptions);
+
+        ScanTableSource.ScanRuntimeProvider provider =
+                actualPulsarSource.getScanRuntimeProvider(ScanRuntimeProviderContext.INSTANCE);
+        assertThat(provider, instanceOf(SourceProvider.class));
+        assertTrue(provider.isBounded());
+        assertThat(((SourceProvider) provider).createSource(), instanceOf(PulsarSource.class));
+        assertEquals(Boundedness.BOUNDED, ((SourceProvider) provider).createSource().getBoundedness());
+        assertEquals(actualPulsarSource, actualPulsarSource.copy());
+    }
+
+    @Test
+    public void testTableSourceWithProjection() {
+        final PulsarDynamicTableSource actualPulsarSource =
+                (PulsarDynamicTableSource) createTableSource(SCHEMA, getBasicSourceOptions());
+        actualPulsarSource.applyProjection(new int[][]{{2}, {0}});
+        assertEquals(
+                Arrays.asList(EVENT_TIME, NAME),
+                LogicalTypeChecks.getFieldNames(actualPulsarSource.producedDataType.getLogicalType()));
+        assertEquals(actualPulsarSource, actualPulsarSource.copy());
+
+        // the test format may read its fields by position, so it decodes all of them
+        actualPulsarSource.getScanRuntimeProvider(ScanRuntimeProviderContext.INSTANCE);
+        final DecodingFormatMock valueFormat = (DecodingFormatMock) actualPulsarSource.valueDecodingFormat;
+        assertEquals(
+                Arrays.asList(NAME, COUNT, EVENT_TIME),
+                LogicalTypeChecks.getFieldNames(valueFormat.producedDataType.getLogicalType()));
+
+        final PulsarTableOptions.StartupOptions startupOptions = new PulsarTableOptions.StartupOptions();
+        startupOptions.startupMode = StartupMode.EARLIEST;
+        final DecodingFormatMock projectableFormat = new DecodingFormatMock(",", true);
+        final PulsarDynamicTableSource projectableSource = createExpectedScanSource(
+                SCHEMA_DATA_TYPE,
+                null,
+                new ProjectableDecodingFormat(projectableFormat),
+                new int[0],
+                new int[]{0, 1, 2},
+                null,
+                SERVICE_URL,
+                ADMIN_URL,
+                Collections.singletonList(TOPIC),
+                null,
+                PULSAR_SOURCE_PROPERTIES,
+                startupOptions);
+        projectableSource.applyProjection(new int[][]{{2}, {0}});
+        projectableSource.getScanRuntimeProvider(ScanRuntimeProviderContext.INSTANCE);
+        assertEquals(
+                Arrays.asList(NAME, EVENT_TIME),
+                LogicalTypeChecks.getFieldNames(projectableFormat.producedDataType.getLogicalType()));
+    }
+
     @Test
     public void testTableSourceWithKeyValueAndMetadata() {
         final Map<String, String> options = getKeyValueOptions();
@@ -363,6 +438,47 @@ public class PulsarDynamicTableFactoryTest extends TestLogger {
         createTableSource(SCHEMA, modifiedOptions);
     }
 
+    @Test
+    public void testMissingBoundedTimestamp() {
+        thrown.expect(ValidationException.class);
+        thrown.expect(containsCause(new ValidationException("'scan.bounded.timestamp-millis' "
+                + "is required in 'timestamp' bounded mode but missing.")));
+
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getBasicSourceOptions(),
+                options -> options.put("scan.bounded.mode", "timestamp"));
+
+        createTableSource(SCHEMA, modifiedOptions);
+    }
+
+    @Test
+    public void testSpecificStartupOffsetsOfBoundedSource() {
+        thrown.expect(ValidationException.class);
+        thrown.expect(containsCause(new ValidationException("'specific-offsets' startup mode is not supported "
+                + "by the FLIP-27 Pulsar source, which is used when 'scan.bounded.mode' is not 'unbounded' "
+                + "or 'scan.new-source.enabled' is enabled.")));
+
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getBasicSourceOptions(),
+                options -> options.put("scan.bounded.mode", "latest"));
+
+        createTableSource(SCHEMA, modifiedOptions);
+    }
+
+    @Test
+    public void testKeySharedRangesOfLegacySource() {
+        thrown.expect(ValidationException.class);
+        thrown.expect(containsCause(new ValidationException("'scan.key-shared-ranges.enabled' is only supported "
+                + "by the FLIP-27 Pulsar source, which is used when 'scan.bounded.mode' is not 'unbounded' "
+                + "or 'scan.new-source.enabled' is enabled.")));
+
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getBasicSourceOptions(),
+                options -> options.put("scan.key-shared-ranges.enabled", "true"));
+
+        createTableSource(SCHEMA, modifiedOptions);
+    }
+
     @Test
     public void testSourceTableWithTopicAndTopicPattern() {
         thrown.expect(ValidationException.class);
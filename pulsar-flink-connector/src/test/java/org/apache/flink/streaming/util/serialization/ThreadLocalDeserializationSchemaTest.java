@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.util.serialization;
+
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.pulsar.source.ByteBufferDeserializationSchema;
+import org.apache.flink.connector.pulsar.source.util.MessagePayloads;
+import org.apache.flink.core.testutils.CheckedThread;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.UserCodeClassLoader;
+
+import org.apache.pulsar.client.api.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * per-thread {@link ThreadLocalDeserializationSchema} test.
+ */
+public class ThreadLocalDeserializationSchemaTest {
+
+    @Test
+    public void deserializeWithInstancePerThread() throws Exception {
+        DeserializationSchema<Integer> deserializationSchema =
+                ThreadLocalDeserializationSchema.of(new IdentityDeserializationSchema());
+        Assert.assertTrue(deserializationSchema instanceof ThreadLocalDeserializationSchema);
+
+        Set<Integer> instances = ConcurrentHashMap.newKeySet();
+        CheckedThread[] threads = new CheckedThread[10];
+        for (int i = 0; i < 10; i++) {
+            threads[i] = new CheckedThread() {
+                @Override
+                public void go() throws Exception {
+                    for (int j = 0; j < 100; j++) {
+                        instances.add(deserializationSchema.deserialize(null));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            threads[i].sync();
+        }
+        Assert.assertEquals(10, instances.size());
+    }
+
+    @Test
+    public void loadCopiesWithUserCodeClassLoader() throws Exception {
+        DeserializationSchema<Integer> deserializationSchema =
+                ThreadLocalDeserializationSchema.of(new IdentityDeserializationSchema());
+        RecordingClassLoader userCodeClassLoader = new RecordingClassLoader(getClass().getClassLoader());
+        deserializationSchema.open(new TestInitializationContext(userCodeClassLoader));
+
+        deserializationSchema.deserialize(null);
+        Assert.assertTrue(userCodeClassLoader.loadedClasses.contains(IdentityDeserializationSchema.class.getName()));
+    }
+
+    @Test
+    public void fallbackToSynchronizedWhenNotSerializable() {
+        DeserializationSchema<Integer> notSerializable = new IdentityDeserializationSchema() {
+            // anonymous inner class holding a reference to the non serializable test instance
+        };
+        Assert.assertTrue(
+                ThreadLocalDeserializationSchema.of(notSerializable) instanceof ThreadSafeDeserializationSchema);
+    }
+
+    @Test
+    public void doNotWrapTwice() {
+        DeserializationSchema<Integer> wrapped = ThreadLocalDeserializationSchema.of(new IdentityDeserializationSchema());
+        Assert.assertSame(wrapped, ThreadLocalDeserializationSchema.of(wrapped));
+    }
+
+    @Test
+    public void forwardByteBufferDeserialization() throws Exception {
+        DeserializationSchema<String> threadLocal = ThreadLocalDeserializationSchema.of(new SourceDeserializationSchema());
+        Assert.assertTrue(threadLocal instanceof ThreadLocalDeserializationSchema);
+        Assert.assertEquals("buffer:value", deserialize(threadLocal, "value"));
+
+        DeserializationSchema<String> notSerializable = new SourceDeserializationSchema() {
+            // anonymous inner class holding a reference to the non serializable test instance
+        };
+        DeserializationSchema<String> threadSafe = ThreadLocalDeserializationSchema.of(notSerializable);
+        Assert.assertTrue(threadSafe instanceof ThreadSafeDeserializationSchema);
+        Assert.assertEquals("buffer:value", deserialize(threadSafe, "value"));
+
+        // schemas reading byte arrays are not handed buffers
+        Assert.assertFalse(
+                ThreadLocalDeserializationSchema.of(new IdentityDeserializationSchema()) instanceof ByteBufferDeserializationSchema);
+    }
+
+    private static String deserialize(DeserializationSchema<String> schema, String value) throws IOException {
+        Message<?> message = mock(Message.class);
+        when(message.getData()).thenReturn(value.getBytes(StandardCharsets.UTF_8));
+        List<String> records = new ArrayList<>();
+        MessagePayloads.deserialize(schema, message, new ListCollector<>(records));
+        Assert.assertEquals(1, records.size());
+        return records.get(0);
+    }
+
+    /**
+     * Tells whether a message was decoded from its buffer or from a byte array.
+     */
+    static class SourceDeserializationSchema implements ByteBufferDeserializationSchema<String> {
+
+        @Override
+        public String deserialize(ByteBuffer message) {
+            return "buffer:" + StandardCharsets.UTF_8.decode(message);
+        }
+
+        @Override
+        public String deserialize(byte[] message) {
+            return "bytes:" + new String(message, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isEndOfStream(String nextElement) {
+            return false;
+        }
+
+        @Override
+        public TypeInformation<String> getProducedType() {
+            return TypeInformation.of(String.class);
+        }
+    }
+
+    /**
+     * Remembers the classes it was asked to load.
+     */
+    private static class RecordingClassLoader extends ClassLoader {
+
+        private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+
+        RecordingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            loadedClasses.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    /**
+     * Initialization context of a task with the given user code class loader.
+     */
+    private static class TestInitializationContext implements DeserializationSchema.InitializationContext {
+
+        private final ClassLoader classLoader;
+
+        TestInitializationContext(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public MetricGroup getMetricGroup() {
+            return new UnregisteredMetricsGroup();
+        }
+
+        @Override
+        public UserCodeClassLoader getUserCodeClassLoader() {
+            return new UserCodeClassLoader() {
+                @Override
+                public ClassLoader asClassLoader() {
+                    return classLoader;
+                }
+
+                @Override
+                public void registerReleaseHookIfAbsent(String releaseHookName, Runnable releaseHook) {
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns the identity of the schema instance that decoded the message.
+     */
+    static class IdentityDeserializationSchema implements DeserializationSchema<Integer> {
+
+        @Override
+        public Integer deserialize(byte[] bytes) throws IOException {
+            return System.identityHashCode(this);
+        }
+
+        @Override
+        public boolean isEndOfStream(Integer o) {
+            return false;
+        }
+
+        @Override
+        public TypeInformation<Integer> getProducedType() {
+            return TypeInformation.of(Integer.class);
+        }
+    }
+}